@@ -2,11 +2,13 @@ package de.htwg.api.itinerary;
 
 
 import de.htwg.api.itinerary.model.ItineraryDto;
+import de.htwg.api.itinerary.model.ItineraryExportDto;
 import de.htwg.api.itinerary.model.ItinerarySearchDto;
 import de.htwg.api.itinerary.model.ItinerarySearchResponseDto;
 import de.htwg.api.itinerary.service.ItineraryService;
 import de.htwg.security.Authenticated;
 import de.htwg.security.SecurityContext;
+import de.htwg.security.ServiceAuthenticated;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
@@ -27,6 +29,8 @@ import java.util.List;
 @Tag(name = "Itinerary Management", description = "Operations for managing travel itineraries")
 public class ItineraryApi {
 
+    private static final int MAX_EXPORT_PAGE_SIZE = 5000;
+
     private final ItineraryService itineraryService;
 
     @Inject
@@ -385,4 +389,70 @@ public class ItineraryApi {
         return Response.ok(itineraryDtos).build();
     }
 
+    @GET
+    @Path("/export")
+    @ServiceAuthenticated
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(
+        summary = "Export itineraries page by page",
+        description = "Returns up to 'limit' itineraries with an ID greater than 'afterId', ordered by ID, including the creator's email and the location names. " +
+                "Pass the ID of the last returned itinerary as 'afterId' to fetch the next page; a page shorter than 'limit' is the last one. " +
+                "Used by the recommendation service to bootstrap and resync its graph. Requires the service key, not a user token."
+    )
+    @SecurityRequirement(name = "ServiceKey")
+    @APIResponses(value = {
+        @APIResponse(
+            responseCode = "200",
+            description = "Page retrieved successfully",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = ItineraryExportDto[].class),
+                examples = @ExampleObject(
+                    name = "Export Page Example",
+                    summary = "Example of an export page",
+                    value = """
+                        [
+                          {
+                            "id": 1,
+                            "title": "Family Trip to Norway",
+                            "shortDescription": "Explore the fjords of southern Norway",
+                            "userEmail": "john.doe@example.com",
+                            "locationNames": ["Bergen", "Stavanger", "Geirangerfjord"]
+                          }
+                        ]
+                        """
+                )
+            )
+        ),
+        @APIResponse(
+            responseCode = "400",
+            description = "Bad request - Invalid paging parameters",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                example = "{\"error\": \"limit must be between 1 and 5000\"}"
+            )
+        ),
+        @APIResponse(
+            responseCode = "401",
+            description = "Unauthorized - Missing or invalid service key",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                example = "{\"error\": \"Missing or invalid service key\"}"
+            )
+        )
+    })
+    public Response exportItineraries(
+            @QueryParam("afterId") @DefaultValue("0") final long afterId,
+            @QueryParam("limit") @DefaultValue("1000") final int limit) {
+
+        if (limit < 1 || limit > MAX_EXPORT_PAGE_SIZE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"limit must be between 1 and " + MAX_EXPORT_PAGE_SIZE + "\"}")
+                    .build();
+        }
+
+        final List<ItineraryExportDto> page = itineraryService.exportItineraries(afterId, limit);
+        return Response.ok(page).build();
+    }
+
 }
@@ -1,6 +1,7 @@
 package de.htwg.api.itinerary.mapper;
 
 import de.htwg.api.itinerary.model.ItineraryDto;
+import de.htwg.api.itinerary.model.ItineraryExportDto;
 import de.htwg.api.itinerary.model.ItinerarySearchResponseDto;
 import de.htwg.persistence.entity.Itinerary;
 import de.htwg.persistence.entity.User;
@@ -47,6 +48,16 @@ public class ItineraryMapper {
                 .build();
     }
 
+    public ItineraryExportDto toExportDto(Itinerary entity, List<String> locationNames) {
+        return ItineraryExportDto.builder()
+                .id(entity.getId())
+                .title(entity.getTitle())
+                .shortDescription(entity.getShortDescription())
+                .userEmail(entity.getUser() != null ? entity.getUser().getEmail() : null)
+                .locationNames(locationNames)
+                .build();
+    }
+
     public List<ItineraryDto> toDtoList(List<Itinerary> entities) {
         return entities.stream()
                 .map(this::toDto)
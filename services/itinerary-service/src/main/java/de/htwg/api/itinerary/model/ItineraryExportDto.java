@@ -0,0 +1,15 @@
+package de.htwg.api.itinerary.model;
+
+import lombok.Builder;
+
+import java.util.List;
+
+@Builder
+public record ItineraryExportDto(
+    Long id,
+    String title,
+    String shortDescription,
+    String userEmail,
+    List<String> locationNames
+) {
+}
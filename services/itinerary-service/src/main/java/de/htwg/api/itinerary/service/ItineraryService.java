@@ -1,6 +1,7 @@
 package de.htwg.api.itinerary.service;
 
 import de.htwg.api.itinerary.model.ItineraryDto;
+import de.htwg.api.itinerary.model.ItineraryExportDto;
 import de.htwg.api.itinerary.model.ItinerarySearchDto;
 import de.htwg.api.itinerary.model.ItinerarySearchResponseDto;
 
@@ -20,4 +21,6 @@ public interface ItineraryService {
 
     List<ItinerarySearchResponseDto> searchItineraries(ItinerarySearchDto searchDto);
 
+    List<ItineraryExportDto> exportItineraries(Long afterId, int limit);
+
 }
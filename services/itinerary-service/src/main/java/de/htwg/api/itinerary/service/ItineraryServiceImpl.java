@@ -2,6 +2,7 @@ package de.htwg.api.itinerary.service;
 
 import de.htwg.api.itinerary.mapper.ItineraryMapper;
 import de.htwg.api.itinerary.model.ItineraryDto;
+import de.htwg.api.itinerary.model.ItineraryExportDto;
 import de.htwg.api.itinerary.model.ItinerarySearchDto;
 import de.htwg.api.itinerary.model.ItinerarySearchResponseDto;
 import de.htwg.persistence.entity.Itinerary;
@@ -12,7 +13,10 @@ import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @ApplicationScoped
@@ -90,4 +94,24 @@ public class ItineraryServiceImpl implements ItineraryService {
         );
         return itineraryMapper.toSearchResponseDtoList(itineraries);
     }
+
+    @Override
+    public List<ItineraryExportDto> exportItineraries(Long afterId, int limit) {
+        List<Itinerary> itineraries = itineraryRepository.findPageAfterId(afterId, limit);
+        if (itineraries.isEmpty()) {
+            return List.of();
+        }
+
+        // Locations of the whole page in one query instead of one lazy load per itinerary
+        List<Long> ids = itineraries.stream().map(Itinerary::getId).toList();
+        Map<Long, List<String>> locationNames = new HashMap<>();
+        for (Object[] row : itineraryRepository.findLocationNames(ids)) {
+            locationNames.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        return itineraries.stream()
+                .map(itinerary -> itineraryMapper.toExportDto(itinerary,
+                        locationNames.getOrDefault(itinerary.getId(), List.of())))
+                .toList();
+    }
 }
@@ -65,6 +65,13 @@ import org.eclipse.microprofile.openapi.annotations.servers.Server;
         """,
     in = SecuritySchemeIn.HEADER
 )
+@SecurityScheme(
+    securitySchemeName = "ServiceKey",
+    type = SecuritySchemeType.APIKEY,
+    apiKeyName = "X-Service-Key",
+    description = "Shared service key for service-only endpoints, used by the recommendation service. User tokens are not accepted.",
+    in = SecuritySchemeIn.HEADER
+)
 public class OpenApiConfig extends Application {
     // This class is only used for OpenAPI annotations
     // No implementation needed - Quarkus handles the rest
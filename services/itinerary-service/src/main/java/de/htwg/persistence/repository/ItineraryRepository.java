@@ -27,6 +27,27 @@ public class ItineraryRepository implements PanacheRepository<Itinerary> {
         return find("user.email", email).list();
     }
 
+    /**
+     * Keyset page of itineraries with ids greater than {@code afterId}, in id order, with their creators.
+     */
+    public List<Itinerary> findPageAfterId(Long afterId, int limit) {
+        return getEntityManager()
+                .createQuery("select i from Itinerary i join fetch i.user where i.id > :afterId order by i.id", Itinerary.class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Location names of the given itineraries as {@code [itineraryId, name]} rows, in one query.
+     */
+    public List<Object[]> findLocationNames(List<Long> itineraryIds) {
+        return getEntityManager()
+                .createQuery("select l.itinerary.id, l.name from Location l where l.itinerary.id in :ids", Object[].class)
+                .setParameter("ids", itineraryIds)
+                .getResultList();
+    }
+
     public List<Itinerary> searchItineraries(
             final String userName,
             final String userEmail,
@@ -0,0 +1,30 @@
+package de.htwg.security;
+
+import jakarta.ws.rs.NameBinding;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to mark REST endpoints that are only called by other backend services, never by end users.
+ * Requests must carry the shared service key (configured as {@code service-auth.key}) in the
+ * {@value ServiceKeyFilter#SERVICE_KEY_HEADER} header; an Identity Platform token is not enough.
+ * Example usage:
+ * <pre>
+ * {@code
+ * @ServiceAuthenticated
+ * @GET
+ * @Path("/export")
+ * public Response export() {
+ *     // Only callers holding the service key can access this endpoint
+ *     return Response.ok().build();
+ * }
+ * }
+ * </pre>
+ */
+@NameBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface ServiceAuthenticated {
+}
@@ -2,6 +2,7 @@ package de.htwg.api.itinerary.service;
 
 import de.htwg.api.itinerary.mapper.ItineraryMapper;
 import de.htwg.api.itinerary.model.ItineraryDto;
+import de.htwg.api.itinerary.model.ItineraryExportDto;
 import de.htwg.api.itinerary.model.ItinerarySearchDto;
 import de.htwg.api.itinerary.model.ItinerarySearchResponseDto;
 import de.htwg.persistence.entity.Itinerary;
@@ -507,4 +508,58 @@ public class ItineraryServiceTest {
         );
         verify(itineraryMapper).toSearchResponseDtoList(itineraries);
     }
+
+    @Test
+    void testExportItinerariesAttachesLocationNames() {
+        // Given
+        Itinerary secondItinerary = Itinerary.builder()
+                .id(2L)
+                .title("City Break in Rome")
+                .user(testUser)
+                .build();
+        List<Itinerary> itineraries = List.of(testItinerary, secondItinerary);
+
+        ItineraryExportDto firstExport = ItineraryExportDto.builder()
+                .id(1L)
+                .userEmail("test@example.com")
+                .locationNames(List.of("Bergen", "Stavanger"))
+                .build();
+        ItineraryExportDto secondExport = ItineraryExportDto.builder()
+                .id(2L)
+                .userEmail("test@example.com")
+                .locationNames(List.of())
+                .build();
+
+        when(itineraryRepository.findPageAfterId(0L, 2)).thenReturn(itineraries);
+        when(itineraryRepository.findLocationNames(List.of(1L, 2L))).thenReturn(List.of(
+                new Object[]{1L, "Bergen"},
+                new Object[]{1L, "Stavanger"}
+        ));
+        when(itineraryMapper.toExportDto(testItinerary, List.of("Bergen", "Stavanger"))).thenReturn(firstExport);
+        when(itineraryMapper.toExportDto(secondItinerary, List.of())).thenReturn(secondExport);
+
+        // When
+        List<ItineraryExportDto> result = itineraryService.exportItineraries(0L, 2);
+
+        // Then
+        assertEquals(List.of(firstExport, secondExport), result);
+
+        verify(itineraryRepository).findPageAfterId(0L, 2);
+        verify(itineraryRepository).findLocationNames(List.of(1L, 2L));
+    }
+
+    @Test
+    void testExportItinerariesAfterLastPage() {
+        // Given
+        when(itineraryRepository.findPageAfterId(42L, 100)).thenReturn(List.of());
+
+        // When
+        List<ItineraryExportDto> result = itineraryService.exportItineraries(42L, 100);
+
+        // Then
+        assertTrue(result.isEmpty());
+
+        verify(itineraryRepository, never()).findLocationNames(any());
+        verify(itineraryMapper, never()).toExportDto(any(), any());
+    }
 }
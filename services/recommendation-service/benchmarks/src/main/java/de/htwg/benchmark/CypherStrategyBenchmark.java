@@ -0,0 +1,52 @@
+package de.htwg.benchmark;
+
+import de.htwg.feed.Candidate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feed strategies as Cypher queries against Neo4j, with the limits the feed pipeline uses
+ * for a 100 item feed (60 personalized, 40 trending). Each invocation picks a random user.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CypherStrategyBenchmark {
+
+    @Benchmark
+    public List<Candidate> collaborative(GraphFixture fixture) {
+        return fixture.cypherRecommender.getCollaborativeFilteringRecommendations(fixture.randomUserEmail(), 60);
+    }
+
+    @Benchmark
+    public List<Candidate> location(GraphFixture fixture) {
+        return fixture.cypherRecommender.getLocationBasedRecommendations(fixture.randomUserEmail(), 60);
+    }
+
+    @Benchmark
+    public List<Candidate> trending(GraphFixture fixture) {
+        return fixture.cypherRecommender.getTrendingItineraries(fixture.randomUserEmail(), 40);
+    }
+
+    @Benchmark
+    public List<Candidate> popular(GraphFixture fixture) {
+        return fixture.cypherRecommender.getPopularItineraries(100);
+    }
+
+    @Benchmark
+    public List<Candidate> popularLastDay(GraphFixture fixture) {
+        return fixture.cypherRecommender.getPopularItinerariesSince(ZonedDateTime.now(ZoneOffset.UTC).minusDays(1), 100);
+    }
+}
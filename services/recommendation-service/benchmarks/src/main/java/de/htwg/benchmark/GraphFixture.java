@@ -0,0 +1,300 @@
+package de.htwg.benchmark;
+
+import de.htwg.feed.FeedInbox;
+import de.htwg.graph.EmbeddingIndex;
+import de.htwg.graph.GraphMirror;
+import de.htwg.graph.ItemSimilarityIndex;
+import de.htwg.graph.LocationIndex;
+import de.htwg.graph.NeighborSampler;
+import de.htwg.graph.TrendingIndex;
+import de.htwg.scheduler.EmbeddingTrainingJob;
+import de.htwg.scheduler.TrendingReconcileJob;
+import de.htwg.service.CypherRecommender;
+import de.htwg.service.ExclusionCache;
+import de.htwg.service.GraphBatchService;
+import de.htwg.service.GraphService;
+import de.htwg.service.PopularFeedSnapshot;
+import de.htwg.service.InMemoryRecommender;
+import de.htwg.service.RandomWalkRecommender;
+import de.htwg.service.ItineraryDetailsCache;
+import de.htwg.service.RecommendationService;
+import de.htwg.startup.GraphMirrorLoader;
+import de.htwg.startup.Neo4jIndexInitializer;
+import de.htwg.telemetry.QueryTelemetry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.GraphDatabase;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * An embedded Neo4j loaded with a {@link SyntheticGraph}, and the service beans wired against it
+ * the way CDI would: injected fields and config properties are set directly, then the
+ * {@code @PostConstruct} and startup hooks run (index creation, mirror load, similarity rebuild,
+ * trending reconcile, embedding training).
+ *
+ * Feed cache invalidation and the itinerary-details cache are stubbed out, so write benchmarks
+ * measure the graph write and the in-memory structure updates only. The per-user exclusion bitmaps
+ * are stubbed out empty (in production they are cached), so Cypher strategy benchmarks measure the
+ * queries without the exclusion load. Feed inbox delivery is disabled, as it needs the Quarkus cache.
+ */
+@State(Scope.Benchmark)
+public class GraphFixture {
+
+    @Param("1000")
+    public int users;
+
+    @Param("0.8")
+    public double viralSkew;
+
+    public Neo4j neo4j;
+    public Driver driver;
+    public SyntheticGraph graph;
+
+    public CypherRecommender cypherRecommender;
+    public InMemoryRecommender inMemoryRecommender;
+    public RandomWalkRecommender randomWalkRecommender;
+    public GraphService graphService;
+    public GraphBatchService graphBatchService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        neo4j = Neo4jBuilders.newInProcessBuilder().withDisabledServer().build();
+        driver = GraphDatabase.driver(neo4j.boltURI(), AuthTokens.none());
+
+        Neo4jIndexInitializer indexInitializer = new Neo4jIndexInitializer();
+        inject(indexInitializer, "neo4jDriver", driver);
+        invoke(indexInitializer, "onStart");
+
+        graph = SyntheticGraph.generate(SyntheticGraph.Config.defaults().withUsers(users).withViralSkew(viralSkew));
+        graph.load(driver);
+
+        QueryTelemetry queryTelemetry = new QueryTelemetry();
+        inject(queryTelemetry, "meterRegistry", new SimpleMeterRegistry());
+        inject(queryTelemetry, "neo4jDriver", driver);
+        inject(queryTelemetry, "enabled", true);
+        inject(queryTelemetry, "profileSampleRate", 0.0);
+        inject(queryTelemetry, "slowQueryMs", Long.MAX_VALUE);
+
+        GraphMirror graphMirror = new GraphMirror();
+        inject(graphMirror, "enabled", true);
+        inject(graphMirror, "maxStalenessMs", 250L);
+        invoke(graphMirror, "init");
+
+        LocationIndex locationIndex = new LocationIndex();
+        inject(locationIndex, "enabled", true);
+
+        GraphMirrorLoader mirrorLoader = new GraphMirrorLoader();
+        inject(mirrorLoader, "neo4jDriver", driver);
+        inject(mirrorLoader, "graphMirror", graphMirror);
+        inject(mirrorLoader, "locationIndex", locationIndex);
+        invoke(mirrorLoader, "onStart");
+
+        ItemSimilarityIndex itemSimilarityIndex = new ItemSimilarityIndex();
+        inject(itemSimilarityIndex, "enabled", true);
+        inject(itemSimilarityIndex, "topK", 20);
+        inject(itemSimilarityIndex, "minCoLikes", 2);
+        inject(itemSimilarityIndex, "graphMirror", graphMirror);
+        itemSimilarityIndex.rebuild();
+
+        TrendingIndex trendingIndex = new TrendingIndex();
+        inject(trendingIndex, "enabled", true);
+        inject(trendingIndex, "halfLife", Duration.ofHours(24));
+        inject(trendingIndex, "topN", 500);
+        inject(trendingIndex, "refreshMs", 1000L);
+        invoke(trendingIndex, "init");
+
+        TrendingReconcileJob reconcileJob = new TrendingReconcileJob();
+        inject(reconcileJob, "neo4jDriver", driver);
+        inject(reconcileJob, "queryTelemetry", queryTelemetry);
+        inject(reconcileJob, "trendingIndex", trendingIndex);
+        invoke(reconcileJob, "reconcile");
+
+        EmbeddingIndex embeddingIndex = new EmbeddingIndex();
+        inject(embeddingIndex, "enabled", true);
+
+        EmbeddingTrainingJob trainingJob = new EmbeddingTrainingJob();
+        inject(trainingJob, "neo4jDriver", driver);
+        inject(trainingJob, "queryTelemetry", queryTelemetry);
+        inject(trainingJob, "embeddingIndex", embeddingIndex);
+        inject(trainingJob, "factors", 32);
+        inject(trainingJob, "iterations", 10);
+        inject(trainingJob, "regularization", 0.1);
+        inject(trainingJob, "alpha", 20.0);
+        invoke(trainingJob, "train");
+
+        ExclusionCache exclusionCache = new NoopExclusionCache();
+
+        cypherRecommender = new CypherRecommender();
+        inject(cypherRecommender, "neo4jDriver", driver);
+        inject(cypherRecommender, "queryTelemetry", queryTelemetry);
+        inject(cypherRecommender, "exclusionCache", exclusionCache);
+        inject(cypherRecommender, "maxDegree", 1000);
+        inject(cypherRecommender, "candidateTimeoutMs", 1500L);
+        invoke(cypherRecommender, "init");
+
+        NeighborSampler neighborSampler = new NeighborSampler();
+        inject(neighborSampler, "maxDegree", 1000);
+        inject(neighborSampler, "sampling", "recency");
+        inject(neighborSampler, "recencyHalfLife", Duration.ofDays(7));
+        invoke(neighborSampler, "init");
+
+        inMemoryRecommender = new InMemoryRecommender();
+        inject(inMemoryRecommender, "graphMirror", graphMirror);
+        inject(inMemoryRecommender, "itemSimilarityIndex", itemSimilarityIndex);
+        inject(inMemoryRecommender, "trendingIndex", trendingIndex);
+        inject(inMemoryRecommender, "locationIndex", locationIndex);
+        inject(inMemoryRecommender, "neighborSampler", neighborSampler);
+        inject(inMemoryRecommender, "embeddingIndex", embeddingIndex);
+
+        randomWalkRecommender = new RandomWalkRecommender();
+        inject(randomWalkRecommender, "graphMirror", graphMirror);
+        inject(randomWalkRecommender, "enabled", true);
+        inject(randomWalkRecommender, "stepBudget", 50000);
+        inject(randomWalkRecommender, "roundSteps", 5000);
+        inject(randomWalkRecommender, "restartProbability", 0.3);
+        inject(randomWalkRecommender, "threads", 4);
+        inject(randomWalkRecommender, "stableOverlap", 0.9);
+        inject(randomWalkRecommender, "queueCapacity", 64);
+        inject(randomWalkRecommender, "timeoutMs", 1000L);
+        invoke(randomWalkRecommender, "init");
+
+        RecommendationService recommendationService = new NoopRecommendationService();
+
+        FeedInbox feedInbox = new FeedInbox();
+        inject(feedInbox, "enabled", false);
+
+        graphService = new GraphService();
+        inject(graphService, "neo4jDriver", driver);
+        inject(graphService, "queryTelemetry", queryTelemetry);
+        inject(graphService, "graphMirror", graphMirror);
+        inject(graphService, "itemSimilarityIndex", itemSimilarityIndex);
+        inject(graphService, "trendingIndex", trendingIndex);
+        inject(graphService, "recommendationService", recommendationService);
+        inject(graphService, "itineraryDetailsCache", new NoopItineraryDetailsCache());
+        inject(graphService, "exclusionCache", exclusionCache);
+        inject(graphService, "locationIndex", locationIndex);
+        inject(graphService, "feedInbox", feedInbox);
+        inject(graphService, "popularFeedSnapshot", new PopularFeedSnapshot());
+
+        graphBatchService = new GraphBatchService();
+        inject(graphBatchService, "neo4jDriver", driver);
+        inject(graphBatchService, "queryTelemetry", queryTelemetry);
+        inject(graphBatchService, "graphService", graphService);
+        inject(graphBatchService, "recommendationService", recommendationService);
+        inject(graphBatchService, "chunkSize", 500);
+        inject(graphBatchService, "maxEvents", 5000);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (randomWalkRecommender != null) {
+            invoke(randomWalkRecommender, "shutdown");
+        }
+        if (driver != null) {
+            driver.close();
+        }
+        if (neo4j != null) {
+            neo4j.close();
+        }
+    }
+
+    public int randomUser() {
+        return ThreadLocalRandom.current().nextInt(users);
+    }
+
+    public String randomUserEmail() {
+        return SyntheticGraph.userEmail(randomUser());
+    }
+
+    public long randomItineraryId() {
+        return ThreadLocalRandom.current().nextLong(graph.config().itineraries()) + 1;
+    }
+
+    /**
+     * Sets a package-private injected field or config property, as the container would.
+     */
+    static void inject(Object target, String fieldName, Object value) {
+        for (Class<?> type = target.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                // Look in the superclass (stubs subclass the real beans)
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot set " + fieldName + " on " + type.getName(), e);
+            }
+        }
+        throw new IllegalStateException("No field " + fieldName + " on " + target.getClass().getName());
+    }
+
+    /**
+     * Calls a package-private lifecycle method ({@code @PostConstruct}, startup observer or scheduled job).
+     * Event parameters are passed as null; none of the hooks read them.
+     */
+    static void invoke(Object target, String methodName) {
+        for (Method method : target.getClass().getDeclaredMethods()) {
+            if (method.getName().equals(methodName)) {
+                try {
+                    method.setAccessible(true);
+                    method.invoke(target, new Object[method.getParameterCount()]);
+                    return;
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Calling " + methodName + " on " + target.getClass().getName() + " failed", e);
+                }
+            }
+        }
+        throw new IllegalStateException("No method " + methodName + " on " + target.getClass().getName());
+    }
+
+    static class NoopRecommendationService extends RecommendationService {
+        @Override
+        public void invalidatePersonalizedFeed(String userEmail) {
+        }
+    }
+
+    static class NoopItineraryDetailsCache extends ItineraryDetailsCache {
+        @Override
+        public void invalidate(long itineraryId) {
+        }
+    }
+
+    static class NoopExclusionCache extends ExclusionCache {
+        @Override
+        public Exclusions get(String userEmail) {
+            return new Exclusions();
+        }
+
+        @Override
+        public Uni<Exclusions> getAsync(String userEmail) {
+            return Uni.createFrom().item(new Exclusions());
+        }
+
+        @Override
+        public void onLiked(String userEmail, long itineraryId) {
+        }
+
+        @Override
+        public void onUnliked(String userEmail, long itineraryId) {
+        }
+
+        @Override
+        public void onCreated(String userEmail, long itineraryId) {
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package de.htwg.benchmark;
+
+import de.htwg.dto.GraphBatchEventDTO;
+import de.htwg.dto.GraphBatchEventResultDTO;
+import de.htwg.dto.ItineraryEventDTO;
+import de.htwg.dto.LikeActionDTO;
+import de.htwg.dto.LocationVisitDTO;
+import de.htwg.service.GraphBatchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code GraphService} writes, each including the graph mirror, similarity and trending updates
+ * that follow a committed write, and a 100 event like batch through {@code GraphBatchService}.
+ *
+ * Writes accumulate in the fixture graph over a trial, so keep trials short when comparing runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GraphWriteBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    /**
+     * New itinerary ids, above the ids of the generated graph.
+     */
+    @State(Scope.Benchmark)
+    public static class ItineraryIds {
+        final AtomicLong next = new AtomicLong(1_000_000_000L);
+    }
+
+    /**
+     * A like recorded before each {@link #removeLike} invocation, so every unlike deletes a relationship.
+     */
+    @State(Scope.Thread)
+    public static class ExistingLike {
+        String userEmail;
+        LikeActionDTO like;
+
+        @Setup(Level.Invocation)
+        public void recordLike(GraphFixture fixture) {
+            userEmail = fixture.randomUserEmail();
+            like = LikeActionDTO.builder().itineraryId(fixture.randomItineraryId()).build();
+            fixture.graphService.recordLike(userEmail, like);
+        }
+    }
+
+    @Benchmark
+    public void recordLike(GraphFixture fixture) {
+        fixture.graphService.recordLike(fixture.randomUserEmail(),
+                LikeActionDTO.builder().itineraryId(fixture.randomItineraryId()).build());
+    }
+
+    @Benchmark
+    public void removeLike(GraphFixture fixture, ExistingLike existing) {
+        fixture.graphService.removeLike(existing.userEmail, existing.like);
+    }
+
+    @Benchmark
+    public void recordItinerary(GraphFixture fixture, ItineraryIds ids) {
+        long id = ids.next.getAndIncrement();
+        fixture.graphService.recordItinerary(fixture.randomUserEmail(), ItineraryEventDTO.builder()
+                .itineraryId(id)
+                .title("Trip " + id)
+                .description("Benchmark itinerary " + id)
+                .locationNames(randomLocations(fixture, 2))
+                .likesCount(0)
+                .eventType("CREATED")
+                .build());
+    }
+
+    @Benchmark
+    public void recordLocationVisits(GraphFixture fixture) {
+        fixture.graphService.recordLocationVisits(fixture.randomUserEmail(), LocationVisitDTO.builder()
+                .locationNames(randomLocations(fixture, 3))
+                .build());
+    }
+
+    @Benchmark
+    public List<GraphBatchEventResultDTO> likeBatch(GraphFixture fixture) {
+        List<GraphBatchService.PendingEvent> events = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            events.add(new GraphBatchService.PendingEvent(i, fixture.randomUserEmail(), GraphBatchEventDTO.builder()
+                    .type(GraphBatchService.LIKE)
+                    .itineraryId(fixture.randomItineraryId())
+                    .build()));
+        }
+        return fixture.graphBatchService.apply(events);
+    }
+
+    private static List<String> randomLocations(GraphFixture fixture, int count) {
+        SyntheticGraph.Config config = fixture.graph.config();
+        List<String> locations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            locations.add(SyntheticGraph.locationName(fixture.randomItineraryId(),
+                    ThreadLocalRandom.current().nextInt(config.locationsPerItinerary())));
+        }
+        return locations;
+    }
+}
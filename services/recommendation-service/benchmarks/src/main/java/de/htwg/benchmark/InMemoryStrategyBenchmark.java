@@ -0,0 +1,75 @@
+package de.htwg.benchmark;
+
+import de.htwg.feed.Candidate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feed strategies served from the graph mirror, the item similarity table and the trending index,
+ * with the same limits as {@link CypherStrategyBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class InMemoryStrategyBenchmark {
+
+    @Benchmark
+    public List<Candidate> itemSimilarity(GraphFixture fixture) {
+        return fixture.inMemoryRecommender.getItemSimilarityRecommendations(fixture.randomUserEmail(), 60);
+    }
+
+    @Benchmark
+    public List<Candidate> collaborative(GraphFixture fixture) {
+        return fixture.inMemoryRecommender.getCollaborativeFilteringRecommendations(fixture.randomUserEmail(), 60);
+    }
+
+    @Benchmark
+    public List<Candidate> location(GraphFixture fixture) {
+        return fixture.inMemoryRecommender.getLocationBasedRecommendations(fixture.randomUserEmail(), 60);
+    }
+
+    @Benchmark
+    public List<Candidate> locationFromIndex(GraphFixture fixture) {
+        return fixture.inMemoryRecommender.getLocationIndexRecommendations(fixture.randomUserEmail(), 60);
+    }
+
+    @Benchmark
+    public List<Candidate> randomWalk(GraphFixture fixture) {
+        return fixture.randomWalkRecommender.getRandomWalkRecommendations(fixture.randomUserEmail(), 60);
+    }
+
+    @Benchmark
+    public List<Candidate> embedding(GraphFixture fixture) {
+        return fixture.inMemoryRecommender.getEmbeddingRecommendations(fixture.randomUserEmail(), 60);
+    }
+
+    @Benchmark
+    public List<Candidate> trendingFromMirror(GraphFixture fixture) {
+        return fixture.inMemoryRecommender.getTrendingItineraries(fixture.randomUserEmail(), 40);
+    }
+
+    @Benchmark
+    public List<Candidate> trendingFromIndex(GraphFixture fixture) {
+        return fixture.inMemoryRecommender.getTrendingFromIndex(fixture.randomUserEmail(), 40);
+    }
+
+    @Benchmark
+    public List<Candidate> popularFromMirror(GraphFixture fixture) {
+        return fixture.inMemoryRecommender.getPopularItineraries(100);
+    }
+
+    @Benchmark
+    public List<Candidate> popularFromIndex(GraphFixture fixture) {
+        return fixture.inMemoryRecommender.getPopularFromIndex(100);
+    }
+}
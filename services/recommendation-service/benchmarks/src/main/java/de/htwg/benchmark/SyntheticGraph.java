@@ -0,0 +1,247 @@
+package de.htwg.benchmark;
+
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic graph shaped like the data of {@code load/seed_data.py}:
+ * users own a few itineraries, every itinerary includes its own locations, users like
+ * other users' itineraries and have visited their own and some random locations.
+ *
+ * Liked itineraries are drawn from a Zipf distribution over a shuffled popularity ranking, so
+ * {@link Config#viralSkew()} controls how strongly likes concentrate on a few viral itineraries
+ * (0 = uniform, around 1 = a handful of itineraries collect a large share of all likes).
+ */
+public final class SyntheticGraph {
+
+    private static final int LOAD_CHUNK_SIZE = 10_000;
+
+    /**
+     * Shape of the generated graph. The defaults match the seed script.
+     */
+    public record Config(int users,
+                         int itinerariesPerUser,
+                         int locationsPerItinerary,
+                         int likesPerUser,
+                         int extraVisitsPerUser,
+                         double viralSkew,
+                         int likeAgeDays,
+                         long seed) {
+
+        public static Config defaults() {
+            return new Config(1000, 3, 2, 68, 10, 0.8, 30, 42L);
+        }
+
+        public Config withUsers(int users) {
+            return new Config(users, itinerariesPerUser, locationsPerItinerary, likesPerUser,
+                    extraVisitsPerUser, viralSkew, likeAgeDays, seed);
+        }
+
+        public Config withViralSkew(double viralSkew) {
+            return new Config(users, itinerariesPerUser, locationsPerItinerary, likesPerUser,
+                    extraVisitsPerUser, viralSkew, likeAgeDays, seed);
+        }
+
+        public int itineraries() {
+            return users * itinerariesPerUser;
+        }
+
+        public int locations() {
+            return itineraries() * locationsPerItinerary;
+        }
+    }
+
+    private final Config config;
+    private final List<Map<String, Object>> itineraries = new ArrayList<>();
+    private final List<Map<String, Object>> likes = new ArrayList<>();
+    private final List<Map<String, Object>> visits = new ArrayList<>();
+
+    private SyntheticGraph(Config config) {
+        this.config = config;
+    }
+
+    public static SyntheticGraph generate(Config config) {
+        SyntheticGraph graph = new SyntheticGraph(config);
+        graph.build(new Random(config.seed()));
+        return graph;
+    }
+
+    public Config config() {
+        return config;
+    }
+
+    public static String userEmail(int user) {
+        return "loadtest." + user + "@example.com";
+    }
+
+    public static long itineraryId(Config config, int user, int k) {
+        return (long) user * config.itinerariesPerUser() + k + 1;
+    }
+
+    public static String locationName(long itineraryId, int j) {
+        return "Location " + itineraryId + "-" + j;
+    }
+
+    public int likeCount() {
+        return likes.size();
+    }
+
+    private void build(Random random) {
+        int itineraryCount = config.itineraries();
+        int[] likesPerItinerary = new int[itineraryCount];
+
+        // Popularity rank -> itinerary index, shuffled so viral itineraries are spread over all owners
+        int[] byRank = new int[itineraryCount];
+        for (int i = 0; i < itineraryCount; i++) {
+            byRank[i] = i;
+        }
+        for (int i = itineraryCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = byRank[i];
+            byRank[i] = byRank[j];
+            byRank[j] = tmp;
+        }
+        double[] cumulative = zipfCumulative(itineraryCount, config.viralSkew());
+
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        long maxAgeSeconds = config.likeAgeDays() * 86_400L;
+        int likesPerUser = Math.min(config.likesPerUser(), itineraryCount - config.itinerariesPerUser());
+
+        for (int user = 0; user < config.users(); user++) {
+            String email = userEmail(user);
+            int ownFirst = user * config.itinerariesPerUser();
+            int ownLast = ownFirst + config.itinerariesPerUser() - 1;
+
+            List<String> visited = new ArrayList<>();
+            for (int k = 0; k < config.itinerariesPerUser(); k++) {
+                long id = itineraryId(config, user, k);
+                List<String> locations = new ArrayList<>(config.locationsPerItinerary());
+                for (int j = 0; j < config.locationsPerItinerary(); j++) {
+                    locations.add(locationName(id, j));
+                }
+                visited.addAll(locations);
+
+                Map<String, Object> row = new HashMap<>();
+                row.put("userEmail", email);
+                row.put("id", id);
+                row.put("title", "Trip " + id);
+                row.put("description", "Synthetic itinerary " + id);
+                row.put("createdAt", now.minusSeconds(random.nextLong(maxAgeSeconds)));
+                row.put("locations", locations);
+                itineraries.add(row);
+            }
+
+            // Distinct likes of other users' itineraries
+            boolean[] liked = new boolean[itineraryCount];
+            int remaining = likesPerUser;
+            while (remaining > 0) {
+                int itinerary = byRank[sample(cumulative, random)];
+                if (liked[itinerary] || (itinerary >= ownFirst && itinerary <= ownLast)) {
+                    continue;
+                }
+                liked[itinerary] = true;
+                likesPerItinerary[itinerary]++;
+                remaining--;
+                likes.add(Map.of(
+                        "userEmail", email,
+                        "itineraryId", (long) itinerary + 1,
+                        "timestamp", now.minusSeconds(random.nextLong(maxAgeSeconds))));
+            }
+
+            for (int v = 0; v < config.extraVisitsPerUser(); v++) {
+                long id = random.nextInt(itineraryCount) + 1L;
+                visited.add(locationName(id, random.nextInt(config.locationsPerItinerary())));
+            }
+            visits.add(Map.of("userEmail", email, "locations", visited.stream().distinct().toList()));
+        }
+
+        for (Map<String, Object> itinerary : itineraries) {
+            long id = (Long) itinerary.get("id");
+            itinerary.put("likesCount", likesPerItinerary[(int) id - 1]);
+        }
+    }
+
+    /**
+     * Writes the graph into an empty database, in UNWIND chunks.
+     */
+    public void load(Driver driver) {
+        List<Map<String, Object>> users = new ArrayList<>(config.users());
+        for (int user = 0; user < config.users(); user++) {
+            users.add(Map.of("email", userEmail(user)));
+        }
+
+        write(driver, users, """
+                UNWIND $rows AS row
+                CREATE (:User {email: row.email})
+                """);
+        write(driver, itineraries, """
+                UNWIND $rows AS row
+                MATCH (u:User {email: row.userEmail})
+                CREATE (u)-[:CREATED]->(i:Itinerary {id: row.id, title: row.title, description: row.description,
+                                                      createdAt: row.createdAt, likesCount: row.likesCount})
+                WITH i, row
+                UNWIND row.locations AS locationName
+                MERGE (l:Location {name: locationName})
+                CREATE (i)-[:INCLUDES]->(l)
+                """);
+        write(driver, likes, """
+                UNWIND $rows AS row
+                MATCH (u:User {email: row.userEmail})
+                MATCH (i:Itinerary {id: row.itineraryId})
+                CREATE (u)-[:LIKES {timestamp: row.timestamp}]->(i)
+                """);
+        write(driver, visits, """
+                UNWIND $rows AS row
+                MATCH (u:User {email: row.userEmail})
+                UNWIND row.locations AS locationName
+                MATCH (l:Location {name: locationName})
+                CREATE (u)-[:VISITED {timestamp: $timestamp}]->(l)
+                """);
+    }
+
+    private static void write(Driver driver, List<Map<String, Object>> rows, String cypher) {
+        for (int from = 0; from < rows.size(); from += LOAD_CHUNK_SIZE) {
+            List<Map<String, Object>> chunk = rows.subList(from, Math.min(from + LOAD_CHUNK_SIZE, rows.size()));
+            try (Session session = driver.session()) {
+                session.writeTransaction(tx -> tx.run(cypher, Map.of(
+                        "rows", chunk,
+                        "timestamp", ZonedDateTime.now(ZoneOffset.UTC))).consume());
+            }
+        }
+    }
+
+    private static double[] zipfCumulative(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, Random random) {
+        double u = random.nextDouble();
+        int lo = 0, hi = cumulative.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cumulative[mid] < u) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
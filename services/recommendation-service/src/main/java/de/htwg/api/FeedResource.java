@@ -3,10 +3,17 @@ package de.htwg.api;
 import de.htwg.dto.FeedResponseDTO;
 import de.htwg.security.Authenticated;
 import de.htwg.security.SecurityContext;
+import de.htwg.service.PopularFeedSnapshot;
 import de.htwg.service.RecommendationService;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
@@ -14,6 +21,10 @@ import org.eclipse.microprofile.openapi.annotations.security.SecurityRequirement
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.logging.Logger;
 
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * REST API for personalized travel feed recommendations.
  * Implements the Personalized Live Feed Epic user stories.
@@ -29,9 +40,17 @@ public class FeedResource {
 
     private static final Logger LOG = Logger.getLogger(FeedResource.class);
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final Pattern WINDOW_PATTERN = Pattern.compile("(\\d{1,4})([hd])");
+    private static final Duration MAX_WINDOW = Duration.ofDays(365);
+
     @Inject
     RecommendationService recommendationService;
 
+    @Inject
+    PopularFeedSnapshot popularFeedSnapshot;
+
     @Inject
     SecurityContext securityContext;
 
@@ -41,18 +60,26 @@ public class FeedResource {
      * Story 2: Discover Itineraries from Travellers Who Visited the Same Places
      * Story 3: Refine Recommendation Algorithm with Social Signals and Basic Feed
      *
+     * Optionally cursor-paginated: pass {@code pageSize} for the first page and the returned
+     * {@code nextCursor} for the following ones.
+     *
+     * @param pageSize number of items per page (enables pagination, default 20)
+     * @param cursor   cursor of the next page from the previous response
      * @return Feed response with recommended itineraries (max items configured in application.properties)
      */
     @GET
     @Operation(
             summary = "Get personalized feed",
             description = "Returns a personalized feed of itinerary recommendations based on the authenticated traveller's " +
-                    "visited/planned destinations and social signals (likes). Falls back to basic feed for new users."
+                    "visited/planned destinations and social signals (likes). Falls back to basic feed for new users. " +
+                    "Pass pageSize and then the returned nextCursor to page through a stable ranked snapshot."
     )
     @APIResponse(responseCode = "200", description = "Feed retrieved successfully")
+    @APIResponse(responseCode = "400", description = "Invalid or expired cursor")
     @APIResponse(responseCode = "401", description = "Not authenticated")
     @APIResponse(responseCode = "500", description = "Internal server error")
-    public Response getPersonalizedFeed() {
+    public Response getPersonalizedFeed(@QueryParam("pageSize") Integer pageSize,
+                                        @QueryParam("cursor") String cursor) {
         String userEmail = securityContext.getCurrentUserEmail();
 
         if (userEmail == null || userEmail.isBlank()) {
@@ -65,8 +92,16 @@ public class FeedResource {
         LOG.infof("Getting personalized feed for user: %s", userEmail);
 
         try {
-            FeedResponseDTO feed = recommendationService.getPersonalizedFeed(userEmail);
+            // Cursor pagination is opt-in: without pageSize/cursor the whole feed is returned as before
+            FeedResponseDTO feed = pageSize == null && cursor == null
+                    ? recommendationService.getPersonalizedFeed(userEmail)
+                    : recommendationService.getPersonalizedFeedPage(userEmail, cursor,
+                            pageSize != null ? pageSize : DEFAULT_PAGE_SIZE);
             return Response.ok(feed).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"" + e.getMessage() + ", request the first page again\"}")
+                    .build();
         } catch (Exception e) {
             LOG.errorf(e, "Error getting personalized feed for user: %s", userEmail);
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -78,23 +113,37 @@ public class FeedResource {
     /**
      * Get basic feed with most popular itineraries.
      * This is exposed as a separate endpoint but also serves as fallback in the main feed.
+     * Without a window it is served from the {@link PopularFeedSnapshot} with an {@code ETag},
+     * and answers {@code 304 Not Modified} to a matching {@code If-None-Match}.
      *
+     * @param window only count likes of the last hours or days, e.g. {@code 24h} or {@code 7d}
      * @return Feed response with popular itineraries
      */
     @GET
     @Path("/popular")
     @Operation(
             summary = "Get popular feed",
-            description = "Returns a feed of the most popular itineraries based on likes"
+            description = "Returns a feed of the most popular itineraries based on likes. " +
+                    "Pass window (e.g. 24h or 7d) to only count recent likes."
     )
     @APIResponse(responseCode = "200", description = "Popular feed retrieved successfully")
+    @APIResponse(responseCode = "304", description = "Popular feed unchanged since the ETag in If-None-Match")
+    @APIResponse(responseCode = "400", description = "Invalid window")
     @APIResponse(responseCode = "500", description = "Internal server error")
-    public Response getPopularFeed() {
+    public Response getPopularFeed(@QueryParam("window") String window, @Context Request request) {
         LOG.info("Getting popular feed");
 
         try {
-            FeedResponseDTO feed = recommendationService.getPopularFeed();
+            Duration duration = parseWindow(window);
+            if (duration == null && popularFeedSnapshot.isEnabled()) {
+                return snapshotResponse(popularFeedSnapshot.get(), request);
+            }
+            FeedResponseDTO feed = recommendationService.getPopularFeed(duration);
             return Response.ok(feed).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"" + e.getMessage() + "\"}")
+                    .build();
         } catch (Exception e) {
             LOG.errorf(e, "Error getting popular feed");
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -102,5 +151,129 @@ public class FeedResource {
                     .build();
         }
     }
-}
 
+    /**
+     * Asynchronous variant of the personalized feed.
+     * Runs on a worker thread, because the {@link Authenticated} filter verifies the token with a blocking
+     * Firebase call; the worker is released when the method returns, and the Neo4j fallbacks (async session API)
+     * and the itinerary details (reactive REST client) complete without holding it.
+     *
+     * @return Feed response with recommended itineraries
+     */
+    @GET
+    @Path("/reactive")
+    @Blocking
+    @Operation(
+            summary = "Get personalized feed (asynchronous)",
+            description = "Same response as GET /feed; Neo4j and itinerary-service calls do not hold a worker thread while waiting"
+    )
+    @APIResponse(responseCode = "200", description = "Feed retrieved successfully")
+    @APIResponse(responseCode = "401", description = "Not authenticated")
+    @APIResponse(responseCode = "500", description = "Internal server error")
+    public Uni<Response> getPersonalizedFeedReactive() {
+        String userEmail = securityContext.getCurrentUserEmail();
+
+        if (userEmail == null || userEmail.isBlank()) {
+            LOG.error("No authenticated user email found in security context");
+            return Uni.createFrom().item(Response.status(Response.Status.UNAUTHORIZED)
+                    .entity("{\"error\": \"Authentication required\"}")
+                    .build());
+        }
+
+        LOG.infof("Getting personalized feed (reactive) for user: %s", userEmail);
+
+        return recommendationService.getPersonalizedFeedReactive(userEmail)
+                .map(feed -> Response.ok(feed).build())
+                .onFailure().recoverWithItem(e -> {
+                    LOG.errorf(e, "Error getting personalized feed for user: %s", userEmail);
+                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                            .entity("{\"error\": \"Error retrieving feed\"}")
+                            .build();
+                });
+    }
+
+    /**
+     * Asynchronous variant of the popular feed, on a worker thread for the same reason as
+     * {@link #getPersonalizedFeedReactive()}.
+     *
+     * @return Feed response with popular itineraries
+     */
+    @GET
+    @Path("/popular/reactive")
+    @Blocking
+    @Operation(
+            summary = "Get popular feed (asynchronous)",
+            description = "Same response as GET /feed/popular; Neo4j and itinerary-service calls do not hold a worker thread while waiting"
+    )
+    @APIResponse(responseCode = "200", description = "Popular feed retrieved successfully")
+    @APIResponse(responseCode = "304", description = "Popular feed unchanged since the ETag in If-None-Match")
+    @APIResponse(responseCode = "400", description = "Invalid window")
+    @APIResponse(responseCode = "500", description = "Internal server error")
+    public Uni<Response> getPopularFeedReactive(@QueryParam("window") String window, @Context Request request) {
+        LOG.info("Getting popular feed (reactive)");
+
+        Duration duration;
+        try {
+            duration = parseWindow(window);
+        } catch (IllegalArgumentException e) {
+            return Uni.createFrom().item(Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"" + e.getMessage() + "\"}")
+                    .build());
+        }
+
+        Uni<Response> response = duration == null && popularFeedSnapshot.isEnabled()
+                ? popularFeedSnapshot.getAsync().map(snapshot -> snapshotResponse(snapshot, request))
+                : recommendationService.getPopularFeedReactive(duration).map(feed -> Response.ok(feed).build());
+        return response
+                .onFailure().recoverWithItem(e -> {
+                    LOG.errorf(e, "Error getting popular feed");
+                    return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                            .entity("{\"error\": \"Error retrieving popular feed\"}")
+                            .build();
+                });
+    }
+
+    /**
+     * Serves the pre-serialized popular feed, or 304 if the client already has this version.
+     * Clients may reuse it for one refresh interval and a stale copy for another while revalidating.
+     */
+    private Response snapshotResponse(PopularFeedSnapshot.Snapshot snapshot, Request request) {
+        EntityTag etag = new EntityTag(snapshot.etag());
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setMaxAge((int) popularFeedSnapshot.getRefreshInterval().toSeconds());
+        cacheControl.getCacheExtension().put("stale-while-revalidate",
+                Long.toString(popularFeedSnapshot.getRefreshInterval().toSeconds()));
+
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.cacheControl(cacheControl).build();
+        }
+        return Response.ok(snapshot.body(), MediaType.APPLICATION_JSON_TYPE)
+                .tag(etag)
+                .cacheControl(cacheControl)
+                .build();
+    }
+
+    /**
+     * Parses a popular feed window of whole hours or days ({@code 24h}, {@code 7d}).
+     *
+     * @return the window, or null if none was given
+     * @throws IllegalArgumentException if the window is malformed or out of range
+     */
+    static Duration parseWindow(String window) {
+        if (window == null || window.isBlank()) {
+            return null;
+        }
+        Matcher matcher = WINDOW_PATTERN.matcher(window.trim());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid window, expected e.g. 24h or 7d");
+        }
+        long amount = Long.parseLong(matcher.group(1));
+        Duration duration = matcher.group(2).equals("h") ? Duration.ofHours(amount) : Duration.ofDays(amount);
+        if (duration.isZero() || duration.compareTo(MAX_WINDOW) > 0) {
+            throw new IllegalArgumentException("Window must be between 1h and " + MAX_WINDOW.toDays() + "d");
+        }
+        return duration;
+    }
+}
@@ -1,10 +1,14 @@
 package de.htwg.api;
 
+import de.htwg.dto.GraphBatchEventDTO;
+import de.htwg.dto.GraphBatchResponseDTO;
 import de.htwg.dto.ItineraryEventDTO;
 import de.htwg.dto.LikeActionDTO;
 import de.htwg.dto.LocationVisitDTO;
 import de.htwg.security.Authenticated;
+import de.htwg.service.GraphBatchService;
 import de.htwg.service.GraphService;
+import de.htwg.service.GraphWriteQueue;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
@@ -15,6 +19,8 @@ import org.eclipse.microprofile.openapi.annotations.security.SecurityRequirement
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.logging.Logger;
 
+import java.util.List;
+
 /**
  * REST API for managing graph database entries.
  * These endpoints allow recording user interactions (likes, itinerary creation, location visits)
@@ -34,6 +40,12 @@ public class GraphResource {
     @Inject
     GraphService graphService;
 
+    @Inject
+    GraphBatchService graphBatchService;
+
+    @Inject
+    GraphWriteQueue graphWriteQueue;
+
     @Inject
     de.htwg.security.SecurityContext securityContext;
 
@@ -53,9 +65,11 @@ public class GraphResource {
             description = "Creates a LIKES relationship between the authenticated user and an itinerary in the graph database"
     )
     @APIResponse(responseCode = "201", description = "Like recorded successfully")
+    @APIResponse(responseCode = "202", description = "Accepted for asynchronous write (write-behind mode)")
     @APIResponse(responseCode = "400", description = "Invalid request data")
     @APIResponse(responseCode = "401", description = "Not authenticated")
     @APIResponse(responseCode = "500", description = "Internal server error")
+    @APIResponse(responseCode = "503", description = "Write-behind queue full")
     public Response recordLike(LikeActionDTO likeAction) {
         String userEmail = securityContext.getCurrentUserEmail();
 
@@ -74,6 +88,13 @@ public class GraphResource {
                     .build();
         }
 
+        if (graphWriteQueue.isEnabled()) {
+            return enqueue(userEmail, GraphBatchEventDTO.builder()
+                    .type(GraphBatchService.LIKE)
+                    .itineraryId(likeAction.getItineraryId())
+                    .build(), "Like accepted");
+        }
+
         try {
             graphService.recordLike(userEmail, likeAction);
             return Response.status(Response.Status.CREATED)
@@ -103,9 +124,11 @@ public class GraphResource {
             description = "Removes a LIKES relationship between the authenticated user and an itinerary from the graph database"
     )
     @APIResponse(responseCode = "200", description = "Like removed successfully")
+    @APIResponse(responseCode = "202", description = "Accepted for asynchronous write (write-behind mode)")
     @APIResponse(responseCode = "400", description = "Invalid request data")
     @APIResponse(responseCode = "401", description = "Not authenticated")
     @APIResponse(responseCode = "500", description = "Internal server error")
+    @APIResponse(responseCode = "503", description = "Write-behind queue full")
     public Response removeLike(LikeActionDTO likeAction) {
         String userEmail = securityContext.getCurrentUserEmail();
 
@@ -124,6 +147,13 @@ public class GraphResource {
                     .build();
         }
 
+        if (graphWriteQueue.isEnabled()) {
+            return enqueue(userEmail, GraphBatchEventDTO.builder()
+                    .type(GraphBatchService.UNLIKE)
+                    .itineraryId(likeAction.getItineraryId())
+                    .build(), "Like removal accepted");
+        }
+
         try {
             graphService.removeLike(userEmail, likeAction);
             return Response.ok()
@@ -153,9 +183,11 @@ public class GraphResource {
             description = "Creates or updates an itinerary node and its relationships in the graph database for the authenticated user"
     )
     @APIResponse(responseCode = "201", description = "Itinerary recorded successfully")
+    @APIResponse(responseCode = "202", description = "Accepted for asynchronous write (write-behind mode)")
     @APIResponse(responseCode = "400", description = "Invalid request data")
     @APIResponse(responseCode = "401", description = "Not authenticated")
     @APIResponse(responseCode = "500", description = "Internal server error")
+    @APIResponse(responseCode = "503", description = "Write-behind queue full")
     public Response recordItinerary(ItineraryEventDTO itineraryEvent) {
         String userEmail = securityContext.getCurrentUserEmail();
 
@@ -180,6 +212,17 @@ public class GraphResource {
                     .build();
         }
 
+        if (graphWriteQueue.isEnabled()) {
+            return enqueue(userEmail, GraphBatchEventDTO.builder()
+                    .type(GraphBatchService.ITINERARY)
+                    .itineraryId(itineraryEvent.getItineraryId())
+                    .title(itineraryEvent.getTitle())
+                    .description(itineraryEvent.getDescription())
+                    .locationNames(itineraryEvent.getLocationNames())
+                    .likesCount(itineraryEvent.getLikesCount())
+                    .build(), "Itinerary accepted");
+        }
+
         try {
             graphService.recordItinerary(userEmail, itineraryEvent);
             return Response.status(Response.Status.CREATED)
@@ -209,9 +252,11 @@ public class GraphResource {
             description = "Creates VISITED relationships between the authenticated user and locations in the graph database"
     )
     @APIResponse(responseCode = "201", description = "Location visits recorded successfully")
+    @APIResponse(responseCode = "202", description = "Accepted for asynchronous write (write-behind mode)")
     @APIResponse(responseCode = "400", description = "Invalid request data")
     @APIResponse(responseCode = "401", description = "Not authenticated")
     @APIResponse(responseCode = "500", description = "Internal server error")
+    @APIResponse(responseCode = "503", description = "Write-behind queue full")
     public Response recordLocationVisits(LocationVisitDTO locationVisit) {
         String userEmail = securityContext.getCurrentUserEmail();
 
@@ -230,6 +275,13 @@ public class GraphResource {
                     .build();
         }
 
+        if (graphWriteQueue.isEnabled()) {
+            return enqueue(userEmail, GraphBatchEventDTO.builder()
+                    .type(GraphBatchService.VISIT)
+                    .locationNames(locationVisit.getLocationNames())
+                    .build(), "Location visits accepted");
+        }
+
         try {
             graphService.recordLocationVisits(userEmail, locationVisit);
             return Response.status(Response.Status.CREATED)
@@ -242,4 +294,76 @@ public class GraphResource {
                     .build();
         }
     }
+
+    /**
+     * Record a batch of graph events in a few transactions.
+     * Accepts a mixed list of LIKE, UNLIKE, ITINERARY and VISIT events for the authenticated user
+     * and writes them with UNWIND-based transactions per event type, chunked by size.
+     * Invalid events are rejected individually; the response lists the outcome of every event.
+     *
+     * @param events The events to record
+     * @return Response with per-event results
+     */
+    @POST
+    @Path("/batch")
+    @Operation(
+            summary = "Record a batch of graph events",
+            description = "Applies a mixed list of like, unlike, itinerary and location visit events for the authenticated user " +
+                    "using batched transactions and reports the result of every event"
+    )
+    @APIResponse(responseCode = "200", description = "Batch processed, see per-event results")
+    @APIResponse(responseCode = "400", description = "Empty or oversized batch")
+    @APIResponse(responseCode = "401", description = "Not authenticated")
+    @APIResponse(responseCode = "500", description = "Internal server error")
+    public Response recordBatch(List<GraphBatchEventDTO> events) {
+        String userEmail = securityContext.getCurrentUserEmail();
+
+        if (userEmail == null || userEmail.isBlank()) {
+            LOG.error("No authenticated user email found in security context");
+            return Response.status(Response.Status.UNAUTHORIZED)
+                    .entity("{\"error\": \"Authentication required\"}")
+                    .build();
+        }
+
+        if (events == null || events.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"At least one event is required\"}")
+                    .build();
+        }
+
+        if (events.size() > graphBatchService.getMaxEvents()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"error\": \"At most " + graphBatchService.getMaxEvents() + " events per batch are allowed\"}")
+                    .build();
+        }
+
+        LOG.infof("Recording batch of %d events for user %s", events.size(), userEmail);
+
+        try {
+            GraphBatchResponseDTO result = graphBatchService.recordBatch(userEmail, events);
+            return Response.ok(result).build();
+        } catch (Exception e) {
+            LOG.errorf(e, "Error recording batch");
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("{\"error\": \"Failed to record batch\"}")
+                    .build();
+        }
+    }
+
+    /**
+     * Hands an event to the write-behind queue.
+     * Answers 202 once queued and 503 when the queue is full, so clients back off instead of piling up.
+     */
+    private Response enqueue(String userEmail, GraphBatchEventDTO event, String message) {
+        if (!graphWriteQueue.offer(userEmail, event)) {
+            LOG.warnf("Graph write queue full, rejecting %s event of user %s", event.getType(), userEmail);
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "1")
+                    .entity("{\"error\": \"Too many pending writes, retry later\"}")
+                    .build();
+        }
+        return Response.accepted()
+                .entity("{\"message\": \"" + message + "\"}")
+                .build();
+    }
 }
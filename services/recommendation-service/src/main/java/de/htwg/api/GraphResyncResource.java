@@ -0,0 +1,68 @@
+package de.htwg.api;
+
+import de.htwg.security.ServiceAuthenticated;
+import de.htwg.service.GraphResyncService;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.security.SecurityRequirement;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.logging.Logger;
+
+/**
+ * Maintenance endpoint for the bulk graph resync.
+ * Kept out of {@link GraphResource}: it rewrites the itinerary part of the graph for everyone, so it requires
+ * the service key instead of a user token.
+ */
+@Path("/graph/resync")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Graph", description = "Graph database management for recommendations")
+@SecurityRequirement(name = "ServiceKey")
+@ServiceAuthenticated
+public class GraphResyncResource {
+
+    private static final Logger LOG = Logger.getLogger(GraphResyncResource.class);
+
+    @Inject
+    GraphResyncService graphResyncService;
+
+    /**
+     * Start a bulk resync of itineraries, creators and locations from the itinerary service.
+     * The resync runs in the background; an interrupted resync continues from its checkpoint
+     * unless {@code restart} is set.
+     *
+     * @param restart Start from the first itinerary even if an interrupted resync left a checkpoint
+     * @return Response indicating whether the resync was started
+     */
+    @POST
+    @Operation(
+            summary = "Resync the graph from the itinerary service",
+            description = "Pages through the itinerary export and writes itineraries, creators and locations with " +
+                    "parallel batched transactions, resuming an interrupted resync from its checkpoint. " +
+                    "Requires the service key."
+    )
+    @APIResponse(responseCode = "202", description = "Resync started")
+    @APIResponse(responseCode = "401", description = "Missing or invalid service key")
+    @APIResponse(responseCode = "409", description = "A resync is already running")
+    @APIResponse(responseCode = "503", description = "No service key configured for the itinerary export")
+    public Response resync(@QueryParam("restart") @DefaultValue("false") boolean restart) {
+        LOG.infof("Graph resync requested (restart: %s)", restart);
+
+        if (!graphResyncService.isConfigured()) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity("{\"error\": \"No service key configured for the itinerary export\"}")
+                    .build();
+        }
+        if (!graphResyncService.start(restart)) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity("{\"error\": \"A resync is already running\"}")
+                    .build();
+        }
+        return Response.accepted()
+                .entity("{\"message\": \"Resync started\"}")
+                .build();
+    }
+}
@@ -1,11 +1,16 @@
 package de.htwg.client;
 
 import de.htwg.dto.ItineraryDTO;
+import de.htwg.dto.ItineraryExportDTO;
+import de.htwg.security.ServiceKeyFilter;
+import io.smallrye.mutiny.Uni;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
 import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
@@ -35,5 +40,39 @@ public interface ItineraryServiceClient {
             @HeaderParam("Authorization") String authorizationHeader,
             List<Long> ids
     );
-}
 
+    /**
+     * Non-blocking variant of {@link #getItinerariesByIds(String, List)} used by the reactive feed endpoints.
+     *
+     * @param authorizationHeader The Bearer token from the original request
+     * @param ids List of itinerary IDs to fetch
+     * @return Uni emitting the list of itinerary DTOs
+     */
+    @POST
+    @Path("/by-ids")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    Uni<List<ItineraryDTO>> getItinerariesByIdsAsync(
+            @HeaderParam("Authorization") String authorizationHeader,
+            List<Long> ids
+    );
+
+    /**
+     * Get one keyset page of the itinerary export, ordered by ID.
+     * Used by the graph resync; the export is a service-only endpoint, so it takes the shared service key
+     * instead of a user token.
+     *
+     * @param serviceKey The shared service key ({@code service-auth.key})
+     * @param afterId Only itineraries with a greater ID are returned
+     * @param limit Maximum number of itineraries in the page
+     * @return Itineraries with creator email and location names
+     */
+    @GET
+    @Path("/export")
+    @Produces(MediaType.APPLICATION_JSON)
+    List<ItineraryExportDTO> exportItineraries(
+            @HeaderParam(ServiceKeyFilter.SERVICE_KEY_HEADER) String serviceKey,
+            @QueryParam("afterId") long afterId,
+            @QueryParam("limit") int limit
+    );
+}
@@ -53,6 +53,13 @@ import org.eclipse.microprofile.openapi.annotations.security.SecurityScheme;
         """,
     in = SecuritySchemeIn.HEADER
 )
+@SecurityScheme(
+    securitySchemeName = "ServiceKey",
+    type = SecuritySchemeType.APIKEY,
+    apiKeyName = "X-Service-Key",
+    description = "Shared service key for service-only endpoints, for maintenance such as the graph resync. User tokens are not accepted.",
+    in = SecuritySchemeIn.HEADER
+)
 public class OpenApiConfig extends Application {
     // This class is only used for OpenAPI annotations
     // No implementation needed - Quarkus handles the rest
@@ -1,5 +1,6 @@
 package de.htwg.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,5 +19,12 @@ public class FeedResponseDTO {
     
     private List<FeedItemDTO> items;
     private Integer totalItems;
+
+    // Only set for cursor-paginated feeds
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean hasMore;
 }
 
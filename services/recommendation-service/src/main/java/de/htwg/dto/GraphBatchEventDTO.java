@@ -0,0 +1,29 @@
+package de.htwg.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a single event of a batched graph ingestion request.
+ * The type selects which of the other fields are used:
+ * LIKE / UNLIKE need the itinerary id, ITINERARY needs the itinerary id and locations
+ * (title, description and likesCount are optional), VISIT needs the locations.
+ * The user email is automatically obtained from the security context.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GraphBatchEventDTO {
+
+    private String type; // "LIKE", "UNLIKE", "ITINERARY" or "VISIT"
+    private Long itineraryId;
+    private String title;
+    private String description;
+    private List<String> locationNames;
+    private Integer likesCount;
+}
@@ -0,0 +1,22 @@
+package de.htwg.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of a single event of a batched graph ingestion request.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GraphBatchEventResultDTO {
+
+    private Integer index; // position of the event in the request
+    private String type;
+    private Long itineraryId;
+    private String status; // "APPLIED", "REJECTED" or "FAILED"
+    private String error;
+}
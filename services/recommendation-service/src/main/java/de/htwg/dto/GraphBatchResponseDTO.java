@@ -0,0 +1,24 @@
+package de.htwg.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the response of a batched graph ingestion request.
+ * Results are in the same order as the submitted events.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GraphBatchResponseDTO {
+
+    private Integer applied;
+    private Integer rejected;
+    private Integer failed;
+    private List<GraphBatchEventResultDTO> results;
+}
@@ -22,7 +22,7 @@ public class ItineraryEventDTO {
     private String title;
     private String description;
     private List<String> locationNames;
-    private Integer likesCount;
+    private Integer likesCount; // ignored, the graph maintains likesCount from LIKES relationships
     private String eventType; // "CREATED" or "UPDATED"
 }
 
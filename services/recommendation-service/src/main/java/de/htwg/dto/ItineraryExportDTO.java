@@ -0,0 +1,25 @@
+package de.htwg.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO representing one row of the itinerary export of the Itinerary Service.
+ * Matches the structure of ItineraryExportDto from the itinerary service.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItineraryExportDTO {
+
+    private Long id;
+    private String title;
+    private String shortDescription;
+    private String userEmail;
+    private List<String> locationNames;
+}
@@ -0,0 +1,14 @@
+package de.htwg.feed;
+
+import java.util.List;
+
+/**
+ * Mixes the ranked personalized and trending candidates into the final feed order.
+ */
+public interface Blender {
+
+    /**
+     * Returns the distinct itinerary ids of the feed in display order.
+     */
+    long[] blend(List<Candidate> personalized, List<Candidate> trending);
+}
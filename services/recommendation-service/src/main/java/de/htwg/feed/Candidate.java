@@ -0,0 +1,18 @@
+package de.htwg.feed;
+
+/**
+ * A recommended itinerary as produced by a {@link CandidateSource}.
+ * The score is source specific until a {@link Ranker} replaces it with the blended score.
+ * {@code sampled} is set when the traversal that produced the candidate expanded a degree-capped
+ * sample of a high-degree node's neighbours instead of all of them.
+ */
+public record Candidate(long itineraryId, int likesCount, double score, CandidateKind kind, boolean sampled) {
+
+    public Candidate(long itineraryId, int likesCount, double score, CandidateKind kind) {
+        this(itineraryId, likesCount, score, kind, false);
+    }
+
+    public Candidate withScore(double newScore) {
+        return new Candidate(itineraryId, likesCount, newScore, kind, sampled);
+    }
+}
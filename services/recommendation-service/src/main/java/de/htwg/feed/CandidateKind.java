@@ -0,0 +1,25 @@
+package de.htwg.feed;
+
+/**
+ * Origin of a {@link Candidate}. Personalized kinds fill the personalized part of a feed,
+ * the others the trending part.
+ */
+public enum CandidateKind {
+
+    COLLABORATIVE(true),
+    LOCATION(true),
+    RANDOM_WALK(true),
+    EMBEDDING(true),
+    TRENDING(false),
+    POPULAR(false);
+
+    private final boolean personalized;
+
+    CandidateKind(boolean personalized) {
+        this.personalized = personalized;
+    }
+
+    public boolean isPersonalized() {
+        return personalized;
+    }
+}
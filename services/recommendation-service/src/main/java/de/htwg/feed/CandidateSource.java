@@ -0,0 +1,43 @@
+package de.htwg.feed;
+
+import io.smallrye.mutiny.Uni;
+
+import java.util.List;
+
+/**
+ * A producer of feed candidates. Every {@code @ApplicationScoped} implementation is picked up by
+ * {@link FeedPipeline}; personalized sources fill the personalized part of the feed, the others
+ * the trending part.
+ */
+public interface CandidateSource {
+
+    /**
+     * Short name used in logs and stage metrics.
+     */
+    String name();
+
+    CandidateKind kind();
+
+    /**
+     * Sources with a lower order win when the same itinerary is produced more than once.
+     */
+    int order();
+
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Returns at most {@code limit} candidates, best first. Implementations must not throw;
+     * a failing source returns an empty list.
+     */
+    List<Candidate> fetch(String userEmail, int limit);
+
+    /**
+     * Non-blocking variant of {@link #fetch(String, int)}. Sources that only compute in memory
+     * can rely on the default, which evaluates {@code fetch} on subscription.
+     */
+    default Uni<List<Candidate>> fetchAsync(String userEmail, int limit) {
+        return Uni.createFrom().item(() -> fetch(userEmail, limit));
+    }
+}
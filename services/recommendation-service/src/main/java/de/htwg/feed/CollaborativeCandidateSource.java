@@ -0,0 +1,57 @@
+package de.htwg.feed;
+
+import de.htwg.service.CypherRecommender;
+import de.htwg.service.InMemoryRecommender;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+/**
+ * Users who liked what you liked also liked...
+ * Uses the item-to-item similarity table when built, then the graph mirror, then Cypher.
+ */
+@ApplicationScoped
+public class CollaborativeCandidateSource implements CandidateSource {
+
+    @Inject
+    InMemoryRecommender inMemoryRecommender;
+
+    @Inject
+    CypherRecommender cypherRecommender;
+
+    @Override
+    public String name() {
+        return "collaborative";
+    }
+
+    @Override
+    public CandidateKind kind() {
+        return CandidateKind.COLLABORATIVE;
+    }
+
+    @Override
+    public int order() {
+        return 100;
+    }
+
+    @Override
+    public List<Candidate> fetch(String userEmail, int limit) {
+        if (inMemoryRecommender.isItemSimilarityAvailable()) {
+            return inMemoryRecommender.getItemSimilarityRecommendations(userEmail, limit);
+        }
+        if (inMemoryRecommender.isAvailable()) {
+            return inMemoryRecommender.getCollaborativeFilteringRecommendations(userEmail, limit);
+        }
+        return cypherRecommender.getCollaborativeFilteringRecommendations(userEmail, limit);
+    }
+
+    @Override
+    public Uni<List<Candidate>> fetchAsync(String userEmail, int limit) {
+        if (inMemoryRecommender.isAvailable()) {
+            return CandidateSource.super.fetchAsync(userEmail, limit);
+        }
+        return cypherRecommender.getCollaborativeFilteringRecommendationsAsync(userEmail, limit);
+    }
+}
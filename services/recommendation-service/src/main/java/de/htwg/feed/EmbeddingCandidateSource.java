@@ -0,0 +1,50 @@
+package de.htwg.feed;
+
+import de.htwg.graph.EmbeddingIndex;
+import de.htwg.service.InMemoryRecommender;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+/**
+ * Itineraries closest to the user in the ALS embedding space.
+ * Contributes nothing until the first training run has published embeddings, or for users who had no likes then.
+ */
+@ApplicationScoped
+public class EmbeddingCandidateSource implements CandidateSource {
+
+    @Inject
+    InMemoryRecommender inMemoryRecommender;
+
+    @Inject
+    EmbeddingIndex embeddingIndex;
+
+    @Override
+    public String name() {
+        return "embedding";
+    }
+
+    @Override
+    public CandidateKind kind() {
+        return CandidateKind.EMBEDDING;
+    }
+
+    @Override
+    public int order() {
+        return 160;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return embeddingIndex.isEnabled();
+    }
+
+    @Override
+    public List<Candidate> fetch(String userEmail, int limit) {
+        if (!inMemoryRecommender.isEmbeddingIndexAvailable()) {
+            return List.of();
+        }
+        return inMemoryRecommender.getEmbeddingRecommendations(userEmail, limit);
+    }
+}
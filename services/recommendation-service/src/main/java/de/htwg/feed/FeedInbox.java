@@ -0,0 +1,217 @@
+package de.htwg.feed;
+
+import de.htwg.graph.CsrAdjacency;
+import de.htwg.graph.CsrGraph;
+import de.htwg.graph.GraphMirror;
+import de.htwg.graph.LocationIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fan-out-on-write delivery of new itineraries to the users who visited one of their locations.
+ *
+ * Every user has a bounded inbox of the newest itineraries at their locations, filled when an
+ * itinerary is recorded, so {@link InboxCandidateSource} reads precomputed candidates instead of
+ * matching locations at feed time. Locations with more than {@code recommendation.feed.inbox.fanout-limit}
+ * visitors are not fanned out: their new itineraries go to one bounded per-location list that the
+ * visitors pull from when their feed is built. The same happens to the remaining locations of an itinerary
+ * once pushing it would exceed {@code recommendation.feed.inbox.max-recipients} inboxes, so one delivery
+ * writes at most that many inboxes however many locations the itinerary includes.
+ *
+ * Inboxes live in the bounded {@code feed-inbox} cache; an evicted inbox only loses fresh itineraries,
+ * which the location source picks up again once they collect likes. Delivery needs the {@link LocationIndex}
+ * for the visitors of a location and is skipped while it is not built.
+ */
+@ApplicationScoped
+public class FeedInbox {
+
+    @Inject
+    @CacheName("feed-inbox")
+    Cache cache;
+
+    @Inject
+    LocationIndex locationIndex;
+
+    @Inject
+    GraphMirror graphMirror;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "recommendation.feed.inbox.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "recommendation.feed.inbox.capacity", defaultValue = "100")
+    int capacity;
+
+    @ConfigProperty(name = "recommendation.feed.inbox.fanout-limit", defaultValue = "1000")
+    int fanoutLimit;
+
+    @ConfigProperty(name = "recommendation.feed.inbox.max-recipients", defaultValue = "5000")
+    int maxRecipients;
+
+    // Newest itineraries of the locations that exceeded the fan-out limit
+    private final Map<String, Inbox> highFanoutLocations = new ConcurrentHashMap<>();
+
+    private Counter pushed;
+    private Counter pulled;
+
+    /**
+     * Bounded ring of the newest itineraries delivered to one user (or one location),
+     * with the number of the user's locations each itinerary includes.
+     */
+    static final class Inbox {
+
+        private final long[] itineraryIds;
+        private final int[] commonLocations;
+        private int next;
+        private int size;
+
+        Inbox(int capacity) {
+            this.itineraryIds = new long[capacity];
+            this.commonLocations = new int[capacity];
+        }
+
+        synchronized void add(long itineraryId, int common) {
+            for (int n = 0; n < size; n++) {
+                if (itineraryIds[n] == itineraryId) {
+                    commonLocations[n] = Math.max(commonLocations[n], common);
+                    return;
+                }
+            }
+            itineraryIds[next] = itineraryId;
+            commonLocations[next] = common;
+            next = (next + 1) % itineraryIds.length;
+            size = Math.min(size + 1, itineraryIds.length);
+        }
+
+        /**
+         * Adds the entries to {@code common}, newest first, summing the common locations of
+         * itineraries that are already in it.
+         */
+        synchronized void collect(Map<Long, Integer> common) {
+            for (int n = 1; n <= size; n++) {
+                int slot = Math.floorMod(next - n, itineraryIds.length);
+                common.merge(itineraryIds[slot], commonLocations[slot], Integer::sum);
+            }
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        pushed = Counter.builder("feed.inbox.deliveries")
+                .description("Itineraries delivered to feed inboxes, per recipient or per high fan-out location")
+                .tag("mode", "push")
+                .register(meterRegistry);
+        pulled = Counter.builder("feed.inbox.deliveries")
+                .description("Itineraries delivered to feed inboxes, per recipient or per high fan-out location")
+                .tag("mode", "pull")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Delivers a new itinerary to the inboxes of the visitors of its locations, except its creator.
+     * Writes at most {@code max-recipients} inboxes; blocks on the inbox cache, so callers run it off the
+     * request thread.
+     *
+     * @return the users whose inbox received the itinerary
+     */
+    public Set<String> deliver(String creatorEmail, long itineraryId, Collection<String> locations) {
+        if (!enabled || locations == null || !locationIndex.isReady()) {
+            return Set.of();
+        }
+
+        Map<String, Integer> recipients = new HashMap<>();
+        for (String location : new LinkedHashSet<>(locations)) {
+            Set<String> visitors = locationIndex.visitors(location);
+            if (visitors.size() > fanoutLimit || recipients.size() + visitors.size() > maxRecipients) {
+                highFanoutLocations.computeIfAbsent(location, name -> new Inbox(capacity)).add(itineraryId, 1);
+                pulled.increment();
+                continue;
+            }
+            for (String visitor : visitors) {
+                if (!visitor.equals(creatorEmail)) {
+                    recipients.merge(visitor, 1, Integer::sum);
+                }
+            }
+        }
+
+        recipients.forEach((recipient, common) ->
+                cache.get(recipient, email -> new Inbox(capacity)).await().indefinitely().add(itineraryId, common));
+        pushed.increment(recipients.size());
+        return recipients.keySet();
+    }
+
+    /**
+     * Returns the delivered itineraries of a user merged with the newest itineraries of the user's
+     * high fan-out locations, excluding the ones the user has liked or created since.
+     * Score: commonLocations * 3.0, the location score of an itinerary without likes.
+     */
+    public List<Candidate> candidates(String userEmail, int limit) {
+        if (!enabled || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Integer> common = new LinkedHashMap<>();
+        CompletableFuture<Inbox> cached = cache.as(CaffeineCache.class).getIfPresent(userEmail);
+        if (cached != null && cached.isDone() && !cached.isCompletedExceptionally()) {
+            cached.join().collect(common);
+        }
+        if (!highFanoutLocations.isEmpty()) {
+            for (String location : locationIndex.visits(userEmail)) {
+                Inbox inbox = highFanoutLocations.get(location);
+                if (inbox != null) {
+                    inbox.collect(common);
+                }
+            }
+        }
+
+        // The newest itineraries are kept, then ordered by score
+        CsrGraph graph = graphMirror.isReady() ? graphMirror.snapshot() : null;
+        int user = graph != null ? graph.userIndex(userEmail) : -1;
+        List<Candidate> items = new ArrayList<>(Math.min(limit, common.size()));
+        for (Map.Entry<Long, Integer> entry : common.entrySet()) {
+            if (items.size() == limit) {
+                break;
+            }
+            if (user >= 0 && isLikedOrCreated(graph, user, entry.getKey())) {
+                continue;
+            }
+            items.add(new Candidate(entry.getKey(), 0, entry.getValue() * 3.0, CandidateKind.LOCATION));
+        }
+        items.sort((a, b) -> Double.compare(b.score(), a.score()));
+        return items;
+    }
+
+    private static boolean isLikedOrCreated(CsrGraph graph, int user, long itineraryId) {
+        int itinerary = graph.itineraryIndex(itineraryId);
+        if (itinerary < 0) {
+            return false;
+        }
+        CsrAdjacency likes = graph.likes();
+        CsrAdjacency created = graph.created();
+        return likes.contains(user, itinerary) || created.contains(user, itinerary);
+    }
+}
@@ -0,0 +1,283 @@
+package de.htwg.feed;
+
+import de.htwg.graph.GraphMirror;
+import de.htwg.graph.LongHashSet;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Builds the ranked itinerary ids of a personalized feed in four stages:
+ * <ol>
+ *     <li>all enabled {@link CandidateSource}s run concurrently under one per-request deadline,</li>
+ *     <li>duplicates are dropped (the source with the lower order wins),</li>
+ *     <li>the {@link Ranker} orders the personalized and the trending candidates,</li>
+ *     <li>the {@link Blender} mixes both parts into the final order.</li>
+ * </ol>
+ * Each stage is timed as {@code feed.pipeline.stage}, tagged with the stage (and source) name.
+ * Fetches whose candidates came from a degree-capped (sampled) traversal are counted as
+ * {@code feed.pipeline.sampled}, tagged with the source name.
+ */
+@ApplicationScoped
+public class FeedPipeline {
+
+    private static final Logger LOG = Logger.getLogger(FeedPipeline.class);
+
+    @Inject
+    @Any
+    Instance<CandidateSource> candidateSources;
+
+    @Inject
+    Ranker ranker;
+
+    @Inject
+    Blender blender;
+
+    @Inject
+    GraphMirror graphMirror;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "recommendation.feed.max-items", defaultValue = "100")
+    int maxFeedItems;
+
+    @ConfigProperty(name = "recommendation.feed.candidate-timeout-ms", defaultValue = "1500")
+    long candidateTimeoutMs;
+
+    // Allocate 60% to personalized, 40% to trending (ensures feed is never empty)
+    @ConfigProperty(name = "recommendation.feed.personalized-share", defaultValue = "0.6")
+    double personalizedShare;
+
+    private List<CandidateSource> sources;
+    private Map<String, Timer> sourceTimers;
+    private Map<String, Counter> sampledCounters;
+    private Timer dedupTimer;
+    private Timer rankTimer;
+    private Timer blendTimer;
+
+    // Candidate sources mostly wait on Neo4j, so every source gets its own virtual thread
+    private ExecutorService candidateExecutor;
+
+    @PostConstruct
+    void init() {
+        sources = candidateSources.stream()
+                .filter(CandidateSource::isEnabled)
+                .sorted(Comparator.comparingInt(CandidateSource::order))
+                .toList();
+        sourceTimers = new HashMap<>();
+        sampledCounters = new HashMap<>();
+        for (CandidateSource source : sources) {
+            sourceTimers.put(source.name(), stageTimer("source", source.name()));
+            sampledCounters.put(source.name(), Counter.builder("feed.pipeline.sampled")
+                    .description("Candidate fetches computed from a degree-capped sample of a high-degree node")
+                    .tag("source", source.name())
+                    .register(meterRegistry));
+        }
+        dedupTimer = stageTimer("dedup", "none");
+        rankTimer = stageTimer("rank", "none");
+        blendTimer = stageTimer("blend", "none");
+        candidateExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+        LOG.infof("Feed pipeline sources: %s", sources.stream().map(CandidateSource::name).toList());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        candidateExecutor.shutdownNow();
+    }
+
+    /**
+     * Computes the ranked, de-duplicated itinerary ids of a user's mixed feed.
+     */
+    public List<Long> rank(String userEmail) {
+        refreshMirrorFor(userEmail);
+        // Start all candidate sources concurrently, sharing one deadline
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(candidateTimeoutMs);
+        List<CompletableFuture<List<Candidate>>> futures = new ArrayList<>(sources.size());
+        for (CandidateSource source : sources) {
+            int limit = limitFor(source);
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> timed(sourceTimers.get(source.name()), () -> source.fetch(userEmail, limit)),
+                    candidateExecutor));
+        }
+
+        List<List<Candidate>> candidates = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            candidates.add(awaitCandidates(sources.get(i), futures.get(i), deadline));
+        }
+        return assemble(userEmail, candidates);
+    }
+
+    /**
+     * Non-blocking variant of {@link #rank(String)}: sources are subscribed together,
+     * so the per-source timeout is effectively one shared deadline.
+     */
+    public Uni<List<Long>> rankAsync(String userEmail) {
+        if (sources.isEmpty()) {
+            return Uni.createFrom().item(List.of());
+        }
+        refreshMirrorFor(userEmail);
+
+        List<Uni<List<Candidate>>> unis = new ArrayList<>(sources.size());
+        for (CandidateSource source : sources) {
+            unis.add(withDeadline(source, source.fetchAsync(userEmail, limitFor(source))));
+        }
+        return Uni.combine().all().unis(unis).with(results -> {
+            List<List<Candidate>> candidates = new ArrayList<>(results.size());
+            for (Object result : results) {
+                @SuppressWarnings("unchecked")
+                List<Candidate> list = (List<Candidate>) result;
+                candidates.add(list);
+            }
+            return assemble(userEmail, candidates);
+        });
+    }
+
+    // A feed computed right after the user's own write must not rank against an older mirror snapshot and be cached
+    // for the full TTL; the in-memory sources then read this snapshot, which stays current within the staleness bound
+    private void refreshMirrorFor(String userEmail) {
+        if (graphMirror.isReady()) {
+            graphMirror.snapshotFor(userEmail);
+        }
+    }
+
+    private int personalizedCount() {
+        return (int) Math.ceil(maxFeedItems * personalizedShare);
+    }
+
+    private int limitFor(CandidateSource source) {
+        return source.kind().isPersonalized() ? personalizedCount() : maxFeedItems - personalizedCount();
+    }
+
+    /**
+     * Runs the dedup, rank and blend stages over the candidates of every source (in source order).
+     */
+    private List<Long> assemble(String userEmail, List<List<Candidate>> candidatesPerSource) {
+        for (int i = 0; i < candidatesPerSource.size(); i++) {
+            List<Candidate> candidates = candidatesPerSource.get(i);
+            if (!candidates.isEmpty() && candidates.get(0).sampled()) {
+                sampledCounters.get(sources.get(i).name()).increment();
+            }
+        }
+
+        List<Candidate> personalized = new ArrayList<>();
+        List<Candidate> trending = new ArrayList<>();
+        timed(dedupTimer, () -> {
+            int total = 0;
+            for (List<Candidate> candidates : candidatesPerSource) {
+                total += candidates.size();
+            }
+            LongHashSet seen = new LongHashSet(total);
+            for (List<Candidate> candidates : candidatesPerSource) {
+                for (Candidate candidate : candidates) {
+                    if (seen.add(candidate.itineraryId())) {
+                        (candidate.kind().isPersonalized() ? personalized : trending).add(candidate);
+                    }
+                }
+            }
+            return null;
+        });
+
+        List<Candidate> rankedPersonalized = timed(rankTimer, () -> ranker.rank(personalized));
+        List<Candidate> rankedTrending = timed(rankTimer, () -> ranker.rank(trending));
+
+        int personalizedCount = personalizedCount();
+        int trendingCount = maxFeedItems - personalizedCount;
+        List<Candidate> topPersonalized = rankedPersonalized.subList(0, Math.min(personalizedCount, rankedPersonalized.size()));
+        List<Candidate> topTrending = rankedTrending.subList(0, Math.min(trendingCount, rankedTrending.size()));
+
+        LOG.infof("Got %d personalized recommendations for user %s", topPersonalized.size(), userEmail);
+        LOG.infof("Got %d trending itineraries", topTrending.size());
+
+        long[] ids = timed(blendTimer, () -> blender.blend(topPersonalized, topTrending));
+        List<Long> itineraryIds = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            itineraryIds.add(id);
+        }
+        return itineraryIds;
+    }
+
+    /**
+     * Waits for a candidate source until the shared per-request deadline.
+     * A source that fails or does not finish in time contributes no candidates
+     * instead of delaying or failing the whole feed.
+     */
+    private List<Candidate> awaitCandidates(CandidateSource source,
+                                            CompletableFuture<List<Candidate>> future,
+                                            long deadlineNanos) {
+        try {
+            long remaining = Math.max(0L, deadlineNanos - System.nanoTime());
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Only abandons the result: a CompletableFuture does not interrupt the running source,
+            // so sources that hold resources bound themselves (Cypher sources by a transaction timeout)
+            future.cancel(true);
+            LOG.warnf("Candidate source '%s' did not finish within %d ms, continuing without it",
+                    source.name(), candidateTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOG.errorf(e.getCause(), "Candidate source '%s' failed", source.name());
+        }
+        return List.of();
+    }
+
+    private Uni<List<Candidate>> withDeadline(CandidateSource source, Uni<List<Candidate>> candidates) {
+        Timer timer = sourceTimers.get(source.name());
+        return Uni.createFrom().deferred(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return candidates.invoke(() -> sample.stop(timer));
+        })
+                .ifNoItem().after(Duration.ofMillis(candidateTimeoutMs)).recoverWithItem(() -> {
+                    LOG.warnf("Candidate source '%s' did not finish within %d ms, continuing without it",
+                            source.name(), candidateTimeoutMs);
+                    return List.of();
+                })
+                .onFailure().recoverWithItem(e -> {
+                    LOG.errorf(e, "Candidate source '%s' failed", source.name());
+                    return List.of();
+                });
+    }
+
+    private Timer stageTimer(String stage, String source) {
+        // Prometheus needs the same tag keys on every meter of a name
+        return Timer.builder("feed.pipeline.stage")
+                .description("Time spent in a stage of the feed pipeline")
+                .tag("stage", stage)
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    private static <T> T timed(Timer timer, Supplier<T> stage) {
+        long start = System.nanoTime();
+        try {
+            return stage.get();
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
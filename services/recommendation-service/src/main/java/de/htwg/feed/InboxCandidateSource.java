@@ -0,0 +1,42 @@
+package de.htwg.feed;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+/**
+ * New itineraries at locations the user visited, precomputed by {@link FeedInbox} when they were recorded.
+ * Complements the location source, which only ranks itineraries that already have likes.
+ */
+@ApplicationScoped
+public class InboxCandidateSource implements CandidateSource {
+
+    @Inject
+    FeedInbox feedInbox;
+
+    @Override
+    public String name() {
+        return "inbox";
+    }
+
+    @Override
+    public CandidateKind kind() {
+        return CandidateKind.LOCATION;
+    }
+
+    @Override
+    public int order() {
+        return 250;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return feedInbox.isEnabled();
+    }
+
+    @Override
+    public List<Candidate> fetch(String userEmail, int limit) {
+        return feedInbox.candidates(userEmail, limit);
+    }
+}
@@ -0,0 +1,47 @@
+package de.htwg.feed;
+
+import de.htwg.graph.LongHashSet;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Interleaves personalized and trending candidates in fixed runs for better UX.
+ * With the default runs of 2 and 1 the pattern is P, P, T, P, P, T... (more personalized than trending);
+ * when one side runs out the rest of the other side is appended.
+ */
+@ApplicationScoped
+public class InterleavingBlender implements Blender {
+
+    @ConfigProperty(name = "recommendation.feed.blend.personalized-run", defaultValue = "2")
+    int personalizedRun;
+
+    @ConfigProperty(name = "recommendation.feed.blend.trending-run", defaultValue = "1")
+    int trendingRun;
+
+    @Override
+    public long[] blend(List<Candidate> personalized, List<Candidate> trending) {
+        long[] ids = new long[personalized.size() + trending.size()];
+        LongHashSet seen = new LongHashSet(ids.length);
+        int size = 0;
+        int pIndex = 0, tIndex = 0;
+
+        while (pIndex < personalized.size() || tIndex < trending.size()) {
+            for (int i = 0; i < Math.max(1, personalizedRun) && pIndex < personalized.size(); i++) {
+                long id = personalized.get(pIndex++).itineraryId();
+                if (seen.add(id)) {
+                    ids[size++] = id;
+                }
+            }
+            for (int i = 0; i < Math.max(1, trendingRun) && tIndex < trending.size(); i++) {
+                long id = trending.get(tIndex++).itineraryId();
+                if (seen.add(id)) {
+                    ids[size++] = id;
+                }
+            }
+        }
+        return Arrays.copyOf(ids, size);
+    }
+}
@@ -0,0 +1,57 @@
+package de.htwg.feed;
+
+import de.htwg.service.CypherRecommender;
+import de.htwg.service.InMemoryRecommender;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+/**
+ * Itineraries that include locations the user visited.
+ * Uses the location inverted index when built, then the graph mirror, then Cypher.
+ */
+@ApplicationScoped
+public class LocationCandidateSource implements CandidateSource {
+
+    @Inject
+    InMemoryRecommender inMemoryRecommender;
+
+    @Inject
+    CypherRecommender cypherRecommender;
+
+    @Override
+    public String name() {
+        return "location";
+    }
+
+    @Override
+    public CandidateKind kind() {
+        return CandidateKind.LOCATION;
+    }
+
+    @Override
+    public int order() {
+        return 200;
+    }
+
+    @Override
+    public List<Candidate> fetch(String userEmail, int limit) {
+        if (inMemoryRecommender.isLocationIndexAvailable()) {
+            return inMemoryRecommender.getLocationIndexRecommendations(userEmail, limit);
+        }
+        if (inMemoryRecommender.isAvailable()) {
+            return inMemoryRecommender.getLocationBasedRecommendations(userEmail, limit);
+        }
+        return cypherRecommender.getLocationBasedRecommendations(userEmail, limit);
+    }
+
+    @Override
+    public Uni<List<Candidate>> fetchAsync(String userEmail, int limit) {
+        if (inMemoryRecommender.isAvailable()) {
+            return CandidateSource.super.fetchAsync(userEmail, limit);
+        }
+        return cypherRecommender.getLocationBasedRecommendationsAsync(userEmail, limit);
+    }
+}
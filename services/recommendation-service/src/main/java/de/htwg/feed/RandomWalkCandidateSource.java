@@ -0,0 +1,65 @@
+package de.htwg.feed;
+
+import de.htwg.service.RandomWalkRecommender;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.List;
+
+/**
+ * Itineraries reached most often by random walks from the user's likes and visited locations.
+ * Needs the graph mirror; contributes nothing until it is loaded.
+ */
+@ApplicationScoped
+public class RandomWalkCandidateSource implements CandidateSource {
+
+    private static final Logger LOG = Logger.getLogger(RandomWalkCandidateSource.class);
+
+    @Inject
+    RandomWalkRecommender randomWalkRecommender;
+
+    @Override
+    public String name() {
+        return "random-walk";
+    }
+
+    @Override
+    public CandidateKind kind() {
+        return CandidateKind.RANDOM_WALK;
+    }
+
+    @Override
+    public int order() {
+        return 150;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return randomWalkRecommender.isEnabled();
+    }
+
+    @Override
+    public List<Candidate> fetch(String userEmail, int limit) {
+        if (!randomWalkRecommender.isAvailable()) {
+            return List.of();
+        }
+        try {
+            return randomWalkRecommender.getRandomWalkRecommendations(userEmail, limit);
+        } catch (Exception e) {
+            LOG.errorf(e, "Error getting random walk recommendations for user %s", userEmail);
+            return List.of();
+        }
+    }
+
+    /**
+     * Waits for the walker threads on a worker thread, never on the caller's (possibly event-loop) thread.
+     */
+    @Override
+    public Uni<List<Candidate>> fetchAsync(String userEmail, int limit) {
+        return Uni.createFrom().item(() -> fetch(userEmail, limit))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+}
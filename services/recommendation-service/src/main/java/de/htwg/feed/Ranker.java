@@ -0,0 +1,14 @@
+package de.htwg.feed;
+
+import java.util.List;
+
+/**
+ * Orders the de-duplicated candidates of one part of the feed (personalized or trending).
+ */
+public interface Ranker {
+
+    /**
+     * Returns the candidates with their final score, best first.
+     */
+    List<Candidate> rank(List<Candidate> candidates);
+}
@@ -0,0 +1,57 @@
+package de.htwg.feed;
+
+import de.htwg.service.CypherRecommender;
+import de.htwg.service.InMemoryRecommender;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+/**
+ * Hot itineraries the user has neither liked nor created. This ensures fresh users always see popular content.
+ * Uses the materialized trending ranking when available, then the graph mirror, then Cypher.
+ */
+@ApplicationScoped
+public class TrendingCandidateSource implements CandidateSource {
+
+    @Inject
+    InMemoryRecommender inMemoryRecommender;
+
+    @Inject
+    CypherRecommender cypherRecommender;
+
+    @Override
+    public String name() {
+        return "trending";
+    }
+
+    @Override
+    public CandidateKind kind() {
+        return CandidateKind.TRENDING;
+    }
+
+    @Override
+    public int order() {
+        return 300;
+    }
+
+    @Override
+    public List<Candidate> fetch(String userEmail, int limit) {
+        if (inMemoryRecommender.isAvailable() && inMemoryRecommender.isTrendingIndexAvailable()) {
+            return inMemoryRecommender.getTrendingFromIndex(userEmail, limit);
+        }
+        if (inMemoryRecommender.isAvailable()) {
+            return inMemoryRecommender.getTrendingItineraries(userEmail, limit);
+        }
+        return cypherRecommender.getTrendingItineraries(userEmail, limit);
+    }
+
+    @Override
+    public Uni<List<Candidate>> fetchAsync(String userEmail, int limit) {
+        if (inMemoryRecommender.isAvailable()) {
+            return CandidateSource.super.fetchAsync(userEmail, limit);
+        }
+        return cypherRecommender.getTrendingItinerariesAsync(userEmail, limit);
+    }
+}
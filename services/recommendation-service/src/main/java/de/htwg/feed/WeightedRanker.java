@@ -0,0 +1,63 @@
+package de.htwg.feed;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranks candidates by a weighted source score. Sources score on different scales
+ * (similarity sums, like counts, decayed like counts), so each score is first divided by the best
+ * score of its kind and then multiplied by the configured weight of that kind.
+ */
+@ApplicationScoped
+public class WeightedRanker implements Ranker {
+
+    @ConfigProperty(name = "recommendation.feed.weights.collaborative", defaultValue = "1.0")
+    double collaborativeWeight;
+
+    @ConfigProperty(name = "recommendation.feed.weights.location", defaultValue = "0.7")
+    double locationWeight;
+
+    @ConfigProperty(name = "recommendation.feed.weights.trending", defaultValue = "1.0")
+    double trendingWeight;
+
+    @ConfigProperty(name = "recommendation.feed.weights.random-walk", defaultValue = "1.0")
+    double randomWalkWeight;
+
+    @ConfigProperty(name = "recommendation.feed.weights.embedding", defaultValue = "1.0")
+    double embeddingWeight;
+
+    @Override
+    public List<Candidate> rank(List<Candidate> candidates) {
+        Map<CandidateKind, Double> maxScore = new EnumMap<>(CandidateKind.class);
+        for (Candidate candidate : candidates) {
+            maxScore.merge(candidate.kind(), candidate.score(), Math::max);
+        }
+
+        List<Candidate> ranked = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            double max = maxScore.get(candidate.kind());
+            double normalized = max > 0 ? candidate.score() / max : 0.0;
+            ranked.add(candidate.withScore(normalized * weight(candidate.kind())));
+        }
+        // Stable sort: equal scores keep the source order
+        ranked.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        return ranked;
+    }
+
+    private double weight(CandidateKind kind) {
+        return switch (kind) {
+            case COLLABORATIVE -> collaborativeWeight;
+            case LOCATION -> locationWeight;
+            case TRENDING -> trendingWeight;
+            case RANDOM_WALK -> randomWalkWeight;
+            case EMBEDDING -> embeddingWeight;
+            default -> 1.0;
+        };
+    }
+}
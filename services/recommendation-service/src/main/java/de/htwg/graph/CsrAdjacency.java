@@ -0,0 +1,142 @@
+package de.htwg.graph;
+
+import java.util.Arrays;
+
+/**
+ * One relationship type stored in compressed-sparse-row form.
+ * The neighbours of node {@code n} are {@code targets[offsets[n] .. offsets[n + 1])},
+ * sorted ascending so that membership checks are a binary search.
+ * An optional parallel {@code times} array carries a per-edge timestamp (epoch millis).
+ */
+public final class CsrAdjacency {
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final long[] times;
+
+    private CsrAdjacency(int[] offsets, int[] targets, long[] times) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.times = times;
+    }
+
+    /**
+     * Builds a CSR adjacency from an unsorted edge list using two stable counting-sort passes
+     * (by target, then by source), so every row ends up sorted by target in O(V + E).
+     *
+     * @param sourceCount number of source nodes
+     * @param targetCount number of target nodes
+     * @param sources     edge sources
+     * @param destinations edge targets
+     * @param edgeTimes   per-edge timestamps, or null if the relationship carries none
+     * @param edgeCount   number of valid entries in the edge arrays
+     */
+    static CsrAdjacency build(int sourceCount, int targetCount,
+                              int[] sources, int[] destinations, long[] edgeTimes, int edgeCount) {
+        int[] byTarget = countingOrder(destinations, null, targetCount, edgeCount);
+        int[] bySource = countingOrder(sources, byTarget, sourceCount, edgeCount);
+
+        int[] offsets = new int[sourceCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            offsets[sources[e] + 1]++;
+        }
+        for (int n = 0; n < sourceCount; n++) {
+            offsets[n + 1] += offsets[n];
+        }
+
+        int[] targets = new int[edgeCount];
+        long[] times = edgeTimes != null ? new long[edgeCount] : null;
+        for (int k = 0; k < edgeCount; k++) {
+            int e = bySource[k];
+            targets[k] = destinations[e];
+            if (times != null) {
+                times[k] = edgeTimes[e];
+            }
+        }
+        return new CsrAdjacency(offsets, targets, times);
+    }
+
+    static CsrAdjacency empty(int nodeCount) {
+        return new CsrAdjacency(new int[nodeCount + 1], new int[0], null);
+    }
+
+    /**
+     * Returns the reverse adjacency. Rows of the result are sorted by source because
+     * sources are visited in ascending order.
+     */
+    CsrAdjacency transpose(int targetCount) {
+        int[] reverseOffsets = new int[targetCount + 1];
+        for (int target : targets) {
+            reverseOffsets[target + 1]++;
+        }
+        for (int n = 0; n < targetCount; n++) {
+            reverseOffsets[n + 1] += reverseOffsets[n];
+        }
+
+        int[] cursor = Arrays.copyOf(reverseOffsets, targetCount);
+        int[] reverseTargets = new int[targets.length];
+        long[] reverseTimes = times != null ? new long[targets.length] : null;
+        for (int source = 0; source < offsets.length - 1; source++) {
+            for (int k = offsets[source]; k < offsets[source + 1]; k++) {
+                int slot = cursor[targets[k]]++;
+                reverseTargets[slot] = source;
+                if (reverseTimes != null) {
+                    reverseTimes[slot] = times[k];
+                }
+            }
+        }
+        return new CsrAdjacency(reverseOffsets, reverseTargets, reverseTimes);
+    }
+
+    private static int[] countingOrder(int[] keys, int[] inputOrder, int keyCount, int edgeCount) {
+        int[] counts = new int[keyCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            counts[keys[e] + 1]++;
+        }
+        for (int n = 0; n < keyCount; n++) {
+            counts[n + 1] += counts[n];
+        }
+        int[] order = new int[edgeCount];
+        for (int k = 0; k < edgeCount; k++) {
+            int e = inputOrder != null ? inputOrder[k] : k;
+            order[counts[keys[e]]++] = e;
+        }
+        return order;
+    }
+
+    public int nodeCount() {
+        return offsets.length - 1;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    public int start(int node) {
+        return offsets[node];
+    }
+
+    public int end(int node) {
+        return offsets[node + 1];
+    }
+
+    public int degree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    public int target(int edge) {
+        return targets[edge];
+    }
+
+    public boolean hasTimes() {
+        return times != null;
+    }
+
+    public long time(int edge) {
+        return times != null ? times[edge] : 0L;
+    }
+
+    public boolean contains(int node, int target) {
+        return Arrays.binarySearch(targets, offsets[node], offsets[node + 1], target) >= 0;
+    }
+}
@@ -0,0 +1,159 @@
+package de.htwg.graph;
+
+import java.util.Map;
+
+/**
+ * Immutable, compressed-sparse-row snapshot of the recommendation graph:
+ * {@code (User)-[:LIKES|CREATED]->(Itinerary)}, {@code (User)-[:VISITED]->(Location)} and
+ * {@code (Itinerary)-[:INCLUDES]->(Location)}, plus the reverse direction of each relationship.
+ * Nodes are addressed by dense int indexes; use the lookup methods to translate from
+ * emails, itinerary ids and location names.
+ */
+public final class CsrGraph {
+
+    private final long version;
+    private final int userCount;
+    private final int itineraryCount;
+    private final int locationCount;
+
+    private final String[] userEmails;
+    private final long[] itineraryIds;
+    private final String[] locationNames;
+
+    // Append-only lookup maps shared with the mirror; entries beyond the counts above are ignored
+    private final Map<String, Integer> userIndex;
+    private final Map<Long, Integer> itineraryIndex;
+    private final Map<String, Integer> locationIndex;
+
+    private final CsrAdjacency likes;
+    private final CsrAdjacency likedBy;
+    private final CsrAdjacency created;
+    private final CsrAdjacency createdBy;
+    private final CsrAdjacency visited;
+    private final CsrAdjacency visitedBy;
+    private final CsrAdjacency includes;
+    private final CsrAdjacency includedBy;
+
+    CsrGraph(long version,
+             String[] userEmails, long[] itineraryIds, String[] locationNames,
+             Map<String, Integer> userIndex, Map<Long, Integer> itineraryIndex, Map<String, Integer> locationIndex,
+             CsrAdjacency likes, CsrAdjacency created, CsrAdjacency visited, CsrAdjacency includes) {
+        this.version = version;
+        this.userCount = userEmails.length;
+        this.itineraryCount = itineraryIds.length;
+        this.locationCount = locationNames.length;
+        this.userEmails = userEmails;
+        this.itineraryIds = itineraryIds;
+        this.locationNames = locationNames;
+        this.userIndex = userIndex;
+        this.itineraryIndex = itineraryIndex;
+        this.locationIndex = locationIndex;
+        this.likes = likes;
+        this.likedBy = likes.transpose(itineraryCount);
+        this.created = created;
+        this.createdBy = created.transpose(itineraryCount);
+        this.visited = visited;
+        this.visitedBy = visited.transpose(locationCount);
+        this.includes = includes;
+        this.includedBy = includes.transpose(locationCount);
+    }
+
+    static CsrGraph empty(Map<String, Integer> userIndex, Map<Long, Integer> itineraryIndex,
+                          Map<String, Integer> locationIndex) {
+        return new CsrGraph(0L, new String[0], new long[0], new String[0],
+                userIndex, itineraryIndex, locationIndex,
+                CsrAdjacency.empty(0), CsrAdjacency.empty(0), CsrAdjacency.empty(0), CsrAdjacency.empty(0));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public int userCount() {
+        return userCount;
+    }
+
+    public int itineraryCount() {
+        return itineraryCount;
+    }
+
+    public int locationCount() {
+        return locationCount;
+    }
+
+    /**
+     * @return the dense index of the user, or -1 if the user is not part of this snapshot
+     */
+    public int userIndex(String email) {
+        Integer index = email != null ? userIndex.get(email) : null;
+        return index != null && index < userCount ? index : -1;
+    }
+
+    /**
+     * @return the dense index of the itinerary, or -1 if the itinerary is not part of this snapshot
+     */
+    public int itineraryIndex(long itineraryId) {
+        Integer index = itineraryIndex.get(itineraryId);
+        return index != null && index < itineraryCount ? index : -1;
+    }
+
+    /**
+     * @return the dense index of the location, or -1 if the location is not part of this snapshot
+     */
+    public int locationIndex(String name) {
+        Integer index = name != null ? locationIndex.get(name) : null;
+        return index != null && index < locationCount ? index : -1;
+    }
+
+    public String userEmail(int user) {
+        return userEmails[user];
+    }
+
+    public long itineraryId(int itinerary) {
+        return itineraryIds[itinerary];
+    }
+
+    public String locationName(int location) {
+        return locationNames[location];
+    }
+
+    /** User -> Itinerary, with like timestamps. */
+    public CsrAdjacency likes() {
+        return likes;
+    }
+
+    /** Itinerary -> User, with like timestamps. */
+    public CsrAdjacency likedBy() {
+        return likedBy;
+    }
+
+    /** User -> Itinerary. */
+    public CsrAdjacency created() {
+        return created;
+    }
+
+    /** Itinerary -> User. */
+    public CsrAdjacency createdBy() {
+        return createdBy;
+    }
+
+    /** User -> Location. */
+    public CsrAdjacency visited() {
+        return visited;
+    }
+
+    /** Location -> User. */
+    public CsrAdjacency visitedBy() {
+        return visitedBy;
+    }
+
+    /** Itinerary -> Location. */
+    public CsrAdjacency includes() {
+        return includes;
+    }
+
+    /** Location -> Itinerary. */
+    public CsrAdjacency includedBy() {
+        return includedBy;
+    }
+}
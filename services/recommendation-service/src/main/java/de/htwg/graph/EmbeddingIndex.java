@@ -0,0 +1,117 @@
+package de.htwg.graph;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * User and itinerary embeddings trained by {@link ImplicitAls}, published as an immutable {@link Model}
+ * that is swapped atomically after every training run.
+ *
+ * Itinerary factors are stored factor-major ({@code factors} rows of one float per itinerary), so scoring
+ * all itineraries for a user is {@code factors} passes of {@code scores[i] += u[f] * items[f][i]} over
+ * contiguous arrays, a loop the JIT compiles to SIMD instructions. A brute-force scan of the catalog costs
+ * {@code factors * itineraries} multiply-adds, a few microseconds for the catalog sizes of this service.
+ */
+@ApplicationScoped
+public class EmbeddingIndex {
+
+    @ConfigProperty(name = "recommendation.embeddings.enabled", defaultValue = "false")
+    boolean enabled;
+
+    private volatile Model model;
+
+    /**
+     * Embeddings of one training run.
+     */
+    public static final class Model {
+
+        private final Map<String, Integer> userIndex;
+        private final long[] itineraryIds;
+        private final int factors;
+        private final float[] userFactors;
+        private final float[] itemFactorsByFactor;
+        private final int[][] liked;
+        private final long trainedAt;
+
+        /**
+         * @param userFactors row-major user factors
+         * @param itemFactors row-major itinerary factors
+         * @param liked       sorted itinerary indexes liked by each user at training time
+         */
+        public Model(Map<String, Integer> userIndex, long[] itineraryIds, int factors,
+                     float[] userFactors, float[] itemFactors, int[][] liked) {
+            this.userIndex = userIndex;
+            this.itineraryIds = itineraryIds;
+            this.factors = factors;
+            this.userFactors = userFactors;
+            this.itemFactorsByFactor = transpose(itemFactors, itineraryIds.length, factors);
+            this.liked = liked;
+            this.trainedAt = System.currentTimeMillis();
+        }
+
+        public int userIndex(String email) {
+            Integer index = userIndex.get(email);
+            return index != null ? index : -1;
+        }
+
+        public int itineraryCount() {
+            return itineraryIds.length;
+        }
+
+        public long itineraryId(int itinerary) {
+            return itineraryIds[itinerary];
+        }
+
+        public long trainedAt() {
+            return trainedAt;
+        }
+
+        public boolean liked(int user, int itinerary) {
+            return Arrays.binarySearch(liked[user], itinerary) >= 0;
+        }
+
+        /**
+         * Writes the dot product of the user's embedding with every itinerary embedding into {@code scores}.
+         */
+        public void score(int user, float[] scores) {
+            int n = itineraryIds.length;
+            Arrays.fill(scores, 0, n, 0f);
+            for (int f = 0; f < factors; f++) {
+                float weight = userFactors[user * factors + f];
+                int base = f * n;
+                for (int i = 0; i < n; i++) {
+                    scores[i] += weight * itemFactorsByFactor[base + i];
+                }
+            }
+        }
+
+        private static float[] transpose(float[] rowMajor, int rows, int columns) {
+            float[] columnMajor = new float[rowMajor.length];
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < columns; c++) {
+                    columnMajor[c * rows + r] = rowMajor[r * columns + c];
+                }
+            }
+            return columnMajor;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && model != null;
+    }
+
+    public Model model() {
+        return model;
+    }
+
+    public void publish(Model trained) {
+        model = trained;
+    }
+}
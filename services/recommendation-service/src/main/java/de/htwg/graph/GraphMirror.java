@@ -0,0 +1,515 @@
+package de.htwg.graph;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process mirror of the Neo4j recommendation graph.
+ * Write paths mutate small per-node adjacency rows; readers get an immutable {@link CsrGraph}
+ * that is re-frozen lazily when the mirror has changed and the current snapshot is older than
+ * {@code recommendation.graph.mirror.max-staleness-ms}.
+ *
+ * The rows are loaded from Neo4j by {@link de.htwg.startup.GraphMirrorLoader}: at startup and then every
+ * {@code recommendation.graph.mirror.reload-interval}. A reload streams into fresh rows while the current ones
+ * keep serving, and local writes made meanwhile are applied to both, so the swap loses none of them. The dense
+ * user, itinerary and location indexes come from one dictionary shared by all loads: a reload keeps the index of
+ * every known id and only appends new ones, so structures addressed by mirror index stay valid across reloads
+ * (ids deleted from Neo4j keep their index with empty rows). Between
+ * reloads only this replica's own writes reach the mirror; writes handled by other replicas, or whose
+ * post-commit hook was lost, show up after the next reload at the latest.
+ * The mirror only reports itself ready once a load succeeded, so callers can fall back to Cypher until then.
+ */
+@ApplicationScoped
+public class GraphMirror {
+
+    private static final Logger LOG = Logger.getLogger(GraphMirror.class);
+
+    @ConfigProperty(name = "recommendation.graph.mirror.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "recommendation.graph.mirror.max-staleness-ms", defaultValue = "250")
+    long maxStalenessMs;
+
+    // Guarded by this
+    private final Dictionary dictionary = new Dictionary();
+    private Rows rows = new Rows(dictionary);
+    private Reload reloading;
+    private long version;
+
+    private volatile CsrGraph snapshot;
+    private volatile long snapshotTakenAt;
+    private volatile long loadedAt;
+    private volatile long loads;
+    private volatile boolean ready;
+
+    @PostConstruct
+    void init() {
+        snapshot = CsrGraph.empty(dictionary.userIndex, dictionary.itineraryIndex, dictionary.locationIndex);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true once the mirror has been bulk-loaded and may be used instead of Cypher queries
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * @return when the last successful load finished, in epoch millis, or 0 if none has yet
+     */
+    public long loadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * @return how many loads have been swapped in. A load replaces the rows wholesale, including writes of other
+     * replicas that no write hook reported, so structures derived incrementally from the hooks compare this
+     * number to rebuild after a load.
+     */
+    public long loads() {
+        return loads;
+    }
+
+    /**
+     * Starts loading replacement rows. Rows streamed from Neo4j go into the returned {@link Reload};
+     * writes to the mirror made until {@link #finishReload} are applied to the current and the new rows.
+     *
+     * @return the reload, or null if another one is in progress
+     */
+    public synchronized Reload beginReload() {
+        if (reloading != null) {
+            return null;
+        }
+        reloading = new Reload();
+        return reloading;
+    }
+
+    /**
+     * Swaps the rows of a completed reload in and marks the mirror ready.
+     */
+    public void finishReload(Reload reload) {
+        CsrGraph graph;
+        synchronized (this) {
+            if (reloading != reload) {
+                throw new IllegalStateException("Reload is not in progress");
+            }
+            rows = reload.rows;
+            reloading = null;
+            loads++;
+            version++;
+            graph = freeze();
+        }
+        loadedAt = System.currentTimeMillis();
+        ready = true;
+        LOG.infof("Graph mirror loaded: %d users, %d itineraries, %d locations, %d likes, %d created, %d visited, %d includes",
+                graph.userCount(), graph.itineraryCount(), graph.locationCount(),
+                graph.likes().edgeCount(), graph.created().edgeCount(),
+                graph.visited().edgeCount(), graph.includes().edgeCount());
+    }
+
+    /**
+     * Drops the rows of a failed reload; the mirror keeps serving the current ones.
+     */
+    public synchronized void abortReload(Reload reload) {
+        if (reloading == reload) {
+            reloading = null;
+        }
+    }
+
+    /**
+     * Returns a snapshot that reflects all writes, unless the last freeze happened less than
+     * the configured staleness bound ago, in which case the previous snapshot is reused.
+     */
+    public CsrGraph snapshot() {
+        CsrGraph current = snapshot;
+        if (current.version() == version()
+                || System.currentTimeMillis() - snapshotTakenAt < maxStalenessMs) {
+            return current;
+        }
+        return freeze();
+    }
+
+    /**
+     * Like {@link #snapshot()}, but reflects all writes regardless of the staleness bound. Frozen under the
+     * mirror lock, so it holds every write that returned before the call.
+     */
+    public CsrGraph freshSnapshot() {
+        return freeze();
+    }
+
+    /**
+     * Like {@link #snapshot()}, but never older than the last write of the given user on this replica,
+     * so the user's own like, unlike, itinerary or visit is reflected regardless of the staleness bound.
+     */
+    public CsrGraph snapshotFor(String userEmail) {
+        CsrGraph current = snapshot;
+        if (userEmail == null || current.version() >= writeVersion(userEmail)) {
+            return snapshot();
+        }
+        return freeze();
+    }
+
+    /**
+     * Adds a like, or moves the timestamp of an existing like of the same user and itinerary.
+     *
+     * @return the previous timestamp of the like, or -1 if it is new
+     */
+    public synchronized long addLike(String userEmail, long itineraryId, long timestampMillis) {
+        long previous = rows.addLike(userEmail, itineraryId, timestampMillis);
+        if (reloading != null) {
+            reloading.rows.addLike(userEmail, itineraryId, timestampMillis);
+        }
+        version++;
+        rows.touch(userEmail, version);
+        return previous;
+    }
+
+    /**
+     * @return the timestamp of the removed like, or -1 if the user did not like the itinerary
+     */
+    public synchronized long removeLike(String userEmail, long itineraryId) {
+        long removed = rows.removeLike(userEmail, itineraryId);
+        if (reloading != null) {
+            reloading.rows.removeLike(userEmail, itineraryId);
+        }
+        if (removed >= 0) {
+            version++;
+            rows.touch(userEmail, version);
+        }
+        return removed;
+    }
+
+    public synchronized void addItinerary(String userEmail, long itineraryId, Collection<String> locations) {
+        rows.addItinerary(userEmail, itineraryId, locations);
+        if (reloading != null) {
+            reloading.rows.addItinerary(userEmail, itineraryId, locations);
+        }
+        version++;
+        rows.touch(userEmail, version);
+    }
+
+    public synchronized void addVisits(String userEmail, Collection<String> locations) {
+        if (locations == null) {
+            return;
+        }
+        rows.addVisits(userEmail, locations);
+        if (reloading != null) {
+            reloading.rows.addVisits(userEmail, locations);
+        }
+        version++;
+        rows.touch(userEmail, version);
+    }
+
+    /**
+     * @return the current version; every write increments it, and a snapshot reflects all writes up to its version
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * @return ids of the itineraries the user likes, including writes that no snapshot reflects yet
+     */
+    public synchronized long[] likedItineraryIds(String userEmail) {
+        return rows.likedItineraryIds(userEmail);
+    }
+
+    private synchronized long writeVersion(String userEmail) {
+        return rows.writeVersion(userEmail);
+    }
+
+    private synchronized CsrGraph freeze() {
+        if (snapshot.version() == version) {
+            snapshotTakenAt = System.currentTimeMillis();
+            return snapshot;
+        }
+
+        CsrGraph graph = rows.freeze(version);
+        snapshot = graph;
+        snapshotTakenAt = System.currentTimeMillis();
+        return graph;
+    }
+
+    /**
+     * Rows being loaded from Neo4j; not visible to readers until {@link #finishReload}.
+     */
+    public final class Reload {
+
+        private final Rows rows = new Rows(dictionary);
+
+        private Reload() {
+        }
+
+        public void addLike(String userEmail, long itineraryId, long timestampMillis) {
+            synchronized (GraphMirror.this) {
+                rows.addLike(userEmail, itineraryId, timestampMillis);
+            }
+        }
+
+        public void addItinerary(String userEmail, long itineraryId, Collection<String> locations) {
+            synchronized (GraphMirror.this) {
+                rows.addItinerary(userEmail, itineraryId, locations);
+            }
+        }
+
+        public void addVisits(String userEmail, Collection<String> locations) {
+            if (locations == null) {
+                return;
+            }
+            synchronized (GraphMirror.this) {
+                rows.addVisits(userEmail, locations);
+            }
+        }
+    }
+
+    /**
+     * Dense indexes of users, itineraries and locations. Indexes are only ever appended, and the dictionary
+     * outlives every load, so an id keeps its index for the lifetime of the mirror. Guarded by the mirror.
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> userIndex = new ConcurrentHashMap<>();
+        private final Map<Long, Integer> itineraryIndex = new ConcurrentHashMap<>();
+        private final Map<String, Integer> locationIndex = new ConcurrentHashMap<>();
+
+        private final List<String> userEmails = new ArrayList<>();
+        private final LongList itineraryIds = new LongList(1024);
+        private final List<String> locationNames = new ArrayList<>();
+
+        int userFor(String email) {
+            Integer index = userIndex.get(email);
+            if (index == null) {
+                index = userEmails.size();
+                userEmails.add(email);
+                userIndex.put(email, index);
+            }
+            return index;
+        }
+
+        int itineraryFor(long itineraryId) {
+            Integer index = itineraryIndex.get(itineraryId);
+            if (index == null) {
+                index = itineraryIds.size();
+                itineraryIds.add(itineraryId);
+                itineraryIndex.put(itineraryId, index);
+            }
+            return index;
+        }
+
+        int locationFor(String name) {
+            Integer index = locationIndex.get(name);
+            if (index == null) {
+                index = locationNames.size();
+                locationNames.add(name);
+                locationIndex.put(name, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Mutable adjacency rows of one load of the graph, indexed through the shared {@link Dictionary}.
+     * Rows exist up to the highest index this load has touched; ids added through another load's rows
+     * get empty rows on demand. Not thread-safe; guarded by the mirror.
+     */
+    private static final class Rows {
+
+        private final Dictionary dictionary;
+
+        // Forward adjacency rows; reverse directions are derived when freezing
+        private final List<IntList> likes = new ArrayList<>();
+        private final List<LongList> likeTimes = new ArrayList<>();
+        private final List<IntList> created = new ArrayList<>();
+        private final List<IntList> visited = new ArrayList<>();
+        private final List<IntList> includes = new ArrayList<>();
+        // Mirror version of each user's last write; loaded rows start at 0, the swap itself bumps the version
+        private final LongList writeVersions = new LongList();
+
+        private int likeEdges;
+        private int createdEdges;
+        private int visitedEdges;
+        private int includesEdges;
+
+        Rows(Dictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        long addLike(String userEmail, long itineraryId, long timestampMillis) {
+            int user = userFor(userEmail);
+            int itinerary = itineraryFor(itineraryId);
+            IntList row = likes.get(user);
+            int existing = row.indexOf(itinerary);
+            if (existing >= 0) {
+                LongList times = likeTimes.get(user);
+                long previous = times.get(existing);
+                times.set(existing, timestampMillis);
+                return previous;
+            }
+            row.add(itinerary);
+            likeTimes.get(user).add(timestampMillis);
+            likeEdges++;
+            return -1L;
+        }
+
+        long removeLike(String userEmail, long itineraryId) {
+            Integer user = dictionary.userIndex.get(userEmail);
+            Integer itinerary = dictionary.itineraryIndex.get(itineraryId);
+            if (user == null || itinerary == null || user >= likes.size()) {
+                return -1L;
+            }
+            IntList row = likes.get(user);
+            int existing = row.indexOf(itinerary);
+            if (existing < 0) {
+                return -1L;
+            }
+            LongList times = likeTimes.get(user);
+            long timestamp = times.get(existing);
+            row.swapRemove(existing);
+            times.swapRemove(existing);
+            likeEdges--;
+            return timestamp;
+        }
+
+        void touch(String userEmail, long version) {
+            Integer user = userEmail != null ? dictionary.userIndex.get(userEmail) : null;
+            if (user != null && user < writeVersions.size()) {
+                writeVersions.set(user, version);
+            }
+        }
+
+        long writeVersion(String userEmail) {
+            Integer user = dictionary.userIndex.get(userEmail);
+            return user != null && user < writeVersions.size() ? writeVersions.get(user) : 0L;
+        }
+
+        long[] likedItineraryIds(String userEmail) {
+            Integer user = dictionary.userIndex.get(userEmail);
+            if (user == null || user >= likes.size()) {
+                return new long[0];
+            }
+            IntList row = likes.get(user);
+            long[] ids = new long[row.size()];
+            for (int k = 0; k < ids.length; k++) {
+                ids[k] = dictionary.itineraryIds.get(row.get(k));
+            }
+            return ids;
+        }
+
+        void addItinerary(String userEmail, long itineraryId, Collection<String> locations) {
+            int itinerary = itineraryFor(itineraryId);
+            if (userEmail != null) {
+                int user = userFor(userEmail);
+                if (addIfAbsent(created.get(user), itinerary)) {
+                    createdEdges++;
+                }
+            }
+            if (locations != null) {
+                IntList row = includes.get(itinerary);
+                for (String name : locations) {
+                    if (name != null && addIfAbsent(row, locationFor(name))) {
+                        includesEdges++;
+                    }
+                }
+            }
+        }
+
+        void addVisits(String userEmail, Collection<String> locations) {
+            IntList row = visited.get(userFor(userEmail));
+            for (String name : locations) {
+                if (name != null && addIfAbsent(row, locationFor(name))) {
+                    visitedEdges++;
+                }
+            }
+        }
+
+        CsrGraph freeze(long version) {
+            int userCount = dictionary.userEmails.size();
+            int itineraryCount = dictionary.itineraryIds.size();
+            int locationCount = dictionary.locationNames.size();
+            ensureUser(userCount - 1);
+            ensureItinerary(itineraryCount - 1);
+
+            return new CsrGraph(version,
+                    dictionary.userEmails.toArray(new String[0]), dictionary.itineraryIds.toArray(),
+                    dictionary.locationNames.toArray(new String[0]),
+                    dictionary.userIndex, dictionary.itineraryIndex, dictionary.locationIndex,
+                    toCsr(likes, likeTimes, likeEdges, userCount, itineraryCount),
+                    toCsr(created, null, createdEdges, userCount, itineraryCount),
+                    toCsr(visited, null, visitedEdges, userCount, locationCount),
+                    toCsr(includes, null, includesEdges, itineraryCount, locationCount));
+        }
+
+        private static CsrAdjacency toCsr(List<IntList> rows, List<LongList> rowTimes, int edgeCount,
+                                          int sourceCount, int targetCount) {
+            int[] sources = new int[edgeCount];
+            int[] targets = new int[edgeCount];
+            long[] times = rowTimes != null ? new long[edgeCount] : null;
+            int e = 0;
+            for (int source = 0; source < sourceCount; source++) {
+                IntList row = rows.get(source);
+                LongList timeRow = rowTimes != null ? rowTimes.get(source) : null;
+                for (int k = 0; k < row.size(); k++) {
+                    sources[e] = source;
+                    targets[e] = row.get(k);
+                    if (times != null) {
+                        times[e] = timeRow.get(k);
+                    }
+                    e++;
+                }
+            }
+            return CsrAdjacency.build(sourceCount, targetCount, sources, targets, times, e);
+        }
+
+        private static boolean addIfAbsent(IntList row, int value) {
+            if (row.indexOf(value) >= 0) {
+                return false;
+            }
+            row.add(value);
+            return true;
+        }
+
+        private int userFor(String email) {
+            int index = dictionary.userFor(email);
+            ensureUser(index);
+            return index;
+        }
+
+        private int itineraryFor(long itineraryId) {
+            int index = dictionary.itineraryFor(itineraryId);
+            ensureItinerary(index);
+            return index;
+        }
+
+        private int locationFor(String name) {
+            return dictionary.locationFor(name);
+        }
+
+        private void ensureUser(int index) {
+            while (likes.size() <= index) {
+                likes.add(new IntList());
+                likeTimes.add(new LongList());
+                created.add(new IntList(2));
+                visited.add(new IntList(2));
+                writeVersions.add(0L);
+            }
+        }
+
+        private void ensureItinerary(int index) {
+            while (includes.size() <= index) {
+                includes.add(new IntList(2));
+            }
+        }
+    }
+}
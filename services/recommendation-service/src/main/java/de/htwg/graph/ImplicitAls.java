@@ -0,0 +1,205 @@
+package de.htwg.graph;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Alternating least squares for implicit feedback (Hu, Koren, Volinsky 2008) on the user x itinerary
+ * LIKES matrix. A like is a preference of 1 with confidence {@code 1 + alpha}, every other pair a preference
+ * of 0 with confidence 1. Each half-iteration solves one regularized {@code factors x factors} system per row:
+ *
+ * <pre>
+ *   (YtY + alpha * sum(y_i y_i^T) + lambda * I) x_u = (1 + alpha) * sum(y_i)   over the items i liked by u
+ * </pre>
+ *
+ * Rows are solved in parallel with a Cholesky decomposition. Factors are returned row-major as flat float arrays.
+ */
+public final class ImplicitAls {
+
+    public record Params(int factors, int iterations, double regularization, double alpha, long seed) {
+    }
+
+    public record Factors(int factors, float[] users, float[] items) {
+    }
+
+    /**
+     * The LIKES matrix in CSR form, in both directions. Rows are sorted and free of duplicates.
+     */
+    public static final class Interactions {
+
+        private final int userCount;
+        private final int itemCount;
+        private final int[] userOffsets;
+        private final int[] userItems;
+        private final int[] itemOffsets;
+        private final int[] itemUsers;
+
+        private Interactions(int userCount, int itemCount, int[] userOffsets, int[] userItems,
+                             int[] itemOffsets, int[] itemUsers) {
+            this.userCount = userCount;
+            this.itemCount = itemCount;
+            this.userOffsets = userOffsets;
+            this.userItems = userItems;
+            this.itemOffsets = itemOffsets;
+            this.itemUsers = itemUsers;
+        }
+
+        public static Interactions of(int userCount, int itemCount, IntList users, IntList items) {
+            int[][] byUser = rows(userCount, users, items);
+            int[][] byItem = rows(itemCount, items, users);
+            return new Interactions(userCount, itemCount, byUser[0], byUser[1], byItem[0], byItem[1]);
+        }
+
+        public int userCount() {
+            return userCount;
+        }
+
+        public int itemCount() {
+            return itemCount;
+        }
+
+        public int likeCount() {
+            return userItems.length;
+        }
+
+        /**
+         * @return the sorted items liked by a user
+         */
+        public int[] items(int user) {
+            return Arrays.copyOfRange(userItems, userOffsets[user], userOffsets[user + 1]);
+        }
+
+        // Counting sort by row, then sort and de-duplicate every row
+        private static int[][] rows(int rowCount, IntList rows, IntList columns) {
+            int[] offsets = new int[rowCount + 1];
+            for (int e = 0; e < rows.size(); e++) {
+                offsets[rows.get(e) + 1]++;
+            }
+            for (int r = 0; r < rowCount; r++) {
+                offsets[r + 1] += offsets[r];
+            }
+            int[] cursor = Arrays.copyOf(offsets, rowCount);
+            int[] values = new int[rows.size()];
+            for (int e = 0; e < rows.size(); e++) {
+                values[cursor[rows.get(e)]++] = columns.get(e);
+            }
+
+            int[] uniqueOffsets = new int[rowCount + 1];
+            int size = 0;
+            for (int r = 0; r < rowCount; r++) {
+                Arrays.sort(values, offsets[r], offsets[r + 1]);
+                for (int k = offsets[r]; k < offsets[r + 1]; k++) {
+                    if (k == offsets[r] || values[k] != values[k - 1]) {
+                        values[size++] = values[k];
+                    }
+                }
+                uniqueOffsets[r + 1] = size;
+            }
+            return new int[][]{uniqueOffsets, Arrays.copyOf(values, size)};
+        }
+    }
+
+    private ImplicitAls() {
+    }
+
+    public static Factors train(Interactions interactions, Params params) {
+        int f = params.factors();
+        SplittableRandom random = new SplittableRandom(params.seed());
+        float[] users = new float[interactions.userCount * f];
+        float[] items = new float[interactions.itemCount * f];
+        double scale = 1.0 / Math.sqrt(f);
+        for (int k = 0; k < items.length; k++) {
+            items[k] = (float) (random.nextDouble() * scale);
+        }
+
+        for (int iteration = 0; iteration < params.iterations(); iteration++) {
+            solve(users, items, interactions.userCount, interactions.userOffsets, interactions.userItems, params);
+            solve(items, users, interactions.itemCount, interactions.itemOffsets, interactions.itemUsers, params);
+        }
+        return new Factors(f, users, items);
+    }
+
+    /**
+     * Recomputes every row of {@code target} with {@code fixed} held constant.
+     */
+    private static void solve(float[] target, float[] fixed, int rowCount, int[] offsets, int[] columns, Params params) {
+        int f = params.factors();
+        double alpha = params.alpha();
+        double[] gram = gram(fixed, f);
+
+        IntStream.range(0, rowCount).parallel().forEach(row -> {
+            double[] a = gram.clone();
+            double[] b = new double[f];
+            for (int d = 0; d < f; d++) {
+                a[d * f + d] += params.regularization();
+            }
+            for (int k = offsets[row]; k < offsets[row + 1]; k++) {
+                int base = columns[k] * f;
+                for (int i = 0; i < f; i++) {
+                    double yi = fixed[base + i];
+                    b[i] += (1 + alpha) * yi;
+                    for (int j = 0; j <= i; j++) {
+                        a[i * f + j] += alpha * yi * fixed[base + j];
+                    }
+                }
+            }
+            double[] x = choleskySolve(a, b, f);
+            for (int d = 0; d < f; d++) {
+                target[row * f + d] = (float) x[d];
+            }
+        });
+    }
+
+    // Lower triangle of Y^T Y; the solver only reads the lower triangle
+    private static double[] gram(float[] factors, int f) {
+        double[] gram = new double[f * f];
+        for (int base = 0; base < factors.length; base += f) {
+            for (int i = 0; i < f; i++) {
+                double yi = factors[base + i];
+                for (int j = 0; j <= i; j++) {
+                    gram[i * f + j] += yi * factors[base + j];
+                }
+            }
+        }
+        return gram;
+    }
+
+    /**
+     * Solves {@code a x = b} for a symmetric positive definite {@code a}, given by its lower triangle.
+     * {@code a} is overwritten with its Cholesky factor.
+     */
+    private static double[] choleskySolve(double[] a, double[] b, int n) {
+        for (int j = 0; j < n; j++) {
+            double diagonal = a[j * n + j];
+            for (int k = 0; k < j; k++) {
+                diagonal -= a[j * n + k] * a[j * n + k];
+            }
+            double l = Math.sqrt(Math.max(diagonal, 1e-12));
+            a[j * n + j] = l;
+            for (int i = j + 1; i < n; i++) {
+                double value = a[i * n + j];
+                for (int k = 0; k < j; k++) {
+                    value -= a[i * n + k] * a[j * n + k];
+                }
+                a[i * n + j] = value / l;
+            }
+        }
+
+        // Forward substitution L y = b, then back substitution L^T x = y
+        double[] x = b.clone();
+        for (int i = 0; i < n; i++) {
+            for (int k = 0; k < i; k++) {
+                x[i] -= a[i * n + k] * x[k];
+            }
+            x[i] /= a[i * n + i];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            for (int k = i + 1; k < n; k++) {
+                x[i] -= a[k * n + i] * x[k];
+            }
+            x[i] /= a[i * n + i];
+        }
+        return x;
+    }
+}
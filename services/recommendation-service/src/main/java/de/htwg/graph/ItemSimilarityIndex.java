@@ -0,0 +1,237 @@
+package de.htwg.graph;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed item-to-item similarity table: for every itinerary the top-K other itineraries
+ * by Jaccard similarity of their liker sets ({@code |A ∩ B| / |A ∪ B|}).
+ * Rows are addressed by the dense itinerary index of the {@link GraphMirror}, which the mirror keeps stable across
+ * reloads. A reload can still change any liker set (likes handled by other replicas arrive that way and are never
+ * marked dirty), so the first refresh after a reload rebuilds the whole table instead of patching it.
+ * A like or unlike marks the itinerary and the liker's other liked itineraries dirty, since their co-like
+ * counts with it changed; {@link #refreshDirty()} recomputes only those rows (and the rows of their current
+ * neighbours), while {@link #rebuild()} recomputes everything. A dirty mark is only cleared by a computation
+ * against a snapshot that already reflects the write, so a write racing a refresh is picked up by the next one.
+ */
+@ApplicationScoped
+public class ItemSimilarityIndex {
+
+    private static final Logger LOG = Logger.getLogger(ItemSimilarityIndex.class);
+
+    @ConfigProperty(name = "recommendation.similarity.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "recommendation.similarity.top-k", defaultValue = "20")
+    int topK;
+
+    @ConfigProperty(name = "recommendation.similarity.min-co-likes", defaultValue = "2")
+    int minCoLikes;
+
+    @Inject
+    GraphMirror graphMirror;
+
+    // Itinerary id -> mirror version that reflects its latest like change
+    private final Map<Long, Long> dirtyItineraries = new ConcurrentHashMap<>();
+
+    private volatile SimilarityTable table;
+
+    /**
+     * Immutable similarity rows. The returned arrays must not be modified by callers.
+     */
+    public static final class SimilarityTable {
+
+        private static final int[] NO_NEIGHBORS = new int[0];
+        private static final float[] NO_WEIGHTS = new float[0];
+
+        private final int[][] neighbors;
+        private final float[][] weights;
+        // GraphMirror#loads() the rows were computed under
+        private final long mirrorLoads;
+
+        private SimilarityTable(int[][] neighbors, float[][] weights, long mirrorLoads) {
+            this.neighbors = neighbors;
+            this.weights = weights;
+            this.mirrorLoads = mirrorLoads;
+        }
+
+        public int rowCount() {
+            return neighbors.length;
+        }
+
+        public int[] neighbors(int itinerary) {
+            int[] row = itinerary < neighbors.length ? neighbors[itinerary] : null;
+            return row != null ? row : NO_NEIGHBORS;
+        }
+
+        public float[] weights(int itinerary) {
+            float[] row = itinerary < weights.length ? weights[itinerary] : null;
+            return row != null ? row : NO_WEIGHTS;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && table != null && graphMirror.isReady();
+    }
+
+    public SimilarityTable table() {
+        return table;
+    }
+
+    /**
+     * Marks the rows affected by a like or unlike, which must already be applied to the mirror.
+     */
+    public void markDirty(String userEmail, long itineraryId) {
+        if (!enabled) {
+            return;
+        }
+        long version = graphMirror.version();
+        dirtyItineraries.put(itineraryId, version);
+        for (long liked : graphMirror.likedItineraryIds(userEmail)) {
+            dirtyItineraries.put(liked, version);
+        }
+    }
+
+    /**
+     * Recomputes the similarity rows of every itinerary in the current mirror snapshot.
+     */
+    public synchronized void rebuild() {
+        if (!enabled || !graphMirror.isReady()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+
+        // Read before the snapshot: a load swapped in meanwhile makes the next refresh rebuild again
+        long loads = graphMirror.loads();
+        CsrGraph graph = graphMirror.snapshot();
+        dirtyItineraries.values().removeIf(version -> version <= graph.version());
+        int itineraryCount = graph.itineraryCount();
+        int[][] neighbors = new int[itineraryCount][];
+        float[][] weights = new float[itineraryCount][];
+
+        RowBuilder builder = new RowBuilder(graph);
+        for (int itinerary = 0; itinerary < itineraryCount; itinerary++) {
+            builder.compute(itinerary, neighbors, weights);
+        }
+
+        table = new SimilarityTable(neighbors, weights, loads);
+        LOG.infof("Rebuilt item similarity table for %d itineraries in %d ms",
+                itineraryCount, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Recomputes the rows of itineraries whose likes changed since the last refresh.
+     * Falls back to a full {@link #rebuild()} if no table exists yet or the mirror was reloaded since it was built.
+     *
+     * @return number of recomputed rows
+     */
+    public synchronized int refreshDirty() {
+        if (!enabled || !graphMirror.isReady()) {
+            return 0;
+        }
+        if (table == null || table.mirrorLoads != graphMirror.loads()) {
+            rebuild();
+            return table.rowCount();
+        }
+        if (dirtyItineraries.isEmpty()) {
+            return 0;
+        }
+
+        CsrGraph graph = graphMirror.snapshot();
+        SimilarityTable current = table;
+        int itineraryCount = graph.itineraryCount();
+        int[][] neighbors = Arrays.copyOf(current.neighbors, itineraryCount);
+        float[][] weights = Arrays.copyOf(current.weights, itineraryCount);
+
+        // Similarity is symmetric, so the previous neighbours of a dirty row are stale as well
+        IntList rows = new IntList(dirtyItineraries.size() * 4);
+        boolean[] queued = new boolean[itineraryCount];
+        for (Map.Entry<Long, Long> dirty : dirtyItineraries.entrySet()) {
+            if (dirty.getValue() <= graph.version()) {
+                // Conditional, so a mark made by a later write stays
+                dirtyItineraries.remove(dirty.getKey(), dirty.getValue());
+            }
+            int itinerary = graph.itineraryIndex(dirty.getKey());
+            if (itinerary < 0 || queued[itinerary]) {
+                continue;
+            }
+            queued[itinerary] = true;
+            rows.add(itinerary);
+            for (int neighbor : current.neighbors(itinerary)) {
+                if (neighbor < itineraryCount && !queued[neighbor]) {
+                    queued[neighbor] = true;
+                    rows.add(neighbor);
+                }
+            }
+        }
+
+        RowBuilder builder = new RowBuilder(graph);
+        for (int n = 0; n < rows.size(); n++) {
+            builder.compute(rows.get(n), neighbors, weights);
+        }
+
+        table = new SimilarityTable(neighbors, weights, current.mirrorLoads);
+        return rows.size();
+    }
+
+    /**
+     * Computes single rows against one snapshot, reusing its co-like counters between rows.
+     */
+    private final class RowBuilder {
+
+        private final CsrGraph graph;
+        private final int[] coLikes;
+        private final IntList touched = new IntList(256);
+
+        RowBuilder(CsrGraph graph) {
+            this.graph = graph;
+            this.coLikes = new int[graph.itineraryCount()];
+        }
+
+        void compute(int itinerary, int[][] neighbors, float[][] weights) {
+            CsrAdjacency likes = graph.likes();
+            CsrAdjacency likedBy = graph.likedBy();
+
+            for (int m = likedBy.start(itinerary); m < likedBy.end(itinerary); m++) {
+                int user = likedBy.target(m);
+                for (int k = likes.start(user); k < likes.end(user); k++) {
+                    int other = likes.target(k);
+                    if (other != itinerary && coLikes[other]++ == 0) {
+                        touched.add(other);
+                    }
+                }
+            }
+
+            int degree = likedBy.degree(itinerary);
+            TopK top = new TopK(topK);
+            for (int n = 0; n < touched.size(); n++) {
+                int other = touched.get(n);
+                int common = coLikes[other];
+                coLikes[other] = 0;
+                if (common >= minCoLikes) {
+                    top.offer(other, (double) common / (degree + likedBy.degree(other) - common));
+                }
+            }
+            touched.clear();
+
+            double[] scores = new double[top.size()];
+            int[] row = top.drainDescending(scores);
+            float[] rowWeights = new float[row.length];
+            for (int n = 0; n < row.length; n++) {
+                rowWeights[n] = (float) scores[n];
+            }
+            neighbors[itinerary] = row;
+            weights[itinerary] = rowWeights;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package de.htwg.graph;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of itinerary ids in the style of a Roaring bitmap: ids are split into a high part,
+ * which selects a container, and a 16-bit low part stored in it. Sparse containers hold a sorted
+ * {@code char[]} of low parts, containers with more than {@value #ARRAY_MAX} values switch to a
+ * fixed 8 KiB bitmap. Itinerary ids are dense, so a user's few hundred ids usually fit in one
+ * small array container.
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public final class ItineraryBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    private long[] keys = new long[0];
+    private Object[] containers = new Object[0];
+    private int[] cardinalities = new int[0];
+    private int size;
+    private int cardinality;
+
+    /**
+     * @return true if the id was not contained before
+     */
+    public boolean add(long itineraryId) {
+        long key = itineraryId >>> 16;
+        char low = (char) itineraryId;
+        int slot = Arrays.binarySearch(keys, 0, size, key);
+        if (slot < 0) {
+            slot = -slot - 1;
+            insertContainer(slot, key);
+        }
+
+        Object container = containers[slot];
+        if (container instanceof long[] words) {
+            long mask = 1L << low;
+            if ((words[low >>> 6] & mask) != 0) {
+                return false;
+            }
+            words[low >>> 6] |= mask;
+        } else {
+            char[] values = (char[]) container;
+            int count = cardinalities[slot];
+            int position = Arrays.binarySearch(values, 0, count, low);
+            if (position >= 0) {
+                return false;
+            }
+            position = -position - 1;
+            if (count == ARRAY_MAX) {
+                long[] words = toBitmap(values, count);
+                words[low >>> 6] |= 1L << low;
+                containers[slot] = words;
+            } else {
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, count * 2)));
+                    containers[slot] = values;
+                }
+                System.arraycopy(values, position, values, position + 1, count - position);
+                values[position] = low;
+            }
+        }
+        cardinalities[slot]++;
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * @return true if the id was contained
+     */
+    public boolean remove(long itineraryId) {
+        int slot = Arrays.binarySearch(keys, 0, size, itineraryId >>> 16);
+        if (slot < 0) {
+            return false;
+        }
+        char low = (char) itineraryId;
+
+        Object container = containers[slot];
+        if (container instanceof long[] words) {
+            long mask = 1L << low;
+            if ((words[low >>> 6] & mask) == 0) {
+                return false;
+            }
+            words[low >>> 6] &= ~mask;
+            if (cardinalities[slot] - 1 <= ARRAY_MAX) {
+                containers[slot] = toArray(words, cardinalities[slot] - 1);
+            }
+        } else {
+            char[] values = (char[]) container;
+            int count = cardinalities[slot];
+            int position = Arrays.binarySearch(values, 0, count, low);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(values, position + 1, values, position, count - position - 1);
+        }
+        cardinality--;
+        if (--cardinalities[slot] == 0) {
+            removeContainer(slot);
+        }
+        return true;
+    }
+
+    public boolean contains(long itineraryId) {
+        int slot = Arrays.binarySearch(keys, 0, size, itineraryId >>> 16);
+        if (slot < 0) {
+            return false;
+        }
+        char low = (char) itineraryId;
+        Object container = containers[slot];
+        if (container instanceof long[] words) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) container, 0, cardinalities[slot], low) >= 0;
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    private void insertContainer(int slot, long key) {
+        if (size == keys.length) {
+            int capacity = Math.max(2, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+            cardinalities = Arrays.copyOf(cardinalities, capacity);
+        }
+        System.arraycopy(keys, slot, keys, slot + 1, size - slot);
+        System.arraycopy(containers, slot, containers, slot + 1, size - slot);
+        System.arraycopy(cardinalities, slot, cardinalities, slot + 1, size - slot);
+        keys[slot] = key;
+        containers[slot] = new char[4];
+        cardinalities[slot] = 0;
+        size++;
+    }
+
+    private void removeContainer(int slot) {
+        System.arraycopy(keys, slot + 1, keys, slot, size - slot - 1);
+        System.arraycopy(containers, slot + 1, containers, slot, size - slot - 1);
+        System.arraycopy(cardinalities, slot + 1, cardinalities, slot, size - slot - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private static long[] toBitmap(char[] values, int count) {
+        long[] words = new long[BITMAP_WORDS];
+        for (int i = 0; i < count; i++) {
+            words[values[i] >>> 6] |= 1L << values[i];
+        }
+        return words;
+    }
+
+    private static char[] toArray(long[] words, int count) {
+        char[] values = new char[count];
+        int n = 0;
+        for (int word = 0; word < words.length; word++) {
+            long bits = words[word];
+            while (bits != 0) {
+                values[n++] = (char) ((word << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,314 @@
+package de.htwg.graph;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Inverted index from location name to the itineraries that include it, for location-based
+ * recommendations without walking the graph.
+ *
+ * Every location has a posting list: the sorted ids of its itineraries and, at the same positions,
+ * their like counts. A user's candidates are a k-way merge of the posting lists of the locations
+ * they visited, so the overlap with the user's locations falls out of the merge. The reverse direction,
+ * the visitors of a location, tells which feed inboxes a new itinerary is delivered to.
+ *
+ * The index is built from a {@link GraphMirror} snapshot once the mirror is loaded and then kept
+ * current by the graph writes; posting lists are copied on write (itineraries are rarely created),
+ * while like counts are updated in place. A rebuild takes a snapshot that reflects every mirror write so far
+ * and builds the replacement maps without blocking writers; writes made meanwhile are applied to the current
+ * maps and replayed on the new ones after the swap, so none of them is lost. A like whose mirror write came
+ * before the snapshot but whose index update came after it is counted twice until the next rebuild.
+ */
+@ApplicationScoped
+public class LocationIndex {
+
+    private static final Logger LOG = Logger.getLogger(LocationIndex.class);
+
+    private static final String[] NONE = new String[0];
+
+    @ConfigProperty(name = "recommendation.location-index.enabled", defaultValue = "true")
+    boolean enabled;
+
+    private volatile Map<String, Posting> postings = new ConcurrentHashMap<>();
+    private volatile Map<String, String[]> visits = new ConcurrentHashMap<>();
+    private volatile Map<String, Set<String>> visitors = new ConcurrentHashMap<>();
+    private volatile Map<Long, Itinerary> itineraries = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    // Guarded by this; writes to replay on the maps of the rebuild in progress, or null if none is
+    private List<Runnable> pendingWrites;
+
+    /**
+     * Itineraries of one location, sorted by id, with their like counts.
+     */
+    public static final class Posting {
+
+        private final long[] itineraryIds;
+        private final AtomicIntegerArray likes;
+
+        private Posting(long[] itineraryIds, AtomicIntegerArray likes) {
+            this.itineraryIds = itineraryIds;
+            this.likes = likes;
+        }
+
+        public int size() {
+            return itineraryIds.length;
+        }
+
+        public long itineraryId(int position) {
+            return itineraryIds[position];
+        }
+
+        public int likes(int position) {
+            return likes.get(position);
+        }
+    }
+
+    // Locations and like count of an itinerary, needed to update its postings
+    private static final class Itinerary {
+        String[] locations = NONE;
+        int likes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * @return the posting list of a location, or null if no itinerary includes it
+     */
+    public Posting posting(String location) {
+        return postings.get(location);
+    }
+
+    /**
+     * @return the distinct locations a user visited
+     */
+    public String[] visits(String userEmail) {
+        return visits.getOrDefault(userEmail, NONE);
+    }
+
+    /**
+     * @return the users who visited a location; a live view, not a copy
+     */
+    public Set<String> visitors(String location) {
+        return visitors.getOrDefault(location, Set.of());
+    }
+
+    /**
+     * Replaces the whole index with the itineraries, locations and likes of a fresh mirror snapshot.
+     * Does nothing if another rebuild is in progress.
+     */
+    public void rebuild(GraphMirror mirror) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+
+        CsrGraph graph;
+        synchronized (this) {
+            if (pendingWrites != null) {
+                return;
+            }
+            pendingWrites = new ArrayList<>();
+            // Taken while index writes wait, so every later one is replayed
+            graph = mirror.freshSnapshot();
+        }
+        try {
+            rebuildFrom(graph, start);
+        } finally {
+            synchronized (this) {
+                pendingWrites = null;
+            }
+        }
+    }
+
+    private void rebuildFrom(CsrGraph graph, long start) {
+
+        CsrAdjacency includes = graph.includes();
+        CsrAdjacency includedBy = graph.includedBy();
+        CsrAdjacency likedBy = graph.likedBy();
+        CsrAdjacency visited = graph.visited();
+
+        Map<Long, Itinerary> freshItineraries = new ConcurrentHashMap<>(graph.itineraryCount() * 2);
+        for (int itinerary = 0; itinerary < graph.itineraryCount(); itinerary++) {
+            Itinerary entry = new Itinerary();
+            entry.likes = likedBy.degree(itinerary);
+            entry.locations = new String[includes.degree(itinerary)];
+            for (int k = includes.start(itinerary); k < includes.end(itinerary); k++) {
+                entry.locations[k - includes.start(itinerary)] = graph.locationName(includes.target(k));
+            }
+            freshItineraries.put(graph.itineraryId(itinerary), entry);
+        }
+
+        Map<String, Posting> freshPostings = new ConcurrentHashMap<>(graph.locationCount() * 2);
+        for (int location = 0; location < graph.locationCount(); location++) {
+            int degree = includedBy.degree(location);
+            if (degree == 0) {
+                continue;
+            }
+            long[] ids = new long[degree];
+            for (int k = includedBy.start(location); k < includedBy.end(location); k++) {
+                ids[k - includedBy.start(location)] = graph.itineraryId(includedBy.target(k));
+            }
+            Arrays.sort(ids);
+            AtomicIntegerArray likes = new AtomicIntegerArray(degree);
+            for (int n = 0; n < degree; n++) {
+                likes.set(n, freshItineraries.get(ids[n]).likes);
+            }
+            freshPostings.put(graph.locationName(location), new Posting(ids, likes));
+        }
+
+        CsrAdjacency visitedBy = graph.visitedBy();
+        Map<String, Set<String>> freshVisitors = new ConcurrentHashMap<>(graph.locationCount() * 2);
+        for (int location = 0; location < graph.locationCount(); location++) {
+            if (visitedBy.degree(location) > 0) {
+                Set<String> emails = ConcurrentHashMap.newKeySet(visitedBy.degree(location));
+                for (int k = visitedBy.start(location); k < visitedBy.end(location); k++) {
+                    emails.add(graph.userEmail(visitedBy.target(k)));
+                }
+                freshVisitors.put(graph.locationName(location), emails);
+            }
+        }
+
+        Map<String, String[]> freshVisits = new ConcurrentHashMap<>(graph.userCount() * 2);
+        for (int user = 0; user < graph.userCount(); user++) {
+            if (visited.degree(user) > 0) {
+                String[] names = new String[visited.degree(user)];
+                for (int k = visited.start(user); k < visited.end(user); k++) {
+                    names[k - visited.start(user)] = graph.locationName(visited.target(k));
+                }
+                freshVisits.put(graph.userEmail(user), names);
+            }
+        }
+
+        int replayed;
+        synchronized (this) {
+            itineraries = freshItineraries;
+            postings = freshPostings;
+            visits = freshVisits;
+            visitors = freshVisitors;
+            List<Runnable> writes = pendingWrites;
+            pendingWrites = null;
+            writes.forEach(Runnable::run);
+            replayed = writes.size();
+            ready = true;
+        }
+        LOG.infof("Rebuilt location index for %d locations and %d users in %d ms (%d writes replayed)",
+                freshPostings.size(), freshVisits.size(), System.currentTimeMillis() - start, replayed);
+    }
+
+    public synchronized void addItinerary(long itineraryId, Collection<String> locations) {
+        if (!enabled || locations == null) {
+            return;
+        }
+        write(() -> applyItinerary(itineraryId, locations));
+    }
+
+    private void applyItinerary(long itineraryId, Collection<String> locations) {
+        Itinerary entry = itineraries.computeIfAbsent(itineraryId, id -> new Itinerary());
+        for (String location : locations) {
+            if (contains(entry.locations, location)) {
+                continue;
+            }
+            entry.locations = append(entry.locations, location);
+
+            Posting posting = postings.get(location);
+            long[] ids = posting != null ? posting.itineraryIds : new long[0];
+            int position = -Arrays.binarySearch(ids, itineraryId) - 1;
+            long[] newIds = new long[ids.length + 1];
+            AtomicIntegerArray newLikes = new AtomicIntegerArray(ids.length + 1);
+            System.arraycopy(ids, 0, newIds, 0, position);
+            System.arraycopy(ids, position, newIds, position + 1, ids.length - position);
+            newIds[position] = itineraryId;
+            for (int n = 0; n < newIds.length; n++) {
+                newLikes.set(n, n == position ? entry.likes : posting.likes(n < position ? n : n - 1));
+            }
+            postings.put(location, new Posting(newIds, newLikes));
+        }
+    }
+
+    public synchronized void addVisits(String userEmail, Collection<String> locations) {
+        if (!enabled || userEmail == null || locations == null) {
+            return;
+        }
+        write(() -> applyVisits(userEmail, locations));
+    }
+
+    private void applyVisits(String userEmail, Collection<String> locations) {
+        String[] current = visits.getOrDefault(userEmail, NONE);
+        String[] updated = current;
+        for (String location : locations) {
+            if (location != null && !contains(updated, location)) {
+                updated = append(updated, location);
+                visitors.computeIfAbsent(location, name -> ConcurrentHashMap.newKeySet()).add(userEmail);
+            }
+        }
+        if (updated != current) {
+            visits.put(userEmail, updated);
+        }
+    }
+
+    public void recordLike(long itineraryId) {
+        adjustLikes(itineraryId, 1);
+    }
+
+    public void removeLike(long itineraryId) {
+        adjustLikes(itineraryId, -1);
+    }
+
+    private synchronized void adjustLikes(long itineraryId, int delta) {
+        if (!enabled) {
+            return;
+        }
+        write(() -> applyLikes(itineraryId, delta));
+    }
+
+    private void applyLikes(long itineraryId, int delta) {
+        Itinerary entry = itineraries.computeIfAbsent(itineraryId, id -> new Itinerary());
+        entry.likes = Math.max(0, entry.likes + delta);
+        for (String location : entry.locations) {
+            Posting posting = postings.get(location);
+            int position = posting != null ? Arrays.binarySearch(posting.itineraryIds, itineraryId) : -1;
+            if (position >= 0) {
+                posting.likes.set(position, entry.likes);
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void write(Runnable write) {
+        write.run();
+        if (pendingWrites != null) {
+            pendingWrites.add(write);
+        }
+    }
+
+    private static boolean contains(String[] values, String value) {
+        for (String candidate : values) {
+            if (candidate.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String[] append(String[] values, String value) {
+        String[] appended = Arrays.copyOf(values, values.length + 1);
+        appended[values.length] = value;
+        return appended;
+    }
+}
@@ -0,0 +1,86 @@
+package de.htwg.graph;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Degree cap for in-memory traversals. A node with more than {@code recommendation.traversal.max-degree}
+ * neighbours (a viral itinerary with thousands of likers, a location every itinerary includes) is expanded
+ * through a sample of that many edges instead of all of them, so the work of a traversal stays bounded
+ * however skewed popularity is.
+ *
+ * Two samplings are supported:
+ * <ul>
+ *     <li>{@code recency}: weighted reservoir sampling (Efraimidis-Spirakis), an edge's weight halving every
+ *     {@code recommendation.traversal.recency-half-life} of age, so recent likes are preferred;
+ *     edges without timestamps are sampled uniformly,</li>
+ *     <li>{@code reservoir}: uniform reservoir sampling.</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class NeighborSampler {
+
+    @ConfigProperty(name = "recommendation.traversal.max-degree", defaultValue = "1000")
+    int maxDegree;
+
+    @ConfigProperty(name = "recommendation.traversal.sampling", defaultValue = "recency")
+    String sampling;
+
+    @ConfigProperty(name = "recommendation.traversal.recency-half-life", defaultValue = "P7D")
+    Duration recencyHalfLife;
+
+    private boolean recency;
+    private double tauMillis;
+
+    @PostConstruct
+    void init() {
+        if (!"recency".equalsIgnoreCase(sampling) && !"reservoir".equalsIgnoreCase(sampling)) {
+            throw new IllegalArgumentException("recommendation.traversal.sampling must be 'recency' or 'reservoir': " + sampling);
+        }
+        recency = "recency".equalsIgnoreCase(sampling);
+        tauMillis = recencyHalfLife.toMillis() / Math.log(2);
+    }
+
+    public int maxDegree() {
+        return maxDegree;
+    }
+
+    /**
+     * Replaces the contents of {@code edges} with the edge positions of {@code node} to expand:
+     * all of them, or a sample of {@code max-degree} when the node has more.
+     *
+     * @return true if the neighbourhood was sampled
+     */
+    public boolean edges(CsrAdjacency adjacency, int node, IntList edges) {
+        edges.clear();
+        int start = adjacency.start(node);
+        int end = adjacency.end(node);
+        if (end - start <= maxDegree) {
+            for (int k = start; k < end; k++) {
+                edges.add(k);
+            }
+            return false;
+        }
+
+        // Keep the edges with the highest keys: log(u) / weight for a uniform u, weight 1 without recency
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean weighted = recency && adjacency.hasTimes();
+        long now = System.currentTimeMillis();
+        TopK sample = new TopK(maxDegree);
+        for (int k = start; k < end; k++) {
+            double key = Math.log(random.nextDouble());
+            if (weighted) {
+                key *= Math.exp(Math.max(0L, now - adjacency.time(k)) / tauMillis);
+            }
+            sample.offer(k, key);
+        }
+        for (int k : sample.drainDescending(null)) {
+            edges.add(k);
+        }
+        return true;
+    }
+}
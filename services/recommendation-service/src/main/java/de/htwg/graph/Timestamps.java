@@ -0,0 +1,44 @@
+package de.htwg.graph;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Converts the timestamp representations found on graph relationships into epoch millis.
+ */
+public final class Timestamps {
+
+    private Timestamps() {
+    }
+
+    /**
+     * Accepts ISO strings as written by {@code LocalDateTime.now().toString()} as well as
+     * native temporal values returned by the driver. Unknown or unparsable values map to 0.
+     */
+    public static long toEpochMillis(Object value) {
+        if (value instanceof ZonedDateTime zoned) {
+            return zoned.toInstant().toEpochMilli();
+        }
+        if (value instanceof OffsetDateTime offset) {
+            return offset.toInstant().toEpochMilli();
+        }
+        if (value instanceof LocalDateTime local) {
+            return local.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            try {
+                return LocalDateTime.parse(text).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                try {
+                    return OffsetDateTime.parse(text).toInstant().toEpochMilli();
+                } catch (DateTimeParseException ignored) {
+                    return 0L;
+                }
+            }
+        }
+        return 0L;
+    }
+}
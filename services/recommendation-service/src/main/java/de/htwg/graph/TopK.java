@@ -0,0 +1,93 @@
+package de.htwg.graph;
+
+/**
+ * Bounded min-heap over (int item, double score) pairs that keeps the k highest scores
+ * without boxing. Results are returned in descending score order.
+ */
+public final class TopK {
+
+    private final int[] items;
+    private final double[] scores;
+    private int size;
+
+    public TopK(int k) {
+        this.items = new int[Math.max(0, k)];
+        this.scores = new double[Math.max(0, k)];
+    }
+
+    public void offer(int item, double score) {
+        if (items.length == 0) {
+            return;
+        }
+        if (size < items.length) {
+            items[size] = item;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (score > scores[0]) {
+            items[0] = item;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Drains the heap and returns the items ordered by descending score.
+     * The matching scores are written into {@code scoresOut} when it is not null.
+     */
+    public int[] drainDescending(double[] scoresOut) {
+        int count = size;
+        int[] result = new int[count];
+        for (int i = count - 1; i >= 0; i--) {
+            result[i] = items[0];
+            if (scoresOut != null) {
+                scoresOut[i] = scores[0];
+            }
+            size--;
+            if (size > 0) {
+                items[0] = items[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+        }
+        return result;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[parent] <= scores[index]) {
+                return;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && scores[left + 1] < scores[left] ? left + 1 : left;
+            if (scores[index] <= scores[smallest]) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -0,0 +1,258 @@
+package de.htwg.graph;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Materialized like counts and time-decayed trending scores per itinerary.
+ * <p>
+ * Scores use forward decay: every like adds {@code exp((likedAt - landmark) / tau)}, so the relative
+ * order of scores never changes as time passes and no periodic re-scoring is needed. Updates are
+ * lock-free (CAS on the score bits). Readers get an immutable top-N {@link Ranking} that is rebuilt
+ * at most every {@code recommendation.trending.refresh-ms} when something changed; a rebuild in
+ * progress never blocks readers, they keep seeing the previous ranking.
+ * <p>
+ * The index is periodically replaced from Neo4j via {@link #reconcile(Map)}, which also moves the
+ * decay landmark forward so the exponent stays small.
+ */
+@ApplicationScoped
+public class TrendingIndex {
+
+    private static final Logger LOG = Logger.getLogger(TrendingIndex.class);
+
+    @ConfigProperty(name = "recommendation.trending.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "recommendation.trending.half-life", defaultValue = "PT24H")
+    Duration halfLife;
+
+    @ConfigProperty(name = "recommendation.trending.top-n", defaultValue = "500")
+    int topN;
+
+    @ConfigProperty(name = "recommendation.trending.refresh-ms", defaultValue = "1000")
+    long refreshMs;
+
+    private final AtomicLong version = new AtomicLong();
+    private final ReentrantLock rankingLock = new ReentrantLock();
+
+    private double tauMillis;
+    private volatile State state;
+    private volatile Rankings rankings;
+    private volatile boolean ready;
+
+    /**
+     * Immutable top-N list of itineraries with their like counts and scores, highest first.
+     */
+    public static final class Ranking {
+
+        private static final Ranking EMPTY = new Ranking(new long[0], new int[0], new double[0]);
+
+        private final long[] itineraryIds;
+        private final int[] likes;
+        private final double[] scores;
+
+        private Ranking(long[] itineraryIds, int[] likes, double[] scores) {
+            this.itineraryIds = itineraryIds;
+            this.likes = likes;
+            this.scores = scores;
+        }
+
+        public int size() {
+            return itineraryIds.length;
+        }
+
+        public long itineraryId(int rank) {
+            return itineraryIds[rank];
+        }
+
+        public int likes(int rank) {
+            return likes[rank];
+        }
+
+        public double score(int rank) {
+            return scores[rank];
+        }
+    }
+
+    private static final class Entry {
+        final AtomicInteger likes = new AtomicInteger();
+        final AtomicLong decayedBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    }
+
+    private record State(long landmarkMillis, Map<Long, Entry> entries) {
+    }
+
+    private record Rankings(long version, long builtAt, Ranking trending, Ranking popular) {
+    }
+
+    @PostConstruct
+    void init() {
+        tauMillis = halfLife.toMillis() / Math.log(2);
+        state = new State(System.currentTimeMillis(), new ConcurrentHashMap<>());
+        rankings = new Rankings(-1L, 0L, Ranking.EMPTY, Ranking.EMPTY);
+    }
+
+    /**
+     * @return true once the index has been reconciled against Neo4j at least once
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordLike(long itineraryId, long likedAtMillis) {
+        if (!enabled) {
+            return;
+        }
+        State current = state;
+        Entry entry = current.entries().computeIfAbsent(itineraryId, id -> new Entry());
+        entry.likes.incrementAndGet();
+        addScore(entry, weight(current, likedAtMillis));
+        version.incrementAndGet();
+    }
+
+    /**
+     * @param likedAtMillis timestamp of the removed like; a negative value means no like was known
+     *                      and leaves the index unchanged (reconciliation repairs any difference)
+     */
+    public void removeLike(long itineraryId, long likedAtMillis) {
+        if (!enabled || likedAtMillis < 0) {
+            return;
+        }
+        State current = state;
+        Entry entry = current.entries().get(itineraryId);
+        if (entry == null) {
+            return;
+        }
+        entry.likes.updateAndGet(likes -> Math.max(0, likes - 1));
+        addScore(entry, -weight(current, likedAtMillis));
+        version.incrementAndGet();
+    }
+
+    /**
+     * Replaces the whole index with like timestamps read from Neo4j and moves the decay landmark to now.
+     *
+     * @param likeTimestamps epoch millis of every like, per itinerary id
+     */
+    public void reconcile(Map<Long, long[]> likeTimestamps) {
+        State fresh = new State(System.currentTimeMillis(), new ConcurrentHashMap<>(likeTimestamps.size() * 2));
+        for (Map.Entry<Long, long[]> itinerary : likeTimestamps.entrySet()) {
+            Entry entry = new Entry();
+            double score = 0.0;
+            for (long timestamp : itinerary.getValue()) {
+                score += weight(fresh, timestamp);
+            }
+            entry.likes.set(itinerary.getValue().length);
+            entry.decayedBits.set(Double.doubleToRawLongBits(score));
+            fresh.entries().put(itinerary.getKey(), entry);
+        }
+        state = fresh;
+        version.incrementAndGet();
+        ready = true;
+        LOG.infof("Trending index reconciled: %d itineraries with likes", likeTimestamps.size());
+    }
+
+    /**
+     * @return the top-N itineraries by time-decayed like score
+     */
+    public Ranking trending() {
+        return currentRankings().trending();
+    }
+
+    /**
+     * @return the top-N itineraries by total like count
+     */
+    public Ranking popular() {
+        return currentRankings().popular();
+    }
+
+    private Rankings currentRankings() {
+        Rankings current = rankings;
+        long now = System.currentTimeMillis();
+        if (current.version() == version.get() || now - current.builtAt() < refreshMs) {
+            return current;
+        }
+        // Only one thread rebuilds; everybody else keeps reading the previous rankings
+        if (!rankingLock.tryLock()) {
+            return current;
+        }
+        try {
+            if (rankings != current) {
+                return rankings;
+            }
+            long builtVersion = version.get();
+            State snapshot = state;
+            double normalization = Math.exp(-(now - snapshot.landmarkMillis()) / tauMillis);
+
+            int size = snapshot.entries().size();
+            long[] ids = new long[size];
+            int[] likes = new int[size];
+            double[] scores = new double[size];
+            TopK trendingTop = new TopK(topN);
+            TopK popularTop = new TopK(topN);
+            int n = 0;
+            for (Map.Entry<Long, Entry> entry : snapshot.entries().entrySet()) {
+                if (n == size) {
+                    break;
+                }
+                int likeCount = entry.getValue().likes.get();
+                if (likeCount <= 0) {
+                    continue;
+                }
+                ids[n] = entry.getKey();
+                likes[n] = likeCount;
+                scores[n] = Double.longBitsToDouble(entry.getValue().decayedBits.get()) * normalization;
+                trendingTop.offer(n, scores[n]);
+                popularTop.offer(n, likeCount);
+                n++;
+            }
+
+            Rankings rebuilt = new Rankings(builtVersion, now,
+                    toRanking(trendingTop, ids, likes, scores),
+                    toRanking(popularTop, ids, likes, scores));
+            rankings = rebuilt;
+            return rebuilt;
+        } finally {
+            rankingLock.unlock();
+        }
+    }
+
+    private static Ranking toRanking(TopK top, long[] ids, int[] likes, double[] scores) {
+        int[] slots = top.drainDescending(null);
+        long[] rankedIds = new long[slots.length];
+        int[] rankedLikes = new int[slots.length];
+        double[] rankedScores = new double[slots.length];
+        for (int rank = 0; rank < slots.length; rank++) {
+            rankedIds[rank] = ids[slots[rank]];
+            rankedLikes[rank] = likes[slots[rank]];
+            rankedScores[rank] = scores[slots[rank]];
+        }
+        return new Ranking(rankedIds, rankedLikes, rankedScores);
+    }
+
+    private double weight(State current, long timestampMillis) {
+        return Math.exp((timestampMillis - current.landmarkMillis()) / tauMillis);
+    }
+
+    private static void addScore(Entry entry, double delta) {
+        long previous;
+        long next;
+        do {
+            previous = entry.decayedBits.get();
+            double updated = Math.max(0.0, Double.longBitsToDouble(previous) + delta);
+            next = Double.doubleToRawLongBits(updated);
+        } while (!entry.decayedBits.compareAndSet(previous, next));
+    }
+}
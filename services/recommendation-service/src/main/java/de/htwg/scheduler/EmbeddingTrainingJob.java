@@ -0,0 +1,113 @@
+package de.htwg.scheduler;
+
+import de.htwg.graph.EmbeddingIndex;
+import de.htwg.graph.ImplicitAls;
+import de.htwg.graph.IntList;
+import de.htwg.telemetry.QueryTelemetry;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Periodically exports the LIKES bipartite graph from Neo4j, trains implicit-feedback ALS embeddings
+ * in-process and publishes them to the {@link EmbeddingIndex}. The first run happens right after startup.
+ */
+@ApplicationScoped
+public class EmbeddingTrainingJob {
+
+    private static final Logger LOG = Logger.getLogger(EmbeddingTrainingJob.class);
+
+    private static final String EXPORT_QUERY = """
+            MATCH (u:User)-[:LIKES]->(i:Itinerary)
+            WHERE i.id IS NOT NULL
+            RETURN u.email AS userEmail, i.id AS itineraryId
+            """;
+
+    @Inject
+    Driver neo4jDriver;
+
+    @Inject
+    QueryTelemetry queryTelemetry;
+
+    @Inject
+    EmbeddingIndex embeddingIndex;
+
+    @ConfigProperty(name = "recommendation.embeddings.factors", defaultValue = "32")
+    int factors;
+
+    @ConfigProperty(name = "recommendation.embeddings.iterations", defaultValue = "10")
+    int iterations;
+
+    @ConfigProperty(name = "recommendation.embeddings.regularization", defaultValue = "0.1")
+    double regularization;
+
+    @ConfigProperty(name = "recommendation.embeddings.alpha", defaultValue = "20")
+    double alpha;
+
+    @Scheduled(every = "{recommendation.embeddings.train-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void train() {
+        if (!embeddingIndex.isEnabled()) {
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            Export export = export();
+            ImplicitAls.Interactions interactions = ImplicitAls.Interactions.of(
+                    export.userEmails.length, export.itineraryIds.length, export.users, export.itineraries);
+            ImplicitAls.Factors trained = ImplicitAls.train(interactions,
+                    new ImplicitAls.Params(factors, iterations, regularization, alpha, start));
+
+            int[][] liked = new int[interactions.userCount()][];
+            for (int user = 0; user < liked.length; user++) {
+                liked[user] = interactions.items(user);
+            }
+            embeddingIndex.publish(new EmbeddingIndex.Model(export.userIndex, export.itineraryIds, factors,
+                    trained.users(), trained.items(), liked));
+            LOG.infof("Trained %d-factor embeddings for %d users and %d itineraries from %d likes in %d ms",
+                    factors, interactions.userCount(), interactions.itemCount(), interactions.likeCount(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            LOG.error("Error training itinerary embeddings", e);
+        }
+    }
+
+    private record Export(Map<String, Integer> userIndex, String[] userEmails, long[] itineraryIds,
+                          IntList users, IntList itineraries) {
+    }
+
+    private Export export() {
+        try (Session session = neo4jDriver.session()) {
+            return session.readTransaction(tx -> {
+                QueryTelemetry.QueryExecution execution = queryTelemetry.start("embeddings-export", EXPORT_QUERY, Map.of());
+                Result result = tx.run(execution.cypher());
+                Map<String, Integer> userIndex = new HashMap<>();
+                Map<Long, Integer> itineraryIndex = new HashMap<>();
+                IntList users = new IntList(1024);
+                IntList itineraries = new IntList(1024);
+
+                while (result.hasNext()) {
+                    Record record = result.next();
+                    users.add(userIndex.computeIfAbsent(record.get("userEmail").asString(), email -> userIndex.size()));
+                    itineraries.add(itineraryIndex.computeIfAbsent(record.get("itineraryId").asLong(), id -> itineraryIndex.size()));
+                }
+                queryTelemetry.record(execution, result.consume(), users.size());
+
+                String[] userEmails = new String[userIndex.size()];
+                userIndex.forEach((email, index) -> userEmails[index] = email);
+                long[] itineraryIds = new long[itineraryIndex.size()];
+                itineraryIndex.forEach((id, index) -> itineraryIds[index] = id);
+                return new Export(userIndex, userEmails, itineraryIds, users, itineraries);
+            });
+        }
+    }
+}
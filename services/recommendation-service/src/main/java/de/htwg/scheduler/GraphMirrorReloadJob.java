@@ -0,0 +1,31 @@
+package de.htwg.scheduler;
+
+import de.htwg.graph.GraphMirror;
+import de.htwg.startup.GraphMirrorLoader;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Periodically reloads the {@link GraphMirror} from Neo4j. Between reloads the mirror only sees the writes
+ * handled by this replica, so this bounds how long writes of other replicas (and writes whose post-commit
+ * hook was lost) stay invisible to the in-memory recommenders. It also retries a failed startup load.
+ */
+@ApplicationScoped
+public class GraphMirrorReloadJob {
+
+    @Inject
+    GraphMirror graphMirror;
+
+    @Inject
+    GraphMirrorLoader graphMirrorLoader;
+
+    @Scheduled(every = "{recommendation.graph.mirror.reload-interval}", delayed = "{recommendation.graph.mirror.reload-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void reload() {
+        if (!graphMirror.isEnabled()) {
+            return;
+        }
+        graphMirrorLoader.load();
+    }
+}
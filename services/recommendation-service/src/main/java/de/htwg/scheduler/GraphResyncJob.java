@@ -0,0 +1,39 @@
+package de.htwg.scheduler;
+
+import de.htwg.service.GraphResyncService;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+/**
+ * Periodic resync of itineraries, creators and locations from the itinerary service, repairing
+ * itineraries whose {@code POST /graph/itineraries} call never arrived. Off by default
+ * ({@code recommendation.graph.resync.interval=off}); {@code POST /graph/resync} runs one on demand.
+ * A run interrupted by a restart resumes from its checkpoint on the next run. Runs are skipped while no
+ * service key for the itinerary export is configured.
+ */
+@ApplicationScoped
+public class GraphResyncJob {
+
+    private static final Logger LOG = Logger.getLogger(GraphResyncJob.class);
+
+    @Inject
+    GraphResyncService graphResyncService;
+
+    @Scheduled(every = "{recommendation.graph.resync.interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void resync() {
+        if (!graphResyncService.isConfigured()) {
+            LOG.warn("Skipping scheduled graph resync: no service-auth.key configured for the itinerary export");
+            return;
+        }
+        try {
+            if (graphResyncService.resync(false) == null) {
+                LOG.debug("Graph resync already running, skipping scheduled run");
+            }
+        } catch (Exception e) {
+            LOG.error("Error resyncing graph from the itinerary service", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package de.htwg.scheduler;
+
+import de.htwg.graph.ItemSimilarityIndex;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+/**
+ * Background job that keeps the item-to-item similarity table current.
+ * Dirty rows (itineraries that gained or lost likes) are refreshed frequently,
+ * and a periodic full rebuild repairs any drift in rows that were not marked dirty.
+ */
+@ApplicationScoped
+public class ItemSimilarityRefreshJob {
+
+    private static final Logger LOG = Logger.getLogger(ItemSimilarityRefreshJob.class);
+
+    @Inject
+    ItemSimilarityIndex itemSimilarityIndex;
+
+    @Scheduled(every = "{recommendation.similarity.refresh-interval}", delayed = "10s",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void refreshDirtyRows() {
+        try {
+            int refreshed = itemSimilarityIndex.refreshDirty();
+            if (refreshed > 0) {
+                LOG.debugf("Refreshed %d item similarity rows", refreshed);
+            }
+        } catch (Exception e) {
+            LOG.error("Error refreshing item similarity rows", e);
+        }
+    }
+
+    @Scheduled(every = "{recommendation.similarity.rebuild-interval}", delayed = "{recommendation.similarity.rebuild-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void rebuild() {
+        try {
+            itemSimilarityIndex.rebuild();
+        } catch (Exception e) {
+            LOG.error("Error rebuilding item similarity table", e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package de.htwg.scheduler;
+
+import de.htwg.telemetry.QueryTelemetry;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+
+import java.util.Map;
+
+/**
+ * Merges parallel LIKES relationships between the same user and itinerary, left behind by the
+ * former timestamp-keyed MERGE in like recording. Only the most recent like of each pair is kept
+ * and {@code i.likesCount} is lowered by the number of removed relationships.
+ *
+ * The first run happens right after startup and compacts the existing graph; later runs are cheap
+ * no-ops unless duplicates were written by an older instance during a rolling deploy.
+ * Pairs are compacted in batches of {@code recommendation.graph.likes-compaction.batch-size},
+ * each in its own transaction.
+ */
+@ApplicationScoped
+public class LikesCompactionJob {
+
+    private static final Logger LOG = Logger.getLogger(LikesCompactionJob.class);
+
+    private static final String COMPACT_QUERY = """
+            MATCH (u:User)-[r:LIKES]->(i:Itinerary)
+            WITH u, i, count(r) AS likes
+            WHERE likes > 1
+            WITH u, i
+            LIMIT $batchSize
+            MATCH (u)-[r:LIKES]->(i)
+            WITH u, i, r
+            ORDER BY r.timestamp DESC
+            WITH u, i, collect(r) AS rels
+            FOREACH (duplicate IN tail(rels) | DELETE duplicate)
+            WITH i, count(u) AS pairs, sum(size(rels) - 1) AS removed
+            SET i.likesCount = CASE WHEN coalesce(i.likesCount, 0) > removed THEN i.likesCount - removed ELSE 0 END
+            RETURN sum(pairs) AS pairs, sum(removed) AS removed
+            """;
+
+    @Inject
+    Driver neo4jDriver;
+
+    @Inject
+    QueryTelemetry queryTelemetry;
+
+    @ConfigProperty(name = "recommendation.graph.likes-compaction.batch-size", defaultValue = "1000")
+    int batchSize;
+
+    /**
+     * Outcome of one compaction run.
+     *
+     * @param batches transactions that removed duplicates
+     * @param pairs   user/itinerary pairs that had more than one LIKES relationship
+     * @param removed LIKES relationships deleted
+     */
+    public record Report(int batches, long pairs, long removed) {
+    }
+
+    @Scheduled(every = "{recommendation.graph.likes-compaction.interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void run() {
+        try {
+            Report report = compact();
+            if (report.removed() > 0) {
+                LOG.infof("Compacted LIKES relationships: removed %d duplicates of %d user/itinerary pairs in %d batches",
+                        report.removed(), report.pairs(), report.batches());
+            } else {
+                LOG.debug("No duplicate LIKES relationships found");
+            }
+        } catch (Exception e) {
+            LOG.error("Error compacting duplicate LIKES relationships", e);
+        }
+    }
+
+    public Report compact() {
+        int batches = 0;
+        long pairs = 0;
+        long removed = 0;
+
+        try (Session session = neo4jDriver.session()) {
+            while (true) {
+                Map<String, Object> params = Map.of("batchSize", batchSize);
+                Record batch = session.writeTransaction(tx -> {
+                    QueryTelemetry.QueryExecution execution = queryTelemetry.start("likes-compaction", COMPACT_QUERY, params);
+                    Result result = tx.run(execution.cypher(), params);
+                    Record record = result.single();
+                    queryTelemetry.record(execution, result.consume(), 1);
+                    return record;
+                });
+
+                long batchRemoved = batch.get("removed").asLong(0);
+                if (batchRemoved == 0) {
+                    break;
+                }
+                batches++;
+                pairs += batch.get("pairs").asLong(0);
+                removed += batchRemoved;
+            }
+        }
+
+        return new Report(batches, pairs, removed);
+    }
+}
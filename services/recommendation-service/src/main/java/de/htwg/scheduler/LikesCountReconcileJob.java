@@ -0,0 +1,61 @@
+package de.htwg.scheduler;
+
+import de.htwg.telemetry.QueryTelemetry;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+
+import java.util.Map;
+
+/**
+ * Periodically recounts the LIKES relationships of every itinerary and repairs {@code i.likesCount}
+ * where it has drifted from the graph. The first run happens right after startup, which also
+ * backfills the count on itineraries written before it was maintained.
+ *
+ * Drifted itineraries are write-locked before the recount, so a like committed concurrently
+ * is either included in the count or applied on top of the repaired value.
+ */
+@ApplicationScoped
+public class LikesCountReconcileJob {
+
+    private static final Logger LOG = Logger.getLogger(LikesCountReconcileJob.class);
+
+    @Inject
+    Driver neo4jDriver;
+
+    @Inject
+    QueryTelemetry queryTelemetry;
+
+    @Scheduled(every = "{recommendation.graph.likes-count.reconcile-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void reconcile() {
+        String cypher = """
+            MATCH (i:Itinerary)
+            WHERE i.likesCount IS NULL OR i.likesCount <> COUNT { (i)<-[:LIKES]-() }
+            SET i._lock = true
+            WITH i
+            SET i.likesCount = COUNT { (i)<-[:LIKES]-() }
+            REMOVE i._lock
+            RETURN count(i) AS repaired
+            """;
+
+        try (Session session = neo4jDriver.session()) {
+            long repaired = session.writeTransaction(tx -> {
+                QueryTelemetry.QueryExecution execution = queryTelemetry.start("likes-count-reconcile", cypher, Map.of());
+                Result result = tx.run(execution.cypher());
+                long count = result.single().get("repaired").asLong();
+                queryTelemetry.record(execution, result.consume(), 1);
+                return count;
+            });
+            if (repaired > 0) {
+                LOG.infof("Repaired likesCount of %d itineraries", repaired);
+            }
+        } catch (Exception e) {
+            LOG.error("Error reconciling itinerary likesCount with Neo4j", e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package de.htwg.scheduler;
+
+import de.htwg.graph.GraphMirror;
+import de.htwg.graph.LocationIndex;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+/**
+ * Periodically rebuilds the {@link LocationIndex} from the graph mirror, repairing any drift of the
+ * incrementally maintained posting lists and like counts. The first build happens when the mirror is loaded.
+ */
+@ApplicationScoped
+public class LocationIndexRebuildJob {
+
+    private static final Logger LOG = Logger.getLogger(LocationIndexRebuildJob.class);
+
+    @Inject
+    GraphMirror graphMirror;
+
+    @Inject
+    LocationIndex locationIndex;
+
+    @Scheduled(every = "{recommendation.location-index.rebuild-interval}", delayed = "{recommendation.location-index.rebuild-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void rebuild() {
+        if (!locationIndex.isEnabled() || !graphMirror.isReady()) {
+            return;
+        }
+        try {
+            locationIndex.rebuild(graphMirror);
+        } catch (Exception e) {
+            LOG.error("Error rebuilding location index", e);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package de.htwg.scheduler;
+
+import de.htwg.graph.Timestamps;
+import de.htwg.graph.TrendingIndex;
+import de.htwg.telemetry.QueryTelemetry;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Value;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodically rebuilds the {@link TrendingIndex} from the LIKES relationships in Neo4j.
+ * The first run happens right after startup and makes the index ready; later runs repair
+ * any drift between the incrementally maintained scores and the database.
+ */
+@ApplicationScoped
+public class TrendingReconcileJob {
+
+    private static final Logger LOG = Logger.getLogger(TrendingReconcileJob.class);
+
+    @Inject
+    Driver neo4jDriver;
+
+    @Inject
+    QueryTelemetry queryTelemetry;
+
+    @Inject
+    TrendingIndex trendingIndex;
+
+    @Scheduled(every = "{recommendation.trending.reconcile-interval}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void reconcile() {
+        if (!trendingIndex.isEnabled()) {
+            return;
+        }
+
+        String cypher = """
+            MATCH (i:Itinerary)<-[r:LIKES]-()
+            WHERE i.id IS NOT NULL
+            RETURN i.id AS itineraryId, collect(r.timestamp) AS timestamps
+            """;
+
+        try (Session session = neo4jDriver.session()) {
+            Map<Long, long[]> likeTimestamps = session.readTransaction(tx -> {
+                QueryTelemetry.QueryExecution execution = queryTelemetry.start("trending-reconcile", cypher, Map.of());
+                Result result = tx.run(execution.cypher());
+                Map<Long, long[]> items = new HashMap<>();
+
+                while (result.hasNext()) {
+                    Record record = result.next();
+                    List<Object> timestamps = record.get("timestamps").asList(Value::asObject);
+                    long[] millis = new long[timestamps.size()];
+                    for (int i = 0; i < millis.length; i++) {
+                        millis[i] = Timestamps.toEpochMillis(timestamps.get(i));
+                    }
+                    items.put(record.get("itineraryId").asLong(), millis);
+                }
+
+                queryTelemetry.record(execution, result.consume(), items.size());
+                return items;
+            });
+            trendingIndex.reconcile(likeTimestamps);
+        } catch (Exception e) {
+            LOG.error("Error reconciling trending index with Neo4j", e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package de.htwg.security;
+
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Optional;
+
+/**
+ * JAX-RS filter that intercepts requests to endpoints annotated with @ServiceAuthenticated
+ * and checks the shared service key sent by other backend services.
+ * Without a configured key every request is rejected, so service endpoints are closed by default.
+ * Like the user authentication, the check is skipped when Identity Platform authentication is disabled
+ * (local development).
+ */
+@Provider
+@ServiceAuthenticated
+@Priority(Priorities.AUTHENTICATION)
+public class ServiceKeyFilter implements ContainerRequestFilter {
+
+    private static final Logger LOG = Logger.getLogger(ServiceKeyFilter.class);
+
+    public static final String SERVICE_KEY_HEADER = "X-Service-Key";
+
+    @Inject
+    AuthenticationService authenticationService;
+
+    @ConfigProperty(name = "service-auth.key")
+    Optional<String> serviceKey;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        // Always allow OPTIONS requests (CORS preflight) without authentication
+        if ("OPTIONS".equalsIgnoreCase(requestContext.getMethod())) {
+            return;
+        }
+
+        // If authentication is disabled, allow all requests
+        if (!authenticationService.isAuthEnabled()) {
+            LOG.debug("Authentication is disabled, allowing service request");
+            return;
+        }
+
+        if (!matches(serviceKey, requestContext.getHeaderString(SERVICE_KEY_HEADER))) {
+            LOG.warn("Missing or invalid service key for " + requestContext.getUriInfo().getPath());
+            requestContext.abortWith(
+                    Response.status(Response.Status.UNAUTHORIZED)
+                            .entity("{\"error\": \"Missing or invalid service key\"}")
+                            .build()
+            );
+        }
+    }
+
+    /**
+     * Compares in constant time, so response times do not reveal how much of the key was right.
+     *
+     * @return false if no key is configured or the provided one differs
+     */
+    static boolean matches(Optional<String> expected, String provided) {
+        if (expected.isEmpty() || expected.get().isBlank() || provided == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected.get().getBytes(StandardCharsets.UTF_8),
+                provided.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,358 @@
+package de.htwg.service;
+
+import de.htwg.feed.Candidate;
+import de.htwg.feed.CandidateKind;
+import de.htwg.telemetry.QueryTelemetry;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.TransactionConfig;
+import org.neo4j.driver.async.AsyncSession;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Recommendation strategies evaluated as Cypher queries against Neo4j.
+ * Every strategy is available as a blocking variant (explicit read transaction) and as a
+ * non-blocking variant on the async session API; both share the same query and record mapping.
+ * Errors are logged and turned into an empty candidate list so a failing strategy never fails the feed.
+ *
+ * Personalized strategies do not probe the user's LIKES and CREATED relationships per row; they fetch
+ * {@code limit} plus the number of excluded itineraries and drop those with the user's
+ * {@link ExclusionCache} bitmap. The collaborative and location queries expand at most
+ * {@code recommendation.traversal.max-degree} relationships per node and flag their rows as {@code sampled}
+ * when a node exceeded it.
+ *
+ * The personalized strategies are feed candidate sources, so their transactions carry the feed's
+ * {@code recommendation.feed.candidate-timeout-ms} as a server-side timeout: a query the pipeline stopped
+ * waiting for is aborted by Neo4j and gives its pooled connection back, instead of running to completion.
+ */
+@ApplicationScoped
+public class CypherRecommender {
+
+    private static final Logger LOG = Logger.getLogger(CypherRecommender.class);
+
+    // AGGRESSIVE OPTIMIZATION: Limit to top 15 most similar users to reduce combinatorial explosion
+    // With 68 likes/user average, looking at all users creates too many paths.
+    // Both hops expand at most $maxDegree relationships per node, so viral itineraries and heavy likers
+    // cannot blow up the traversal; the degree checks are O(1) reads. The subqueries deliberately have no
+    // ORDER BY: sorting would read a node's whole neighbourhood first, while a bare LIMIT stops the lazy
+    // expansion after $maxDegree rows. The sample is whatever the store returns first, not the most recent likes.
+    static final String COLLABORATIVE_QUERY = """
+            MATCH (u:User {email: $userEmail})
+            WITH u, COUNT { (u)-[:LIKES]->(i:Itinerary) WHERE COUNT { (i)<-[:LIKES]-() } > $maxDegree } > 0 as likersSampled
+            MATCH (u)-[:LIKES]->(i:Itinerary)
+            CALL {
+                WITH u, i
+                MATCH (i)<-[:LIKES]-(other:User)
+                WHERE other <> u
+                RETURN other
+                LIMIT $maxDegree
+            }
+            WITH likersSampled, other, COUNT(DISTINCT i) as commonLikes
+            ORDER BY commonLikes DESC
+            LIMIT 15
+            WITH likersSampled, collect(other) as others
+            WITH others, likersSampled OR any(o IN others WHERE COUNT { (o)-[:LIKES]->() } > $maxDegree) as sampled
+            UNWIND others as other
+            CALL {
+                WITH other
+                MATCH (other)-[:LIKES]->(rec:Itinerary)
+                RETURN rec
+                LIMIT $maxDegree
+            }
+            WITH sampled, rec, COUNT(DISTINCT other) as commonUsers
+            WITH rec.id as itineraryId, commonUsers, coalesce(rec.likesCount, 0) as totalLikes, sampled
+            RETURN itineraryId,
+                   totalLikes,
+                   commonUsers,
+                   (commonUsers * 2.0 + totalLikes * 0.5) as relevanceScore,
+                   sampled
+            ORDER BY relevanceScore DESC
+            LIMIT $limit
+            """;
+
+    // OPTIMIZED: Direct relationship counting.
+    // Locations included by more than $maxDegree itineraries are expanded to the first $maxDegree liked ones
+    // the store returns; like the collaborative query, no ORDER BY, so a hub location is never read in full.
+    static final String LOCATION_QUERY = """
+            MATCH (u:User {email: $userEmail})
+            WITH u, COUNT { (u)-[:VISITED]->(l:Location) WHERE COUNT { (l)<-[:INCLUDES]-() } > $maxDegree } > 0 as sampled
+            MATCH (u)-[:VISITED]->(loc:Location)
+            CALL {
+                WITH loc
+                MATCH (loc)<-[:INCLUDES]-(i:Itinerary)
+                WHERE i.likesCount > 0
+                RETURN i
+                LIMIT $maxDegree
+            }
+            WITH sampled, i, COUNT(DISTINCT loc) as commonLocations
+            WITH i.id as itineraryId,
+                 commonLocations,
+                 i.likesCount as totalLikes,
+                 sampled
+            RETURN itineraryId,
+                   totalLikes,
+                   commonLocations,
+                   (commonLocations * 3.0 + totalLikes * 0.3) as relevanceScore,
+                   sampled
+            ORDER BY relevanceScore DESC
+            LIMIT $limit
+            """;
+
+    // Trending (popular minus the user's exclusions) and popular read the denormalized i.likesCount;
+    // the range index on it lets the planner walk itineraries in descending order and stop after $limit rows
+    static final String POPULAR_QUERY = """
+            MATCH (i:Itinerary)
+            WHERE i.likesCount > 0
+            RETURN i.id as itineraryId,
+                   i.likesCount as likesCount
+            ORDER BY i.likesCount DESC
+            LIMIT $limit
+            """;
+
+    // Range seek on the LIKES timestamp index; only likes inside the window are expanded
+    static final String WINDOWED_POPULAR_QUERY = """
+            MATCH ()-[r:LIKES]->(i:Itinerary)
+            WHERE r.timestamp >= $since
+            WITH i.id as itineraryId, COUNT(r) as likesCount
+            RETURN itineraryId,
+                   likesCount
+            ORDER BY likesCount DESC
+            LIMIT $limit
+            """;
+
+    @Inject
+    Driver neo4jDriver;
+
+    @Inject
+    QueryTelemetry queryTelemetry;
+
+    @Inject
+    ExclusionCache exclusionCache;
+
+    @ConfigProperty(name = "recommendation.traversal.max-degree", defaultValue = "1000")
+    int maxDegree;
+
+    @ConfigProperty(name = "recommendation.feed.candidate-timeout-ms", defaultValue = "1500")
+    long candidateTimeoutMs;
+
+    private TransactionConfig candidateTransaction;
+
+    @PostConstruct
+    void init() {
+        candidateTransaction = TransactionConfig.builder()
+                .withTimeout(Duration.ofMillis(candidateTimeoutMs))
+                .build();
+    }
+
+    public List<Candidate> getCollaborativeFilteringRecommendations(String userEmail, int limit) {
+        try {
+            return queryExcluding("collaborative", COLLABORATIVE_QUERY, userEmail, limit, CypherRecommender::toCollaborativeCandidate);
+        } catch (Exception e) {
+            LOG.errorf(e, "Error getting collaborative filtering recommendations for user %s", userEmail);
+            return new ArrayList<>();
+        }
+    }
+
+    public Uni<List<Candidate>> getCollaborativeFilteringRecommendationsAsync(String userEmail, int limit) {
+        return queryExcludingAsync("collaborative", COLLABORATIVE_QUERY, userEmail, limit, CypherRecommender::toCollaborativeCandidate)
+                .onFailure().recoverWithItem(e -> {
+                    LOG.errorf(e, "Error getting collaborative filtering recommendations for user %s", userEmail);
+                    return new ArrayList<>();
+                });
+    }
+
+    public List<Candidate> getLocationBasedRecommendations(String userEmail, int limit) {
+        try {
+            return queryExcluding("location", LOCATION_QUERY, userEmail, limit, CypherRecommender::toLocationCandidate);
+        } catch (Exception e) {
+            LOG.errorf(e, "Error getting location-based recommendations for user %s", userEmail);
+            return new ArrayList<>();
+        }
+    }
+
+    public Uni<List<Candidate>> getLocationBasedRecommendationsAsync(String userEmail, int limit) {
+        return queryExcludingAsync("location", LOCATION_QUERY, userEmail, limit, CypherRecommender::toLocationCandidate)
+                .onFailure().recoverWithItem(e -> {
+                    LOG.errorf(e, "Error getting location-based recommendations for user %s", userEmail);
+                    return new ArrayList<>();
+                });
+    }
+
+    public List<Candidate> getTrendingItineraries(String userEmail, int limit) {
+        try {
+            return queryExcluding("trending", POPULAR_QUERY, userEmail, limit, record -> toLikeCountCandidate(record, CandidateKind.TRENDING));
+        } catch (Exception e) {
+            LOG.errorf(e, "Error getting trending itineraries");
+            return new ArrayList<>();
+        }
+    }
+
+    public Uni<List<Candidate>> getTrendingItinerariesAsync(String userEmail, int limit) {
+        return queryExcludingAsync("trending", POPULAR_QUERY, userEmail, limit, record -> toLikeCountCandidate(record, CandidateKind.TRENDING))
+                .onFailure().recoverWithItem(e -> {
+                    LOG.errorf(e, "Error getting trending itineraries");
+                    return new ArrayList<>();
+                });
+    }
+
+    public List<Candidate> getPopularItineraries(int limit) {
+        try {
+            return query("popular", POPULAR_QUERY, Map.of("limit", limit), TransactionConfig.empty(), record -> toLikeCountCandidate(record, CandidateKind.POPULAR));
+        } catch (Exception e) {
+            LOG.errorf(e, "Error getting popular itineraries");
+            return new ArrayList<>();
+        }
+    }
+
+    public Uni<List<Candidate>> getPopularItinerariesAsync(int limit) {
+        return queryAsync("popular", POPULAR_QUERY, Map.of("limit", limit), TransactionConfig.empty(), record -> toLikeCountCandidate(record, CandidateKind.POPULAR))
+                .onFailure().recoverWithItem(e -> {
+                    LOG.errorf(e, "Error getting popular itineraries");
+                    return new ArrayList<>();
+                });
+    }
+
+    /**
+     * Most liked itineraries counting only likes given since {@code since}.
+     */
+    public List<Candidate> getPopularItinerariesSince(ZonedDateTime since, int limit) {
+        try {
+            return query("popular-windowed", WINDOWED_POPULAR_QUERY, windowParams(since, limit), TransactionConfig.empty(), record -> toLikeCountCandidate(record, CandidateKind.POPULAR));
+        } catch (Exception e) {
+            LOG.errorf(e, "Error getting popular itineraries since %s", since);
+            return new ArrayList<>();
+        }
+    }
+
+    public Uni<List<Candidate>> getPopularItinerariesSinceAsync(ZonedDateTime since, int limit) {
+        return queryAsync("popular-windowed", WINDOWED_POPULAR_QUERY, windowParams(since, limit), TransactionConfig.empty(), record -> toLikeCountCandidate(record, CandidateKind.POPULAR))
+                .onFailure().recoverWithItem(e -> {
+                    LOG.errorf(e, "Error getting popular itineraries since %s", since);
+                    return new ArrayList<>();
+                });
+    }
+
+    /**
+     * Runs a personalized query for {@code limit} rows plus the user's excluded itineraries,
+     * then drops the excluded ones.
+     */
+    private List<Candidate> queryExcluding(String name, String cypher, String userEmail, int limit,
+                                           Function<Record, Candidate> mapper) {
+        ExclusionCache.Exclusions exclusions = exclusionCache.get(userEmail);
+        List<Candidate> rows = query(name, cypher, userParams(userEmail, limit + exclusions.size()), candidateTransaction, mapper);
+        return withoutExcluded(rows, exclusions, limit);
+    }
+
+    private Uni<List<Candidate>> queryExcludingAsync(String name, String cypher, String userEmail, int limit,
+                                                     Function<Record, Candidate> mapper) {
+        return exclusionCache.getAsync(userEmail)
+                .chain(exclusions -> queryAsync(name, cypher, userParams(userEmail, limit + exclusions.size()), candidateTransaction, mapper)
+                        .map(rows -> withoutExcluded(rows, exclusions, limit)));
+    }
+
+    private static List<Candidate> withoutExcluded(List<Candidate> rows, ExclusionCache.Exclusions exclusions, int limit) {
+        List<Candidate> items = new ArrayList<>(Math.min(limit, rows.size()));
+        for (Candidate candidate : rows) {
+            if (items.size() == limit) {
+                break;
+            }
+            if (!exclusions.contains(candidate.itineraryId())) {
+                items.add(candidate);
+            }
+        }
+        return items;
+    }
+
+    private List<Candidate> query(String name, String cypher, Map<String, Object> params, TransactionConfig config,
+                                  Function<Record, Candidate> mapper) {
+        try (Session session = neo4jDriver.session()) {
+            return session.readTransaction(tx -> {
+                QueryTelemetry.QueryExecution execution = queryTelemetry.start(name, cypher, params);
+                Result result = tx.run(execution.cypher(), params);
+                List<Candidate> items = new ArrayList<>();
+
+                while (result.hasNext()) {
+                    items.add(mapper.apply(result.next()));
+                }
+
+                queryTelemetry.record(execution, result.consume(), items.size());
+                return items;
+            }, config);
+        }
+    }
+
+    /**
+     * Runs a read query on an {@link AsyncSession} without blocking the calling thread.
+     * The session is opened on subscription and closed when the query terminates.
+     */
+    private Uni<List<Candidate>> queryAsync(String name, String cypher, Map<String, Object> params,
+                                            TransactionConfig config, Function<Record, Candidate> mapper) {
+        return Uni.createFrom().deferred(() -> {
+            AsyncSession session = neo4jDriver.session(AsyncSession.class);
+            return Uni.createFrom()
+                    .completionStage(() -> session.executeReadAsync(tx -> {
+                        QueryTelemetry.QueryExecution execution = queryTelemetry.start(name, cypher, params);
+                        return tx.runAsync(execution.cypher(), params)
+                                .thenCompose(cursor -> cursor.listAsync(mapper::apply)
+                                        .thenCompose(items -> cursor.consumeAsync().thenApply(summary -> {
+                                            queryTelemetry.record(execution, summary, items.size());
+                                            return items;
+                                        })));
+                    }, config))
+                    .onTermination().call(() -> Uni.createFrom().completionStage(session.closeAsync()));
+        });
+    }
+
+    private Map<String, Object> userParams(String userEmail, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("userEmail", userEmail);
+        params.put("limit", limit);
+        params.put("maxDegree", maxDegree);
+        return params;
+    }
+
+    private static Map<String, Object> windowParams(ZonedDateTime since, int limit) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("since", since);
+        params.put("limit", limit);
+        return params;
+    }
+
+    private static Candidate toCollaborativeCandidate(Record record) {
+        return new Candidate(
+                record.get("itineraryId").asLong(),
+                record.get("totalLikes").asInt(0),
+                record.get("relevanceScore").asDouble(0.0),
+                CandidateKind.COLLABORATIVE,
+                record.get("sampled").asBoolean(false));
+    }
+
+    private static Candidate toLocationCandidate(Record record) {
+        return new Candidate(
+                record.get("itineraryId").asLong(),
+                record.get("totalLikes").asInt(0),
+                record.get("relevanceScore").asDouble(0.0),
+                CandidateKind.LOCATION,
+                record.get("sampled").asBoolean(false));
+    }
+
+    private static Candidate toLikeCountCandidate(Record record, CandidateKind kind) {
+        int likesCount = record.get("likesCount").asInt(0);
+        return new Candidate(record.get("itineraryId").asLong(), likesCount, likesCount, kind);
+    }
+}
@@ -0,0 +1,162 @@
+package de.htwg.service;
+
+import de.htwg.graph.ItineraryBitmap;
+import de.htwg.telemetry.QueryTelemetry;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.async.AsyncSession;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Bounded per-user cache of the itineraries a user has liked or created, as compressed bitmaps.
+ *
+ * The Cypher recommendation queries drop these itineraries from their rows with a bit test instead
+ * of probing the user's LIKES and CREATED relationships for every candidate. An entry is loaded with
+ * one query on first use, and {@link GraphService} applies every committed like, unlike and created
+ * itinerary to the cached entry. Writes handled by other replicas are not applied, so entries expire a
+ * fixed time after they were loaded ({@code expire-after-write}), however often they are read.
+ */
+@ApplicationScoped
+public class ExclusionCache {
+
+    private static final String EXCLUSIONS_QUERY = """
+            MATCH (u:User {email: $userEmail})-[r:LIKES|CREATED]->(i:Itinerary)
+            RETURN i.id as itineraryId, type(r) as relationship
+            """;
+
+    @Inject
+    @CacheName("user-exclusions")
+    Cache cache;
+
+    @Inject
+    Driver neo4jDriver;
+
+    @Inject
+    QueryTelemetry queryTelemetry;
+
+    /**
+     * Itineraries a user has liked or created. Liked and created ids are kept apart, so unliking
+     * one's own itinerary keeps it excluded.
+     */
+    public static final class Exclusions {
+
+        private final ItineraryBitmap liked = new ItineraryBitmap();
+        private final ItineraryBitmap created = new ItineraryBitmap();
+
+        public synchronized boolean contains(long itineraryId) {
+            return liked.contains(itineraryId) || created.contains(itineraryId);
+        }
+
+        /**
+         * Upper bound of the excluded itineraries, used to over-fetch rows before filtering.
+         */
+        public synchronized int size() {
+            return liked.cardinality() + created.cardinality();
+        }
+
+        synchronized void add(Record record) {
+            long itineraryId = record.get("itineraryId").asLong();
+            if ("CREATED".equals(record.get("relationship").asString())) {
+                created.add(itineraryId);
+            } else {
+                liked.add(itineraryId);
+            }
+        }
+
+        synchronized void addLiked(long itineraryId) {
+            liked.add(itineraryId);
+        }
+
+        synchronized void removeLiked(long itineraryId) {
+            liked.remove(itineraryId);
+        }
+
+        synchronized void addCreated(long itineraryId) {
+            created.add(itineraryId);
+        }
+    }
+
+    public Exclusions get(String userEmail) {
+        return cache.get(userEmail, this::load).await().indefinitely();
+    }
+
+    /**
+     * Non-blocking variant of {@link #get(String)}; misses are loaded on the async session API.
+     */
+    public Uni<Exclusions> getAsync(String userEmail) {
+        return cache.getAsync(userEmail, this::loadAsync);
+    }
+
+    public void onLiked(String userEmail, long itineraryId) {
+        update(userEmail, exclusions -> exclusions.addLiked(itineraryId));
+    }
+
+    public void onUnliked(String userEmail, long itineraryId) {
+        update(userEmail, exclusions -> exclusions.removeLiked(itineraryId));
+    }
+
+    public void onCreated(String userEmail, long itineraryId) {
+        update(userEmail, exclusions -> exclusions.addCreated(itineraryId));
+    }
+
+    /**
+     * Applies a committed write to the cached entry of a user, if any. An entry that is still loading
+     * gets the write once the load completes, so a write committed while the load query runs is not lost.
+     */
+    private void update(String userEmail, Consumer<Exclusions> write) {
+        CompletableFuture<Exclusions> cached = cache.as(CaffeineCache.class).getIfPresent(userEmail);
+        if (cached != null) {
+            cached.thenAccept(write);
+        }
+    }
+
+    private Exclusions load(String userEmail) {
+        Map<String, Object> params = Map.of("userEmail", userEmail);
+        try (Session session = neo4jDriver.session()) {
+            return session.readTransaction(tx -> {
+                QueryTelemetry.QueryExecution execution = queryTelemetry.start("exclusions", EXCLUSIONS_QUERY, params);
+                Result result = tx.run(execution.cypher(), params);
+                Exclusions exclusions = new Exclusions();
+                int rows = 0;
+
+                while (result.hasNext()) {
+                    exclusions.add(result.next());
+                    rows++;
+                }
+
+                queryTelemetry.record(execution, result.consume(), rows);
+                return exclusions;
+            });
+        }
+    }
+
+    private Uni<Exclusions> loadAsync(String userEmail) {
+        Map<String, Object> params = Map.of("userEmail", userEmail);
+        return Uni.createFrom().deferred(() -> {
+            AsyncSession session = neo4jDriver.session(AsyncSession.class);
+            return Uni.createFrom()
+                    .completionStage(() -> session.executeReadAsync(tx -> {
+                        QueryTelemetry.QueryExecution execution = queryTelemetry.start("exclusions", EXCLUSIONS_QUERY, params);
+                        Exclusions exclusions = new Exclusions();
+                        return tx.runAsync(execution.cypher(), params)
+                                .thenCompose(cursor -> cursor.forEachAsync(exclusions::add))
+                                .thenApply(summary -> {
+                                    queryTelemetry.record(execution, summary, exclusions.size());
+                                    return exclusions;
+                                });
+                    }))
+                    .onTermination().call(() -> Uni.createFrom().completionStage(session.closeAsync()));
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package de.htwg.service;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Short-lived server-side snapshots of ranked feeds, used for cursor pagination.
+ *
+ * The first page of a paginated feed stores the full ranked id list under a random snapshot id;
+ * the cursor handed to the client encodes that id and the offset of the next page. Later pages
+ * slice the same snapshot, so they stay stable even when the user's feed is re-ranked in between.
+ */
+@ApplicationScoped
+public class FeedSnapshotStore {
+
+    @Inject
+    @CacheName("feed-snapshot")
+    Cache cache;
+
+    private record Snapshot(String userEmail, List<Long> itineraryIds) {
+    }
+
+    /**
+     * Position in a stored snapshot.
+     */
+    public record Cursor(String snapshotId, int offset) {
+    }
+
+    public String create(String userEmail, List<Long> itineraryIds) {
+        String snapshotId = UUID.randomUUID().toString();
+        cache.as(CaffeineCache.class)
+                .put(snapshotId, CompletableFuture.completedFuture(new Snapshot(userEmail, List.copyOf(itineraryIds))));
+        return snapshotId;
+    }
+
+    /**
+     * Returns the ranked ids of a snapshot, or empty if it expired or belongs to another user.
+     */
+    public Optional<List<Long>> get(String snapshotId, String userEmail) {
+        CompletableFuture<Snapshot> cached = cache.as(CaffeineCache.class).getIfPresent(snapshotId);
+        if (cached == null || !cached.isDone() || cached.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        Snapshot snapshot = cached.join();
+        return snapshot.userEmail().equals(userEmail) ? Optional.of(snapshot.itineraryIds()) : Optional.empty();
+    }
+
+    public String encode(Cursor cursor) {
+        String raw = cursor.snapshotId() + ":" + cursor.offset();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor from {@link #encode(Cursor)}, or returns empty if it is malformed.
+     */
+    public Optional<Cursor> decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(':');
+            if (separator <= 0) {
+                return Optional.empty();
+            }
+            int offset = Integer.parseInt(raw.substring(separator + 1));
+            return offset < 0 ? Optional.empty() : Optional.of(new Cursor(raw.substring(0, separator), offset));
+        } catch (IllegalArgumentException e) {
+            // Also covers NumberFormatException
+            return Optional.empty();
+        }
+    }
+}
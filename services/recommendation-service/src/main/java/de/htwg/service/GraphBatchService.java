@@ -0,0 +1,350 @@
+package de.htwg.service;
+
+import de.htwg.dto.GraphBatchEventDTO;
+import de.htwg.dto.GraphBatchEventResultDTO;
+import de.htwg.dto.GraphBatchResponseDTO;
+import de.htwg.telemetry.QueryTelemetry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.summary.ResultSummary;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Applies batches of graph events with a few UNWIND-based write transactions per event type
+ * instead of one transaction per event.
+ *
+ * Events are grouped by type and written in chunks; each chunk is its own transaction, so a failing
+ * chunk only fails its own events. Like and unlike events of the same user and itinerary are
+ * coalesced first: only the last one is written, which leaves the graph in the same state as
+ * applying them one by one.
+ */
+@ApplicationScoped
+public class GraphBatchService {
+
+    private static final Logger LOG = Logger.getLogger(GraphBatchService.class);
+
+    public static final String LIKE = "LIKE";
+    public static final String UNLIKE = "UNLIKE";
+    public static final String ITINERARY = "ITINERARY";
+    public static final String VISIT = "VISIT";
+
+    public static final String APPLIED = "APPLIED";
+    public static final String REJECTED = "REJECTED";
+    public static final String FAILED = "FAILED";
+
+    private static final String LIKES_QUERY = """
+        UNWIND $rows AS row
+        MERGE (u:User {email: row.userEmail})
+        MERGE (i:Itinerary {id: row.itineraryId})
+        MERGE (u)-[r:LIKES]->(i)
+        ON CREATE SET r.timestamp = $timestamp, r.created = true, i.likesCount = coalesce(i.likesCount, 0) + 1
+        ON MATCH SET r.timestamp = $timestamp
+        WITH r, row, coalesce(r.created, false) AS created
+        REMOVE r.created
+        WITH row, created
+        WHERE created
+        RETURN row.position AS position
+        """;
+
+    private static final String UNLIKES_QUERY = """
+        UNWIND $rows AS row
+        MATCH (u:User {email: row.userEmail})-[r:LIKES]->(i:Itinerary {id: row.itineraryId})
+        DELETE r
+        WITH i, count(r) AS removed
+        SET i.likesCount = CASE WHEN coalesce(i.likesCount, 0) > removed THEN i.likesCount - removed ELSE 0 END
+        """;
+
+    private static final String ITINERARIES_QUERY = """
+        UNWIND $rows AS row
+        MERGE (u:User {email: row.userEmail})
+        MERGE (i:Itinerary {id: row.itineraryId})
+        ON CREATE SET i.title = row.title, i.description = row.description, i.createdAt = $timestamp, i.likesCount = 0
+        ON MATCH SET i.title = row.title, i.description = row.description
+        MERGE (u)-[:CREATED]->(i)
+        WITH i, row
+        UNWIND row.locations AS locationName
+        MERGE (l:Location {name: locationName})
+        MERGE (i)-[:INCLUDES]->(l)
+        """;
+
+    private static final String VISITS_QUERY = """
+        UNWIND $rows AS row
+        MERGE (u:User {email: row.userEmail})
+        WITH u, row
+        UNWIND row.locations AS locationName
+        MERGE (l:Location {name: locationName})
+        MERGE (u)-[v:VISITED]->(l)
+        ON CREATE SET v.timestamp = $timestamp
+        """;
+
+    @Inject
+    Driver neo4jDriver;
+
+    @Inject
+    QueryTelemetry queryTelemetry;
+
+    @Inject
+    GraphService graphService;
+
+    @Inject
+    RecommendationService recommendationService;
+
+    @ConfigProperty(name = "recommendation.graph.batch.chunk-size", defaultValue = "500")
+    int chunkSize;
+
+    @ConfigProperty(name = "recommendation.graph.batch.max-events", defaultValue = "5000")
+    int maxEvents;
+
+    /**
+     * A graph event of a given user, tagged with its position in the submitted batch.
+     */
+    public record PendingEvent(int index, String userEmail, GraphBatchEventDTO event) {
+    }
+
+    public int getMaxEvents() {
+        return maxEvents;
+    }
+
+    /**
+     * Applies the events of one user, as submitted to the batch endpoint.
+     */
+    public GraphBatchResponseDTO recordBatch(String userEmail, List<GraphBatchEventDTO> events) {
+        LOG.infof("Recording batch of %d graph events for user %s", events.size(), userEmail);
+
+        List<PendingEvent> pending = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            pending.add(new PendingEvent(i, userEmail, events.get(i)));
+        }
+        List<GraphBatchEventResultDTO> results = apply(pending);
+
+        int applied = 0, rejected = 0, failed = 0;
+        for (GraphBatchEventResultDTO result : results) {
+            switch (result.getStatus()) {
+                case APPLIED -> applied++;
+                case REJECTED -> rejected++;
+                default -> failed++;
+            }
+        }
+        LOG.infof("Batch for user %s: %d applied, %d rejected, %d failed", userEmail, applied, rejected, failed);
+
+        return GraphBatchResponseDTO.builder()
+                .applied(applied)
+                .rejected(rejected)
+                .failed(failed)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * The writes of one batch: positions of the events to write per type, in batch order.
+     * Like and unlike events are coalesced per user and itinerary, so only the last one is written;
+     * {@code superseded} maps each earlier one to the event that replaced it.
+     */
+    record Plan(List<Integer> itineraries, List<Integer> visits, List<Integer> likes, List<Integer> unlikes,
+                Map<Integer, Integer> superseded) {
+
+        /**
+         * @return the position of the like/unlike that was written in place of a superseded one
+         */
+        int writtenFor(int pos) {
+            // Follow the chain to the like/unlike that was actually written
+            int last = pos;
+            while (superseded.containsKey(last)) {
+                last = superseded.get(last);
+            }
+            return last;
+        }
+    }
+
+    /**
+     * Applies events of any number of users. The returned results are in the order of the given events.
+     */
+    public List<GraphBatchEventResultDTO> apply(List<PendingEvent> events) {
+        GraphBatchEventResultDTO[] results = new GraphBatchEventResultDTO[events.size()];
+        Plan plan = plan(events, results);
+
+        Set<String> touchedUsers = new LinkedHashSet<>();
+
+        writeChunks("itinerary", ITINERARIES_QUERY, plan.itineraries(), events, results, touchedUsers,
+                pending -> {
+                    GraphBatchEventDTO event = pending.event();
+                    Map<String, Object> row = new HashMap<>();
+                    row.put("userEmail", pending.userEmail());
+                    row.put("itineraryId", event.getItineraryId());
+                    row.put("title", event.getTitle());
+                    row.put("description", event.getDescription());
+                    row.put("locations", event.getLocationNames());
+                    return row;
+                },
+                (pending, created) -> graphService.onItineraryRecorded(pending.userEmail(),
+                        pending.event().getItineraryId(), pending.event().getLocationNames()));
+
+        writeChunks("visit", VISITS_QUERY, plan.visits(), events, results, touchedUsers,
+                pending -> Map.of(
+                        "userEmail", pending.userEmail(),
+                        "locations", pending.event().getLocationNames()),
+                (pending, created) -> graphService.onLocationVisitsRecorded(pending.userEmail(),
+                        pending.event().getLocationNames()));
+
+        writeChunks("like", LIKES_QUERY, plan.likes(), events, results, touchedUsers,
+                this::likeRow,
+                (pending, created) -> graphService.onLikeRecorded(pending.userEmail(),
+                        pending.event().getItineraryId(), System.currentTimeMillis(), created));
+
+        writeChunks("unlike", UNLIKES_QUERY, plan.unlikes(), events, results, touchedUsers,
+                this::likeRow,
+                (pending, created) -> graphService.onLikeRemoved(pending.userEmail(), pending.event().getItineraryId()));
+
+        for (int pos : plan.superseded().keySet()) {
+            int last = plan.writtenFor(pos);
+            results[pos].setStatus(results[last].getStatus());
+            results[pos].setError(results[last].getError());
+        }
+
+        touchedUsers.forEach(recommendationService::invalidatePersonalizedFeed);
+
+        return List.of(results);
+    }
+
+    /**
+     * Validates the events and groups the valid ones into the writes of a {@link Plan}.
+     * Fills {@code results} with one result per event; invalid events are marked as rejected.
+     */
+    static Plan plan(List<PendingEvent> events, GraphBatchEventResultDTO[] results) {
+        List<Integer> itineraries = new ArrayList<>();
+        List<Integer> visits = new ArrayList<>();
+        // Last like/unlike per (user, itinerary); earlier ones are superseded and share its outcome
+        Map<String, Integer> lastLikeAction = new LinkedHashMap<>();
+        Map<Integer, Integer> superseded = new HashMap<>();
+
+        for (int pos = 0; pos < events.size(); pos++) {
+            PendingEvent pending = events.get(pos);
+            GraphBatchEventDTO event = pending.event();
+            String type = event == null || event.getType() == null ? null : event.getType().toUpperCase(Locale.ROOT);
+            results[pos] = GraphBatchEventResultDTO.builder()
+                    .index(pending.index())
+                    .type(type)
+                    .itineraryId(event == null ? null : event.getItineraryId())
+                    .build();
+
+            String error = validate(type, event);
+            if (error != null) {
+                results[pos].setStatus(REJECTED);
+                results[pos].setError(error);
+                continue;
+            }
+
+            switch (type) {
+                case LIKE, UNLIKE -> {
+                    Integer previous = lastLikeAction.put(pending.userEmail() + '\u0000' + event.getItineraryId(), pos);
+                    if (previous != null) {
+                        superseded.put(previous, pos);
+                    }
+                }
+                case ITINERARY -> itineraries.add(pos);
+                default -> visits.add(pos);
+            }
+        }
+
+        List<Integer> likes = new ArrayList<>();
+        List<Integer> unlikes = new ArrayList<>();
+        for (int pos : lastLikeAction.values()) {
+            (LIKE.equalsIgnoreCase(events.get(pos).event().getType()) ? likes : unlikes).add(pos);
+        }
+        return new Plan(itineraries, visits, likes, unlikes, superseded);
+    }
+
+    private Map<String, Object> likeRow(PendingEvent pending) {
+        return Map.of(
+                "userEmail", pending.userEmail(),
+                "itineraryId", pending.event().getItineraryId());
+    }
+
+    private static String validate(String type, GraphBatchEventDTO event) {
+        if (type == null) {
+            return "Event type is required";
+        }
+        boolean hasLocations = event.getLocationNames() != null && !event.getLocationNames().isEmpty();
+        return switch (type) {
+            case LIKE, UNLIKE -> event.getItineraryId() == null ? "Itinerary ID is required" : null;
+            case ITINERARY -> event.getItineraryId() == null ? "Itinerary ID is required"
+                    : !hasLocations ? "At least one location is required" : null;
+            case VISIT -> !hasLocations ? "At least one location is required" : null;
+            default -> "Unknown event type: " + type;
+        };
+    }
+
+    /**
+     * Writes the given events in chunks of {@code chunkSize} rows, one transaction per chunk.
+     * Successful chunks update the in-memory structures; failed chunks mark their events as failed.
+     * Each row carries the {@code position} of its event; a query returns the positions of the rows whose
+     * write created a relationship, which {@code afterCommit} receives as its second argument.
+     */
+    private void writeChunks(String label,
+                             String cypher,
+                             List<Integer> positions,
+                             List<PendingEvent> events,
+                             GraphBatchEventResultDTO[] results,
+                             Set<String> touchedUsers,
+                             Function<PendingEvent, Map<String, Object>> toRow,
+                             BiConsumer<PendingEvent, Boolean> afterCommit) {
+        for (int from = 0; from < positions.size(); from += chunkSize) {
+            List<Integer> chunk = positions.subList(from, Math.min(from + chunkSize, positions.size()));
+            List<Map<String, Object>> rows = new ArrayList<>(chunk.size());
+            for (int pos : chunk) {
+                Map<String, Object> row = new HashMap<>(toRow.apply(events.get(pos)));
+                row.put("position", pos);
+                rows.add(row);
+            }
+
+            Set<Integer> created = new HashSet<>();
+            try (Session session = neo4jDriver.session()) {
+                session.writeTransaction(tx -> {
+                    created.clear(); // the transaction may be retried
+                    Map<String, Object> params = new HashMap<>();
+                    params.put("rows", rows);
+                    params.put("timestamp", ZonedDateTime.now(ZoneOffset.UTC));
+                    QueryTelemetry.QueryExecution execution = queryTelemetry.start("batch-" + label, cypher, params);
+                    Result result = tx.run(execution.cypher(), params);
+                    result.forEachRemaining(record -> created.add(record.get("position").asInt()));
+                    ResultSummary summary = result.consume();
+                    queryTelemetry.record(execution, summary, created.size());
+                    return summary;
+                });
+            } catch (Exception e) {
+                LOG.errorf(e, "Error writing chunk of %d %s events", chunk.size(), label);
+                for (int pos : chunk) {
+                    results[pos].setStatus(FAILED);
+                    results[pos].setError("Failed to write " + label + " event");
+                }
+                continue;
+            }
+
+            for (int pos : chunk) {
+                PendingEvent pending = events.get(pos);
+                afterCommit.accept(pending, created.contains(pos));
+                touchedUsers.add(pending.userEmail());
+                results[pos].setStatus(APPLIED);
+            }
+            LOG.debugf("Wrote chunk of %d %s events", chunk.size(), label);
+        }
+    }
+}
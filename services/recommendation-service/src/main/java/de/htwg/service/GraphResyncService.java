@@ -0,0 +1,464 @@
+package de.htwg.service;
+
+import de.htwg.client.ItineraryServiceClient;
+import de.htwg.dto.ItineraryExportDTO;
+import de.htwg.telemetry.QueryTelemetry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.summary.ResultSummary;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bulk bootstrap and resync of the itinerary part of the graph (itineraries, their creators and locations)
+ * from the paged export of the itinerary service.
+ *
+ * Pages of {@code recommendation.graph.resync.page-size} itineraries are fetched by id cursor, the next page
+ * while the current one is written. Every page is written with UNWIND transactions running in parallel on
+ * {@code recommendation.graph.resync.partitions} partitions that never touch the same node, so they neither
+ * wait for each other's locks nor race on a MERGE of the same key:
+ * <ol>
+ *     <li>nodes: users, locations and itineraries, each partitioned by a hash of its key,</li>
+ *     <li>CREATED and INCLUDES relationships, bucketed by both of their end nodes and written in rounds
+ *     (the "mix and batch" scheme): round {@code r} writes the cells {@code (p, (p + r) mod partitions)},
+ *     which share neither a start nor an end bucket.</li>
+ * </ol>
+ *
+ * After every page, the id cursor is stored in a {@code (:ResyncCheckpoint)} node, so an interrupted run
+ * resumes where it stopped instead of starting over. A completed run resets the checkpoint.
+ * Writes are idempotent MERGEs; likes and visits are not part of the export and stay untouched.
+ */
+@ApplicationScoped
+public class GraphResyncService {
+
+    private static final Logger LOG = Logger.getLogger(GraphResyncService.class);
+
+    private static final String CHECKPOINT = "itineraries";
+
+    private static final String USERS_QUERY = """
+        UNWIND $rows AS email
+        MERGE (:User {email: email})
+        """;
+
+    private static final String LOCATIONS_QUERY = """
+        UNWIND $rows AS name
+        MERGE (:Location {name: name})
+        """;
+
+    private static final String ITINERARIES_QUERY = """
+        UNWIND $rows AS row
+        MERGE (i:Itinerary {id: row.itineraryId})
+        ON CREATE SET i.title = row.title, i.description = row.description, i.createdAt = $timestamp, i.likesCount = 0
+        ON MATCH SET i.title = row.title, i.description = row.description
+        """;
+
+    private static final String CREATED_QUERY = """
+        UNWIND $rows AS row
+        MATCH (u:User {email: row.userEmail})
+        MATCH (i:Itinerary {id: row.itineraryId})
+        MERGE (u)-[:CREATED]->(i)
+        """;
+
+    private static final String INCLUDES_QUERY = """
+        UNWIND $rows AS row
+        MATCH (i:Itinerary {id: row.itineraryId})
+        MATCH (l:Location {name: row.location})
+        MERGE (i)-[:INCLUDES]->(l)
+        """;
+
+    private static final String READ_CHECKPOINT_QUERY = """
+        MATCH (c:ResyncCheckpoint {name: $name})
+        RETURN c.afterId AS afterId, c.itineraries AS itineraries
+        """;
+
+    private static final String SAVE_CHECKPOINT_QUERY = """
+        MERGE (c:ResyncCheckpoint {name: $name})
+        SET c.afterId = $afterId, c.itineraries = $itineraries, c.updatedAt = $timestamp
+        """;
+
+    private static final String COMPLETE_CHECKPOINT_QUERY = """
+        MERGE (c:ResyncCheckpoint {name: $name})
+        SET c.afterId = 0, c.itineraries = 0, c.updatedAt = $timestamp,
+            c.completedAt = $timestamp, c.lastRunItineraries = $itineraries
+        """;
+
+    @Inject
+    Driver neo4jDriver;
+
+    @Inject
+    QueryTelemetry queryTelemetry;
+
+    @Inject
+    GraphService graphService;
+
+    @Inject
+    @RestClient
+    ItineraryServiceClient itineraryServiceClient;
+
+    @ConfigProperty(name = "recommendation.graph.resync.page-size", defaultValue = "2000")
+    int pageSize;
+
+    @ConfigProperty(name = "recommendation.graph.resync.partitions", defaultValue = "4")
+    int partitions;
+
+    // Sent to the service-only itinerary export; the same key guards POST /graph/resync
+    @ConfigProperty(name = "service-auth.key")
+    Optional<String> serviceKey;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private ExecutorService writers;
+
+    /**
+     * Outcome of one resync run.
+     *
+     * @param resumed     whether the run continued from the checkpoint of an interrupted run
+     * @param fromId      itinerary id the run started after
+     * @param pages       export pages written
+     * @param itineraries itineraries written in this run
+     * @param millis      duration of the run
+     */
+    public record Report(boolean resumed, long fromId, int pages, long itineraries, long millis) {
+    }
+
+    private record Partitioned(String label, String cypher, List<Object> rows) {
+    }
+
+    /**
+     * One export page split into partitions: node keys per bucket, and relationship rows per cell
+     * {@code startBucket * partitions + endBucket} of a {@code partitions x partitions} grid.
+     */
+    record PagePlan(List<Set<String>> users, List<Set<String>> locations, List<List<Object>> itineraries,
+                    List<List<Object>> created, List<List<Object>> includes) {
+    }
+
+    @PostConstruct
+    void init() {
+        if (!isConfigured()) {
+            LOG.warn("No service-auth.key configured, graph resyncs are disabled: the itinerary export requires it");
+        }
+        // One thread per partition plus one prefetching the next page
+        AtomicInteger threadNumber = new AtomicInteger();
+        writers = Executors.newFixedThreadPool(partitions + 1, runnable -> {
+            Thread thread = new Thread(runnable, "graph-resync-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        writers.shutdownNow();
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * @return whether a service key for the itinerary export is configured; without one every resync fails
+     */
+    public boolean isConfigured() {
+        return serviceKey.filter(key -> !key.isBlank()).isPresent();
+    }
+
+    /**
+     * Starts a resync in the background.
+     *
+     * @param restart ignore the checkpoint of an interrupted run and start from the first itinerary
+     * @return false if a resync is already running
+     */
+    public boolean start(boolean restart) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        // The run itself mostly waits for the writers, so it gets a thread of its own outside their pool
+        Thread.ofPlatform().daemon().name("graph-resync").start(() -> {
+            try {
+                run(restart);
+            } catch (Exception e) {
+                LOG.error("Graph resync failed, the next run resumes from the last checkpoint", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Runs a resync in the calling thread.
+     *
+     * @return the report, or null if a resync is already running
+     */
+    public Report resync(boolean restart) {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            return run(restart);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Report run(boolean restart) {
+        if (!isConfigured()) {
+            throw new IllegalStateException("No service-auth.key configured for the itinerary export");
+        }
+        String key = serviceKey.get();
+        long start = System.currentTimeMillis();
+
+        long[] checkpoint = restart ? new long[]{0, 0} : readCheckpoint();
+        long fromId = checkpoint[0];
+        long afterId = fromId;
+        long itineraries = checkpoint[1];
+        long written = 0;
+        int pages = 0;
+        if (fromId > 0) {
+            LOG.infof("Resuming graph resync after itinerary %d (%d itineraries already written)", fromId, itineraries);
+        } else {
+            LOG.info("Starting graph resync from the itinerary service");
+        }
+
+        CompletableFuture<List<ItineraryExportDTO>> next = fetch(key, afterId);
+        while (true) {
+            List<ItineraryExportDTO> page = await(next);
+            if (page.isEmpty()) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+            boolean last = page.size() < pageSize;
+            if (!last) {
+                next = fetch(key, afterId);
+            }
+
+            List<ItineraryExportDTO> rows = page.stream()
+                    .filter(row -> row.getId() != null && row.getUserEmail() != null)
+                    .toList();
+            writePage(rows);
+            for (ItineraryExportDTO row : rows) {
+                graphService.onItineraryResynced(row.getUserEmail(), row.getId(), locations(row));
+            }
+
+            pages++;
+            written += rows.size();
+            itineraries += rows.size();
+            saveCheckpoint(afterId, itineraries);
+            LOG.debugf("Graph resync page %d: %d itineraries up to id %d", pages, rows.size(), afterId);
+            if (last) {
+                break;
+            }
+        }
+
+        completeCheckpoint(itineraries);
+        Report report = new Report(fromId > 0, fromId, pages, written, System.currentTimeMillis() - start);
+        LOG.infof("Graph resync finished: %d itineraries in %d pages in %d ms", written, pages, report.millis());
+        return report;
+    }
+
+    private CompletableFuture<List<ItineraryExportDTO>> fetch(String key, long afterId) {
+        return CompletableFuture.supplyAsync(
+                () -> itineraryServiceClient.exportItineraries(key, afterId, pageSize), writers);
+    }
+
+    /**
+     * Writes one export page: all nodes in one parallel round, then the relationships in
+     * {@code partitions} rounds per relationship type.
+     */
+    private void writePage(List<ItineraryExportDTO> rows) {
+        PagePlan plan = plan(rows, partitions);
+
+        List<Partitioned> nodes = new ArrayList<>(3 * partitions);
+        for (int p = 0; p < partitions; p++) {
+            nodes.add(new Partitioned("resync-users", USERS_QUERY, new ArrayList<>(plan.users().get(p))));
+            nodes.add(new Partitioned("resync-locations", LOCATIONS_QUERY, new ArrayList<>(plan.locations().get(p))));
+            nodes.add(new Partitioned("resync-itineraries", ITINERARIES_QUERY, plan.itineraries().get(p)));
+        }
+        writeParallel(nodes);
+
+        writeRounds("resync-created", CREATED_QUERY, plan.created());
+        writeRounds("resync-includes", INCLUDES_QUERY, plan.includes());
+    }
+
+    /**
+     * Splits an export page into partitions. Users, locations and itineraries go to the bucket of their key's
+     * hash; a CREATED or INCLUDES row goes to the cell of the buckets of its two end nodes.
+     */
+    static PagePlan plan(List<ItineraryExportDTO> rows, int partitions) {
+        List<Set<String>> users = buckets(LinkedHashSet::new, partitions);
+        List<Set<String>> locations = buckets(LinkedHashSet::new, partitions);
+        List<List<Object>> itineraries = buckets(ArrayList::new, partitions);
+        List<List<Object>> created = buckets(ArrayList::new, partitions * partitions);
+        List<List<Object>> includes = buckets(ArrayList::new, partitions * partitions);
+
+        for (ItineraryExportDTO row : rows) {
+            int itinerary = bucket(Long.hashCode(row.getId()), partitions);
+            int user = bucket(row.getUserEmail().hashCode(), partitions);
+            users.get(user).add(row.getUserEmail());
+
+            Map<String, Object> node = new HashMap<>();
+            node.put("itineraryId", row.getId());
+            node.put("title", row.getTitle());
+            node.put("description", row.getShortDescription());
+            itineraries.get(itinerary).add(node);
+            created.get(cell(user, itinerary, partitions)).add(Map.of("userEmail", row.getUserEmail(), "itineraryId", row.getId()));
+
+            for (String name : locations(row)) {
+                int location = bucket(name.hashCode(), partitions);
+                locations.get(location).add(name);
+                includes.get(cell(location, itinerary, partitions)).add(Map.of("itineraryId", row.getId(), "location", name));
+            }
+        }
+        return new PagePlan(users, locations, itineraries, created, includes);
+    }
+
+    /**
+     * The cells of a {@code partitions x partitions} grid, grouped into {@code partitions} rounds. Round {@code r}
+     * holds the cells {@code (p, (p + r) mod partitions)}: every start bucket and every end bucket appears once.
+     */
+    static int[][] rounds(int partitions) {
+        int[][] rounds = new int[partitions][partitions];
+        for (int round = 0; round < partitions; round++) {
+            for (int p = 0; p < partitions; p++) {
+                rounds[round][p] = cell(p, (p + round) % partitions, partitions);
+            }
+        }
+        return rounds;
+    }
+
+    /**
+     * Writes the cells of a relationship grid round by round, the cells of one round in parallel.
+     */
+    private void writeRounds(String label, String cypher, List<List<Object>> cells) {
+        for (int[] round : rounds(partitions)) {
+            List<Partitioned> batches = new ArrayList<>(partitions);
+            for (int cell : round) {
+                batches.add(new Partitioned(label, cypher, cells.get(cell)));
+            }
+            writeParallel(batches);
+        }
+    }
+
+    /**
+     * Runs every non-empty batch in its own write transaction, all of them at the same time,
+     * and fails if any of them failed.
+     */
+    private void writeParallel(List<Partitioned> batches) {
+        ZonedDateTime timestamp = ZonedDateTime.now(ZoneOffset.UTC);
+        List<CompletableFuture<?>> writes = new ArrayList<>(batches.size());
+        for (Partitioned batch : batches) {
+            if (batch.rows().isEmpty()) {
+                continue;
+            }
+            writes.add(CompletableFuture.runAsync(() -> {
+                try (Session session = neo4jDriver.session()) {
+                    session.writeTransaction(tx -> {
+                        Map<String, Object> params = new HashMap<>();
+                        params.put("rows", batch.rows());
+                        params.put("timestamp", timestamp);
+                        QueryTelemetry.QueryExecution execution = queryTelemetry.start(batch.label(), batch.cypher(), params);
+                        ResultSummary summary = tx.run(execution.cypher(), params).consume();
+                        queryTelemetry.record(execution, summary, 0);
+                        return summary;
+                    });
+                }
+            }, writers));
+        }
+        await(CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)));
+    }
+
+    private long[] readCheckpoint() {
+        try (Session session = neo4jDriver.session()) {
+            return session.readTransaction(tx -> {
+                Map<String, Object> params = Map.of("name", CHECKPOINT);
+                QueryTelemetry.QueryExecution execution = queryTelemetry.start("resync-checkpoint-read", READ_CHECKPOINT_QUERY, params);
+                Result result = tx.run(execution.cypher(), params);
+                List<Record> records = result.list();
+                queryTelemetry.record(execution, result.consume(), records.size());
+                if (records.isEmpty()) {
+                    return new long[]{0, 0};
+                }
+                return new long[]{records.get(0).get("afterId").asLong(0), records.get(0).get("itineraries").asLong(0)};
+            });
+        }
+    }
+
+    private void saveCheckpoint(long afterId, long itineraries) {
+        writeCheckpoint("resync-checkpoint-save", SAVE_CHECKPOINT_QUERY, afterId, itineraries);
+    }
+
+    private void completeCheckpoint(long itineraries) {
+        writeCheckpoint("resync-checkpoint-complete", COMPLETE_CHECKPOINT_QUERY, 0, itineraries);
+    }
+
+    private void writeCheckpoint(String label, String cypher, long afterId, long itineraries) {
+        try (Session session = neo4jDriver.session()) {
+            session.writeTransaction(tx -> {
+                Map<String, Object> params = new HashMap<>();
+                params.put("name", CHECKPOINT);
+                params.put("afterId", afterId);
+                params.put("itineraries", itineraries);
+                params.put("timestamp", ZonedDateTime.now(ZoneOffset.UTC));
+                QueryTelemetry.QueryExecution execution = queryTelemetry.start(label, cypher, params);
+                ResultSummary summary = tx.run(execution.cypher(), params).consume();
+                queryTelemetry.record(execution, summary, 0);
+                return summary;
+            });
+        }
+    }
+
+    private static List<String> locations(ItineraryExportDTO row) {
+        if (row.getLocationNames() == null) {
+            return List.of();
+        }
+        return row.getLocationNames().stream().filter(name -> name != null && !name.isBlank()).distinct().toList();
+    }
+
+    private static int bucket(int hash, int partitions) {
+        return Math.floorMod(hash, partitions);
+    }
+
+    private static int cell(int startBucket, int endBucket, int partitions) {
+        return startBucket * partitions + endBucket;
+    }
+
+    private static <T> List<T> buckets(Supplier<T> factory, int count) {
+        List<T> buckets = new ArrayList<>(count);
+        for (int b = 0; b < count; b++) {
+            buckets.add(factory.get());
+        }
+        return buckets;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+}
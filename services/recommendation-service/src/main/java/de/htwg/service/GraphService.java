@@ -3,13 +3,25 @@ package de.htwg.service;
 import de.htwg.dto.ItineraryEventDTO;
 import de.htwg.dto.LikeActionDTO;
 import de.htwg.dto.LocationVisitDTO;
+import de.htwg.feed.FeedInbox;
+import de.htwg.graph.GraphMirror;
+import de.htwg.graph.ItemSimilarityIndex;
+import de.htwg.graph.LocationIndex;
+import de.htwg.graph.TrendingIndex;
+import de.htwg.telemetry.QueryTelemetry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.jboss.logging.Logger;
 import org.neo4j.driver.Driver;
+import org.neo4j.driver.Result;
 import org.neo4j.driver.Session;
+import org.neo4j.driver.summary.ResultSummary;
 
-import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -21,24 +33,64 @@ public class GraphService {
     @Inject
     Driver neo4jDriver;
 
+    @Inject
+    QueryTelemetry queryTelemetry;
+
+    @Inject
+    GraphMirror graphMirror;
+
+    @Inject
+    ItemSimilarityIndex itemSimilarityIndex;
+
+    @Inject
+    TrendingIndex trendingIndex;
+
+    @Inject
+    RecommendationService recommendationService;
+
+    @Inject
+    ItineraryDetailsCache itineraryDetailsCache;
+
+    @Inject
+    ExclusionCache exclusionCache;
+
+    @Inject
+    LocationIndex locationIndex;
+
+    @Inject
+    FeedInbox feedInbox;
+
+    @Inject
+    PopularFeedSnapshot popularFeedSnapshot;
+
     public void recordLike(String userEmail, LikeActionDTO likeAction) {
         LOG.infof("Recording like: User %s likes Itinerary %d", userEmail, likeAction.getItineraryId());
 
         String cypher = """
             MERGE (u:User {email: $userEmail})
             MERGE (i:Itinerary {id: $itineraryId})
-            MERGE (u)-[r:LIKES {timestamp: $timestamp}]->(i)
-            RETURN r
+            MERGE (u)-[r:LIKES]->(i)
+            ON CREATE SET r.timestamp = $timestamp, r.created = true, i.likesCount = coalesce(i.likesCount, 0) + 1
+            ON MATCH SET r.timestamp = $timestamp
+            WITH r, coalesce(r.created, false) AS created
+            REMOVE r.created
+            RETURN created
             """;
 
         try (Session session = neo4jDriver.session()) {
-            session.writeTransaction(tx -> {
+            boolean created = session.writeTransaction(tx -> {
                 Map<String, Object> params = new HashMap<>();
                 params.put("userEmail", userEmail);
                 params.put("itineraryId", likeAction.getItineraryId());
-                params.put("timestamp", LocalDateTime.now().toString());
-                return tx.run(cypher, params).consume();
+                params.put("timestamp", ZonedDateTime.now(ZoneOffset.UTC));
+                QueryTelemetry.QueryExecution execution = queryTelemetry.start("like", cypher, params);
+                Result result = tx.run(execution.cypher(), params);
+                boolean isNew = result.single().get("created").asBoolean();
+                queryTelemetry.record(execution, result.consume(), 1);
+                return isNew;
             });
+            onLikeRecorded(userEmail, likeAction.getItineraryId(), System.currentTimeMillis(), created);
+            recommendationService.invalidatePersonalizedFeed(userEmail);
             LOG.infof("Successfully recorded like from user %s", userEmail);
         } catch (Exception e) {
             LOG.errorf(e, "Error recording like for user %s", userEmail);
@@ -52,6 +104,8 @@ public class GraphService {
         String cypher = """
             MATCH (u:User {email: $userEmail})-[r:LIKES]->(i:Itinerary {id: $itineraryId})
             DELETE r
+            WITH i, count(r) AS removed
+            SET i.likesCount = CASE WHEN coalesce(i.likesCount, 0) > removed THEN i.likesCount - removed ELSE 0 END
             """;
 
         try (Session session = neo4jDriver.session()) {
@@ -59,8 +113,13 @@ public class GraphService {
                 Map<String, Object> params = new HashMap<>();
                 params.put("userEmail", userEmail);
                 params.put("itineraryId", likeAction.getItineraryId());
-                return tx.run(cypher, params).consume();
+                QueryTelemetry.QueryExecution execution = queryTelemetry.start("unlike", cypher, params);
+                ResultSummary summary = tx.run(execution.cypher(), params).consume();
+                queryTelemetry.record(execution, summary, 0);
+                return summary;
             });
+            onLikeRemoved(userEmail, likeAction.getItineraryId());
+            recommendationService.invalidatePersonalizedFeed(userEmail);
             LOG.infof("Successfully removed like from user %s", userEmail);
         } catch (Exception e) {
             LOG.errorf(e, "Error removing like for user %s", userEmail);
@@ -74,8 +133,8 @@ public class GraphService {
         String cypher = """
             MERGE (u:User {email: $userEmail})
             MERGE (i:Itinerary {id: $itineraryId})
-            ON CREATE SET i.title = $title, i.description = $description, i.createdAt = $timestamp
-            ON MATCH SET i.title = $title, i.description = $description, i.likesCount = $likesCount
+            ON CREATE SET i.title = $title, i.description = $description, i.createdAt = $timestamp, i.likesCount = 0
+            ON MATCH SET i.title = $title, i.description = $description
             MERGE (u)-[:CREATED]->(i)
             WITH i
             UNWIND $locations AS locationName
@@ -91,10 +150,14 @@ public class GraphService {
                 params.put("title", itineraryEvent.getTitle());
                 params.put("description", itineraryEvent.getDescription());
                 params.put("locations", itineraryEvent.getLocationNames());
-                params.put("likesCount", itineraryEvent.getLikesCount() != null ? itineraryEvent.getLikesCount() : 0);
-                params.put("timestamp", LocalDateTime.now().toString());
-                return tx.run(cypher, params).consume();
+                params.put("timestamp", ZonedDateTime.now(ZoneOffset.UTC));
+                QueryTelemetry.QueryExecution execution = queryTelemetry.start("itinerary", cypher, params);
+                ResultSummary summary = tx.run(execution.cypher(), params).consume();
+                queryTelemetry.record(execution, summary, 0);
+                return summary;
             });
+            onItineraryRecorded(userEmail, itineraryEvent.getItineraryId(), itineraryEvent.getLocationNames());
+            recommendationService.invalidatePersonalizedFeed(userEmail);
             LOG.infof("Successfully recorded itinerary %d", itineraryEvent.getItineraryId());
         } catch (Exception e) {
             LOG.errorf(e, "Error recording itinerary %d", itineraryEvent.getItineraryId());
@@ -119,13 +182,85 @@ public class GraphService {
                 Map<String, Object> params = new HashMap<>();
                 params.put("userEmail", userEmail);
                 params.put("locations", locationVisit.getLocationNames());
-                params.put("timestamp", LocalDateTime.now().toString());
-                return tx.run(cypher, params).consume();
+                params.put("timestamp", ZonedDateTime.now(ZoneOffset.UTC));
+                QueryTelemetry.QueryExecution execution = queryTelemetry.start("visits", cypher, params);
+                ResultSummary summary = tx.run(execution.cypher(), params).consume();
+                queryTelemetry.record(execution, summary, 0);
+                return summary;
             });
+            onLocationVisitsRecorded(userEmail, locationVisit.getLocationNames());
+            recommendationService.invalidatePersonalizedFeed(userEmail);
             LOG.infof("Successfully recorded location visits for user %s", userEmail);
         } catch (Exception e) {
             LOG.errorf(e, "Error recording location visits for user %s", userEmail);
             throw new RuntimeException("Failed to record location visits", e);
         }
     }
+
+    // Post-commit updates of the in-memory structures, shared with GraphBatchService.
+    // Callers invalidate the personalized feeds of the writing users themselves.
+
+    /**
+     * @param created whether the write created the like; Neo4j decides this, not the mirror, which may
+     *                not know likes written by other replicas or before its last load
+     */
+    void onLikeRecorded(String userEmail, long itineraryId, long likedAt, boolean created) {
+        long previousLikedAt = graphMirror.addLike(userEmail, itineraryId, likedAt);
+        if (created) {
+            locationIndex.recordLike(itineraryId);
+            trendingIndex.recordLike(itineraryId, likedAt);
+        } else if (previousLikedAt >= 0) {
+            // Repeated like: only its timestamp moved
+            trendingIndex.removeLike(itineraryId, previousLikedAt);
+            trendingIndex.recordLike(itineraryId, likedAt);
+        }
+        // A repeated like the mirror did not know is already counted; reconciliation moves its timestamp
+        itemSimilarityIndex.markDirty(userEmail, itineraryId);
+        exclusionCache.onLiked(userEmail, itineraryId);
+        popularFeedSnapshot.onLikeChanged();
+    }
+
+    void onLikeRemoved(String userEmail, long itineraryId) {
+        long likedAt = graphMirror.removeLike(userEmail, itineraryId);
+        // -1: the mirror did not know the like, so there is none to take back from the derived indexes
+        if (likedAt >= 0) {
+            trendingIndex.removeLike(itineraryId, likedAt);
+            locationIndex.removeLike(itineraryId);
+        }
+        itemSimilarityIndex.markDirty(userEmail, itineraryId);
+        exclusionCache.onUnliked(userEmail, itineraryId);
+        popularFeedSnapshot.onLikeChanged();
+    }
+
+    void onItineraryRecorded(String userEmail, long itineraryId, Collection<String> locations) {
+        graphMirror.addItinerary(userEmail, itineraryId, locations);
+        locationIndex.addItinerary(itineraryId, locations);
+        itineraryDetailsCache.invalidate(itineraryId);
+        exclusionCache.onCreated(userEmail, itineraryId);
+        if (feedInbox.isEnabled()) {
+            // Recipients of the new itinerary see it with their next feed, not after the cache TTL. Up to
+            // max-recipients inbox writes and feed invalidations, so they run off the request thread
+            Uni.createFrom().item(() -> feedInbox.deliver(userEmail, itineraryId, locations))
+                    .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
+                    .subscribe().with(
+                            recipients -> recipients.forEach(recommendationService::invalidatePersonalizedFeed),
+                            failure -> LOG.errorf(failure, "Error delivering itinerary %d to feed inboxes", itineraryId));
+        }
+    }
+
+    /**
+     * Like {@link #onItineraryRecorded}, for itineraries written by the bulk resync: they are not new,
+     * so they are not delivered to feed inboxes.
+     */
+    void onItineraryResynced(String userEmail, long itineraryId, Collection<String> locations) {
+        graphMirror.addItinerary(userEmail, itineraryId, locations);
+        locationIndex.addItinerary(itineraryId, locations);
+        itineraryDetailsCache.invalidate(itineraryId);
+        exclusionCache.onCreated(userEmail, itineraryId);
+    }
+
+    void onLocationVisitsRecorded(String userEmail, Collection<String> locations) {
+        graphMirror.addVisits(userEmail, locations);
+        locationIndex.addVisits(userEmail, locations);
+    }
 }
@@ -0,0 +1,180 @@
+package de.htwg.service;
+
+import de.htwg.dto.GraphBatchEventDTO;
+import de.htwg.dto.GraphBatchEventResultDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional write-behind mode for graph writes.
+ *
+ * When enabled, the single-event {@code /graph/*} endpoints enqueue their event into a bounded queue and
+ * return immediately. One drainer thread takes everything that piled up while the previous commit ran and
+ * applies it through {@link GraphBatchService}, so a burst of likes on the same itinerary becomes a few
+ * group transactions instead of one transaction per like contending on the itinerary node. Duplicate likes
+ * are merged and like/unlike pairs of the same user collapse to the last action there.
+ *
+ * A full queue rejects new events (the endpoints answer 503); the queue is flushed on shutdown.
+ */
+@ApplicationScoped
+public class GraphWriteQueue {
+
+    private static final Logger LOG = Logger.getLogger(GraphWriteQueue.class);
+
+    @Inject
+    GraphBatchService graphBatchService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "recommendation.graph.write-behind.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "recommendation.graph.write-behind.capacity", defaultValue = "10000")
+    int capacity;
+
+    @ConfigProperty(name = "recommendation.graph.write-behind.max-batch", defaultValue = "1000")
+    int maxBatch;
+
+    @ConfigProperty(name = "recommendation.graph.write-behind.shutdown-timeout-ms", defaultValue = "10000")
+    long shutdownTimeoutMs;
+
+    private record QueuedEvent(String userEmail, GraphBatchEventDTO event, long enqueuedNanos) {
+    }
+
+    private BlockingQueue<QueuedEvent> queue;
+    private Thread drainer;
+    private volatile boolean running;
+
+    private Timer latencyTimer;
+    private DistributionSummary batchSize;
+    private Counter rejectedCounter;
+    private Counter failedCounter;
+
+    void onStart(@Observes StartupEvent ev) {
+        if (!enabled) {
+            return;
+        }
+
+        queue = new ArrayBlockingQueue<>(capacity);
+        meterRegistry.gauge("graph.write.queue.depth", queue, BlockingQueue::size);
+        latencyTimer = Timer.builder("graph.write.queue.latency")
+                .description("Time from enqueueing a graph event until its group transaction committed")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        batchSize = DistributionSummary.builder("graph.write.queue.batch.size")
+                .description("Events applied per group commit")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("graph.write.queue.rejected")
+                .description("Events rejected because the queue was full")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("graph.write.queue.failed")
+                .description("Queued events whose group transaction failed")
+                .register(meterRegistry);
+
+        running = true;
+        drainer = Thread.ofPlatform().name("graph-write-behind").daemon().start(this::drainLoop);
+        LOG.infof("Graph write-behind queue started (capacity %d, max batch %d)", capacity, maxBatch);
+    }
+
+    void onStop(@Observes ShutdownEvent ev) {
+        if (!enabled || drainer == null) {
+            return;
+        }
+
+        running = false;
+        try {
+            drainer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Whatever the drainer did not get to before stopping is committed here
+        List<QueuedEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            LOG.infof("Flushing %d queued graph events on shutdown", remaining.size());
+            commit(remaining);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enqueues an event of the given user.
+     *
+     * @return false if the queue is full and the event was not accepted
+     */
+    public boolean offer(String userEmail, GraphBatchEventDTO event) {
+        if (!running || !queue.offer(new QueuedEvent(userEmail, event, System.nanoTime()))) {
+            rejectedCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private void drainLoop() {
+        List<QueuedEvent> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                QueuedEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                LOG.errorf(e, "Error committing %d queued graph events", batch.size());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<QueuedEvent> events) {
+        List<GraphBatchService.PendingEvent> pending = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            QueuedEvent queued = events.get(i);
+            pending.add(new GraphBatchService.PendingEvent(i, queued.userEmail(), queued.event()));
+        }
+
+        List<GraphBatchEventResultDTO> results = graphBatchService.apply(pending);
+
+        long now = System.nanoTime();
+        int failed = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (!GraphBatchService.APPLIED.equals(results.get(i).getStatus())) {
+                failed++;
+            }
+            latencyTimer.record(now - events.get(i).enqueuedNanos(), TimeUnit.NANOSECONDS);
+        }
+        batchSize.record(events.size());
+
+        if (failed > 0) {
+            failedCounter.increment(failed);
+            LOG.warnf("%d of %d queued graph events could not be applied", failed, events.size());
+        }
+        LOG.debugf("Group commit of %d queued graph events", events.size());
+    }
+}
@@ -0,0 +1,513 @@
+package de.htwg.service;
+
+import de.htwg.graph.CsrAdjacency;
+import de.htwg.graph.CsrGraph;
+import de.htwg.graph.EmbeddingIndex;
+import de.htwg.graph.GraphMirror;
+import de.htwg.graph.IntList;
+import de.htwg.graph.ItemSimilarityIndex;
+import de.htwg.graph.LocationIndex;
+import de.htwg.graph.LongList;
+import de.htwg.graph.NeighborSampler;
+import de.htwg.graph.TopK;
+import de.htwg.graph.TrendingIndex;
+import de.htwg.feed.Candidate;
+import de.htwg.feed.CandidateKind;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Recommendation strategies evaluated against the in-memory {@link GraphMirror} snapshot.
+ * Each method mirrors the scoring of the corresponding Cypher query in {@link CypherRecommender}
+ * and returns candidates of the same kind and score, so both paths are interchangeable.
+ *
+ * Traversals expand high-degree nodes through a {@link NeighborSampler} sample; candidates computed
+ * from a sampled neighbourhood are flagged as {@code sampled}.
+ */
+@ApplicationScoped
+public class InMemoryRecommender {
+
+    // Same neighbourhood limit as the Cypher collaborative query
+    private static final int SIMILAR_USERS_LIMIT = 15;
+
+    @Inject
+    GraphMirror graphMirror;
+
+    @Inject
+    ItemSimilarityIndex itemSimilarityIndex;
+
+    @Inject
+    TrendingIndex trendingIndex;
+
+    @Inject
+    LocationIndex locationIndex;
+
+    @Inject
+    NeighborSampler neighborSampler;
+
+    @Inject
+    EmbeddingIndex embeddingIndex;
+
+    public boolean isAvailable() {
+        return graphMirror.isReady();
+    }
+
+    public boolean isItemSimilarityAvailable() {
+        return itemSimilarityIndex.isReady();
+    }
+
+    public boolean isTrendingIndexAvailable() {
+        return trendingIndex.isReady();
+    }
+
+    public boolean isLocationIndexAvailable() {
+        return locationIndex.isReady() && graphMirror.isReady();
+    }
+
+    public boolean isEmbeddingIndexAvailable() {
+        return embeddingIndex.isReady();
+    }
+
+    /**
+     * Itineraries whose ALS embedding has the highest dot product with the user's embedding:
+     * one scan over all itinerary embeddings instead of a graph traversal. Itineraries the user liked
+     * at training time, or has liked or created since according to the mirror, are skipped.
+     * Score: predicted preference (dot product)
+     */
+    public List<Candidate> getEmbeddingRecommendations(String userEmail, int limit) {
+        EmbeddingIndex.Model model = embeddingIndex.model();
+        int user = model != null ? model.userIndex(userEmail) : -1;
+        if (user < 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        float[] scores = new float[model.itineraryCount()];
+        model.score(user, scores);
+
+        CsrGraph graph = graphMirror.isReady() ? graphMirror.snapshot() : null;
+        // Skipped before ranking, so the top K are all eligible
+        long[] likedOrCreated = likedOrCreatedIds(graph, userEmail);
+        TopK ranked = new TopK(limit);
+        for (int itinerary = 0; itinerary < scores.length; itinerary++) {
+            if (scores[itinerary] > 0 && !model.liked(user, itinerary)
+                    && (likedOrCreated.length == 0
+                    || Arrays.binarySearch(likedOrCreated, model.itineraryId(itinerary)) < 0)) {
+                ranked.offer(itinerary, scores[itinerary]);
+            }
+        }
+
+        double[] topScores = new double[ranked.size()];
+        int[] top = ranked.drainDescending(topScores);
+        List<Candidate> items = new ArrayList<>(top.length);
+        for (int n = 0; n < top.length; n++) {
+            long itineraryId = model.itineraryId(top[n]);
+            int itinerary = graph != null ? graph.itineraryIndex(itineraryId) : -1;
+            items.add(new Candidate(itineraryId, itinerary >= 0 ? graph.likedBy().degree(itinerary) : 0,
+                    topScores[n], CandidateKind.EMBEDDING));
+        }
+        return items;
+    }
+
+    /**
+     * @return the sorted ids of the itineraries a user likes or created according to the mirror snapshot
+     */
+    private static long[] likedOrCreatedIds(CsrGraph graph, String userEmail) {
+        int user = graph != null ? graph.userIndex(userEmail) : -1;
+        if (user < 0) {
+            return new long[0];
+        }
+        CsrAdjacency likes = graph.likes();
+        CsrAdjacency created = graph.created();
+        long[] ids = new long[likes.degree(user) + created.degree(user)];
+        int n = 0;
+        for (int k = likes.start(user); k < likes.end(user); k++) {
+            ids[n++] = graph.itineraryId(likes.target(k));
+        }
+        for (int k = created.start(user); k < created.end(user); k++) {
+            ids[n++] = graph.itineraryId(created.target(k));
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Collaborative filtering over the precomputed item-to-item similarity table:
+     * a single hop from each liked itinerary to its most similar itineraries.
+     * Score: sum of the Jaccard similarities to the itineraries the user liked
+     */
+    public List<Candidate> getItemSimilarityRecommendations(String userEmail, int limit) {
+        CsrGraph graph = graphMirror.snapshot();
+        ItemSimilarityIndex.SimilarityTable table = itemSimilarityIndex.table();
+        int user = graph.userIndex(userEmail);
+        if (user < 0 || limit <= 0 || table == null) {
+            return new ArrayList<>();
+        }
+
+        CsrAdjacency likes = graph.likes();
+        CsrAdjacency likedBy = graph.likedBy();
+
+        double[] similarity = new double[graph.itineraryCount()];
+        int[] sources = new int[graph.itineraryCount()];
+        IntList candidates = new IntList(256);
+        for (int k = likes.start(user); k < likes.end(user); k++) {
+            int liked = likes.target(k);
+            int[] neighbors = table.neighbors(liked);
+            float[] weights = table.weights(liked);
+            for (int n = 0; n < neighbors.length; n++) {
+                int candidate = neighbors[n];
+                if (candidate >= similarity.length || likes.contains(user, candidate)) {
+                    continue;
+                }
+                if (sources[candidate]++ == 0) {
+                    candidates.add(candidate);
+                }
+                similarity[candidate] += weights[n];
+            }
+        }
+
+        TopK ranked = new TopK(limit);
+        for (int n = 0; n < candidates.size(); n++) {
+            int candidate = candidates.get(n);
+            ranked.offer(candidate, similarity[candidate]);
+        }
+
+        double[] scores = new double[ranked.size()];
+        int[] top = ranked.drainDescending(scores);
+        List<Candidate> items = new ArrayList<>(top.length);
+        for (int n = 0; n < top.length; n++) {
+            int itinerary = top[n];
+            items.add(new Candidate(graph.itineraryId(itinerary), likedBy.degree(itinerary),
+                    scores[n], CandidateKind.COLLABORATIVE));
+        }
+        return items;
+    }
+
+    /**
+     * Users who liked what you liked also liked...
+     * Score: commonUsers * 2.0 + totalLikes * 0.5
+     */
+    public List<Candidate> getCollaborativeFilteringRecommendations(String userEmail, int limit) {
+        CsrGraph graph = graphMirror.snapshot();
+        int user = graph.userIndex(userEmail);
+        if (user < 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        CsrAdjacency likes = graph.likes();
+        CsrAdjacency likedBy = graph.likedBy();
+
+        // 1. Count common likes with every other user; viral itineraries contribute a sample of their likers
+        int[] commonLikes = new int[graph.userCount()];
+        IntList touchedUsers = new IntList(64);
+        IntList edges = new IntList(64);
+        boolean sampled = false;
+        for (int k = likes.start(user); k < likes.end(user); k++) {
+            int itinerary = likes.target(k);
+            sampled |= neighborSampler.edges(likedBy, itinerary, edges);
+            for (int n = 0; n < edges.size(); n++) {
+                int other = likedBy.target(edges.get(n));
+                if (other != user && commonLikes[other]++ == 0) {
+                    touchedUsers.add(other);
+                }
+            }
+        }
+
+        TopK similarUsers = new TopK(SIMILAR_USERS_LIMIT);
+        for (int n = 0; n < touchedUsers.size(); n++) {
+            int other = touchedUsers.get(n);
+            similarUsers.offer(other, commonLikes[other]);
+        }
+
+        // 2. Count how many of those users liked each itinerary the user has not liked yet
+        int[] commonUsers = new int[graph.itineraryCount()];
+        IntList candidates = new IntList(256);
+        for (int other : similarUsers.drainDescending(null)) {
+            sampled |= neighborSampler.edges(likes, other, edges);
+            for (int n = 0; n < edges.size(); n++) {
+                int itinerary = likes.target(edges.get(n));
+                if (!likes.contains(user, itinerary) && commonUsers[itinerary]++ == 0) {
+                    candidates.add(itinerary);
+                }
+            }
+        }
+
+        TopK ranked = new TopK(limit);
+        for (int n = 0; n < candidates.size(); n++) {
+            int itinerary = candidates.get(n);
+            ranked.offer(itinerary, commonUsers[itinerary] * 2.0 + likedBy.degree(itinerary) * 0.5);
+        }
+
+        double[] scores = new double[ranked.size()];
+        int[] top = ranked.drainDescending(scores);
+        List<Candidate> items = new ArrayList<>(top.length);
+        for (int n = 0; n < top.length; n++) {
+            int itinerary = top[n];
+            items.add(new Candidate(graph.itineraryId(itinerary), likedBy.degree(itinerary),
+                    scores[n], CandidateKind.COLLABORATIVE, sampled));
+        }
+        return items;
+    }
+
+    /**
+     * Itineraries that include locations the user visited.
+     * Score: commonLocations * 3.0 + totalLikes * 0.3
+     */
+    public List<Candidate> getLocationBasedRecommendations(String userEmail, int limit) {
+        CsrGraph graph = graphMirror.snapshot();
+        int user = graph.userIndex(userEmail);
+        if (user < 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        CsrAdjacency visited = graph.visited();
+        CsrAdjacency includedBy = graph.includedBy();
+        CsrAdjacency likes = graph.likes();
+        CsrAdjacency likedBy = graph.likedBy();
+        CsrAdjacency created = graph.created();
+
+        int[] commonLocations = new int[graph.itineraryCount()];
+        IntList candidates = new IntList(256);
+        IntList edges = new IntList(64);
+        boolean sampled = false;
+        for (int k = visited.start(user); k < visited.end(user); k++) {
+            int location = visited.target(k);
+            sampled |= neighborSampler.edges(includedBy, location, edges);
+            for (int n = 0; n < edges.size(); n++) {
+                int itinerary = includedBy.target(edges.get(n));
+                if (likes.contains(user, itinerary) || created.contains(user, itinerary)) {
+                    continue;
+                }
+                if (commonLocations[itinerary]++ == 0) {
+                    candidates.add(itinerary);
+                }
+            }
+        }
+
+        TopK ranked = new TopK(limit);
+        for (int n = 0; n < candidates.size(); n++) {
+            int itinerary = candidates.get(n);
+            int totalLikes = likedBy.degree(itinerary);
+            // The Cypher query only matches itineraries with at least one like
+            if (totalLikes > 0) {
+                ranked.offer(itinerary, commonLocations[itinerary] * 3.0 + totalLikes * 0.3);
+            }
+        }
+
+        double[] scores = new double[ranked.size()];
+        int[] top = ranked.drainDescending(scores);
+        List<Candidate> items = new ArrayList<>(top.length);
+        for (int n = 0; n < top.length; n++) {
+            int itinerary = top[n];
+            items.add(new Candidate(graph.itineraryId(itinerary), likedBy.degree(itinerary),
+                    scores[n], CandidateKind.LOCATION, sampled));
+        }
+        return items;
+    }
+
+    /**
+     * Location-based recommendations from the {@link LocationIndex}: a k-way merge of the posting lists
+     * of the user's visited locations. Equal ids arrive together, so their number is the location overlap.
+     * Same score as {@link #getLocationBasedRecommendations(String, int)}.
+     */
+    public List<Candidate> getLocationIndexRecommendations(String userEmail, int limit) {
+        String[] visits = locationIndex.visits(userEmail);
+        if (visits.length == 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        LocationIndex.Posting[] lists = new LocationIndex.Posting[visits.length];
+        int listCount = 0;
+        for (String location : visits) {
+            LocationIndex.Posting posting = locationIndex.posting(location);
+            if (posting != null && posting.size() > 0) {
+                lists[listCount++] = posting;
+            }
+        }
+
+        CsrGraph graph = graphMirror.snapshot();
+        int user = graph.userIndex(userEmail);
+        CsrAdjacency likes = graph.likes();
+        CsrAdjacency created = graph.created();
+
+        // Min-heap of list numbers, ordered by the id at each list's cursor
+        int[] cursors = new int[listCount];
+        int[] heap = new int[listCount];
+        int heapSize = 0;
+        for (int list = 0; list < listCount; list++) {
+            heapSize = siftUp(heap, heapSize, list, lists, cursors);
+        }
+
+        TopK ranked = new TopK(limit);
+        LongList candidateIds = new LongList(256);
+        IntList candidateLikes = new IntList(256);
+        while (heapSize > 0) {
+            int top = heap[0];
+            long itineraryId = lists[top].itineraryId(cursors[top]);
+            int totalLikes = lists[top].likes(cursors[top]);
+            int commonLocations = 0;
+            while (heapSize > 0 && lists[heap[0]].itineraryId(cursors[heap[0]]) == itineraryId) {
+                int list = heap[0];
+                commonLocations++;
+                heapSize = pop(heap, heapSize, lists, cursors);
+                if (++cursors[list] < lists[list].size()) {
+                    heapSize = siftUp(heap, heapSize, list, lists, cursors);
+                }
+            }
+
+            // The Cypher query only matches itineraries with at least one like
+            if (totalLikes == 0) {
+                continue;
+            }
+            if (user >= 0) {
+                int itinerary = graph.itineraryIndex(itineraryId);
+                if (itinerary >= 0 && (likes.contains(user, itinerary) || created.contains(user, itinerary))) {
+                    continue;
+                }
+            }
+            ranked.offer(candidateIds.size(), commonLocations * 3.0 + totalLikes * 0.3);
+            candidateIds.add(itineraryId);
+            candidateLikes.add(totalLikes);
+        }
+
+        double[] scores = new double[ranked.size()];
+        int[] best = ranked.drainDescending(scores);
+        List<Candidate> items = new ArrayList<>(best.length);
+        for (int n = 0; n < best.length; n++) {
+            items.add(new Candidate(candidateIds.get(best[n]), candidateLikes.get(best[n]), scores[n], CandidateKind.LOCATION));
+        }
+        return items;
+    }
+
+    /**
+     * Most liked itineraries the user has neither liked nor created.
+     */
+    public List<Candidate> getTrendingItineraries(String userEmail, int limit) {
+        CsrGraph graph = graphMirror.snapshot();
+        int user = graph.userIndex(userEmail);
+        CsrAdjacency likes = graph.likes();
+        CsrAdjacency created = graph.created();
+        CsrAdjacency likedBy = graph.likedBy();
+
+        TopK ranked = new TopK(limit);
+        for (int itinerary = 0; itinerary < graph.itineraryCount(); itinerary++) {
+            int totalLikes = likedBy.degree(itinerary);
+            if (totalLikes == 0) {
+                continue;
+            }
+            if (user >= 0 && (likes.contains(user, itinerary) || created.contains(user, itinerary))) {
+                continue;
+            }
+            ranked.offer(itinerary, totalLikes);
+        }
+        return toLikeCountCandidates(graph, ranked, CandidateKind.TRENDING);
+    }
+
+    /**
+     * Hot itineraries from the materialized, time-decayed {@link TrendingIndex} ranking,
+     * excluding the ones the user has liked or created.
+     */
+    public List<Candidate> getTrendingFromIndex(String userEmail, int limit) {
+        CsrGraph graph = graphMirror.snapshot();
+        int user = graph.userIndex(userEmail);
+        CsrAdjacency likes = graph.likes();
+        CsrAdjacency created = graph.created();
+
+        TrendingIndex.Ranking ranking = trendingIndex.trending();
+        List<Candidate> items = new ArrayList<>(Math.min(limit, ranking.size()));
+        for (int rank = 0; rank < ranking.size() && items.size() < limit; rank++) {
+            if (user >= 0) {
+                int itinerary = graph.itineraryIndex(ranking.itineraryId(rank));
+                if (itinerary >= 0 && (likes.contains(user, itinerary) || created.contains(user, itinerary))) {
+                    continue;
+                }
+            }
+            items.add(new Candidate(ranking.itineraryId(rank), ranking.likes(rank), ranking.score(rank), CandidateKind.TRENDING));
+        }
+        return items;
+    }
+
+    /**
+     * Most liked itineraries overall, read from the materialized {@link TrendingIndex}.
+     */
+    public List<Candidate> getPopularFromIndex(int limit) {
+        TrendingIndex.Ranking ranking = trendingIndex.popular();
+        int size = Math.min(limit, ranking.size());
+        List<Candidate> items = new ArrayList<>(size);
+        for (int rank = 0; rank < size; rank++) {
+            items.add(new Candidate(ranking.itineraryId(rank), ranking.likes(rank), ranking.likes(rank), CandidateKind.POPULAR));
+        }
+        return items;
+    }
+
+    /**
+     * Most liked itineraries overall.
+     */
+    public List<Candidate> getPopularItineraries(int limit) {
+        CsrGraph graph = graphMirror.snapshot();
+        CsrAdjacency likedBy = graph.likedBy();
+
+        TopK ranked = new TopK(limit);
+        for (int itinerary = 0; itinerary < graph.itineraryCount(); itinerary++) {
+            int totalLikes = likedBy.degree(itinerary);
+            if (totalLikes > 0) {
+                ranked.offer(itinerary, totalLikes);
+            }
+        }
+        return toLikeCountCandidates(graph, ranked, CandidateKind.POPULAR);
+    }
+
+    private static int siftUp(int[] heap, int size, int list, LocationIndex.Posting[] lists, int[] cursors) {
+        long id = lists[list].itineraryId(cursors[list]);
+        int i = size;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (lists[heap[parent]].itineraryId(cursors[heap[parent]]) <= id) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = list;
+        return size + 1;
+    }
+
+    private static int pop(int[] heap, int size, LocationIndex.Posting[] lists, int[] cursors) {
+        int last = heap[--size];
+        if (size == 0) {
+            return 0;
+        }
+        long id = lists[last].itineraryId(cursors[last]);
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && lists[heap[child + 1]].itineraryId(cursors[heap[child + 1]])
+                    < lists[heap[child]].itineraryId(cursors[heap[child]])) {
+                child++;
+            }
+            if (lists[heap[child]].itineraryId(cursors[heap[child]]) >= id) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return size;
+    }
+
+    private static List<Candidate> toLikeCountCandidates(CsrGraph graph, TopK ranked, CandidateKind kind) {
+        double[] scores = new double[ranked.size()];
+        int[] top = ranked.drainDescending(scores);
+        List<Candidate> items = new ArrayList<>(top.length);
+        for (int n = 0; n < top.length; n++) {
+            items.add(new Candidate(graph.itineraryId(top[n]), (int) scores[n], scores[n], kind));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,102 @@
+package de.htwg.service;
+
+import de.htwg.dto.ItineraryDTO;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Bounded local cache of itinerary details, keyed by itinerary id.
+ *
+ * Feeds of different users share most of their trending ids, so enrichment only asks the itinerary
+ * service for the ids that are not cached yet. Entries expire after a TTL and are dropped explicitly
+ * when an itinerary is recorded again through {@code /graph/*}. The itinerary service returns the same
+ * details for every caller, so entries are shared across users.
+ */
+@ApplicationScoped
+public class ItineraryDetailsCache {
+
+    private static final Logger LOG = Logger.getLogger(ItineraryDetailsCache.class);
+
+    @Inject
+    @CacheName("itinerary-details")
+    Cache cache;
+
+    /**
+     * Returns the cached details of the given ids and loads the misses with one call to {@code loader}.
+     * Ids unknown to the itinerary service are simply missing from the result.
+     */
+    public List<ItineraryDTO> getAll(List<Long> ids, Function<List<Long>, List<ItineraryDTO>> loader) {
+        List<ItineraryDTO> result = new ArrayList<>(ids.size());
+        List<Long> misses = collectHits(ids, result);
+        if (!misses.isEmpty()) {
+            List<ItineraryDTO> loaded = loader.apply(misses);
+            putAll(loaded);
+            result.addAll(loaded);
+        }
+        return result;
+    }
+
+    /**
+     * Non-blocking variant of {@link #getAll(List, Function)}.
+     */
+    public Uni<List<ItineraryDTO>> getAllAsync(List<Long> ids, Function<List<Long>, Uni<List<ItineraryDTO>>> loader) {
+        List<ItineraryDTO> result = new ArrayList<>(ids.size());
+        List<Long> misses = collectHits(ids, result);
+        if (misses.isEmpty()) {
+            return Uni.createFrom().item(result);
+        }
+        return loader.apply(misses).map(loaded -> {
+            putAll(loaded);
+            result.addAll(loaded);
+            return result;
+        });
+    }
+
+    /**
+     * Drops the cached details of an itinerary, e.g. after its title or description changed.
+     */
+    public void invalidate(long itineraryId) {
+        cache.invalidate(itineraryId).await().indefinitely();
+    }
+
+    private List<Long> collectHits(List<Long> ids, List<ItineraryDTO> hits) {
+        CaffeineCache caffeineCache = cache.as(CaffeineCache.class);
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            CompletableFuture<ItineraryDTO> cached = caffeineCache.getIfPresent(id);
+            ItineraryDTO itinerary = cached != null && cached.isDone() && !cached.isCompletedExceptionally()
+                    ? cached.join()
+                    : null;
+            if (itinerary != null) {
+                hits.add(itinerary);
+            } else {
+                misses.add(id);
+            }
+        }
+        LOG.debugf("Itinerary details: %d cached, %d to fetch", hits.size(), misses.size());
+        return misses;
+    }
+
+    private void putAll(List<ItineraryDTO> itineraries) {
+        CaffeineCache caffeineCache = cache.as(CaffeineCache.class);
+        Map<Long, ItineraryDTO> byId = new HashMap<>();
+        for (ItineraryDTO itinerary : itineraries) {
+            if (itinerary.getId() != null) {
+                byId.put(itinerary.getId(), itinerary);
+            }
+        }
+        byId.forEach((id, itinerary) -> caffeineCache.put(id, CompletableFuture.completedFuture(itinerary)));
+    }
+}
@@ -0,0 +1,205 @@
+package de.htwg.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.htwg.dto.FeedResponseDTO;
+import de.htwg.filter.AuthorizationHeaderHolder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The all-time popular feed is the same for every caller, so it is served from a snapshot: the response
+ * serialized to JSON once, with an ETag derived from its content, swapped atomically when rebuilt.
+ *
+ * The snapshot goes stale after {@code recommendation.feed.popular-snapshot.refresh-interval} or after
+ * {@code recommendation.feed.popular-snapshot.refresh-after-likes} likes and unlikes, whichever comes first.
+ * A stale snapshot is still served (stale-while-revalidate): the first request that finds it stale starts one
+ * rebuild in the background, with its own token for the itinerary service, and every request keeps getting the
+ * previous bytes until the rebuild is published. Only requests arriving before the first snapshot exists wait,
+ * and they share a single build.
+ */
+@ApplicationScoped
+public class PopularFeedSnapshot {
+
+    private static final Logger LOG = Logger.getLogger(PopularFeedSnapshot.class);
+
+    private static final String COLD_START = "cold-start";
+
+    @Inject
+    RecommendationService recommendationService;
+
+    @Inject
+    AuthorizationHeaderHolder authorizationHeaderHolder;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "recommendation.feed.popular-snapshot.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "recommendation.feed.popular-snapshot.refresh-interval", defaultValue = "PT30S")
+    Duration refreshInterval;
+
+    @ConfigProperty(name = "recommendation.feed.popular-snapshot.refresh-after-likes", defaultValue = "100")
+    long refreshAfterLikes;
+
+    private final AtomicLong likeChanges = new AtomicLong();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    // A cold replica receiving a burst builds the first snapshot once, not once per request
+    private SingleFlight<String, Snapshot> firstBuild;
+
+    /**
+     * One serialized popular feed.
+     *
+     * @param body         the JSON response body
+     * @param etag         strong entity tag of the body, without quotes
+     * @param items        number of feed items in the body
+     * @param builtAt      when the build started, in epoch millis
+     * @param likesAtBuild like changes counted when the build started
+     */
+    public record Snapshot(byte[] body, String etag, int items, long builtAt, long likesAtBuild) {
+    }
+
+    @PostConstruct
+    void init() {
+        firstBuild = new SingleFlight<>("popular-snapshot", meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * Counts a committed like or unlike towards the next rebuild.
+     */
+    public void onLikeChanged() {
+        likeChanges.incrementAndGet();
+    }
+
+    /**
+     * Returns the current snapshot, starting a background rebuild if it is stale.
+     * Builds the first snapshot in the calling thread; concurrent callers wait for that build.
+     */
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return firstBuild.execute(COLD_START, () -> {
+                // A build that finished while this caller was getting here already published one
+                Snapshot published = snapshot;
+                if (published != null) {
+                    return published;
+                }
+                count("miss");
+                long likesAtStart = likeChanges.get();
+                long startedAt = System.currentTimeMillis();
+                return publish(recommendationService.getPopularFeed(null), startedAt, likesAtStart);
+            });
+        }
+        revalidateIfStale(current, authorizationHeaderHolder.getAuthorizationHeader());
+        return current;
+    }
+
+    /**
+     * Non-blocking variant of {@link #get()}.
+     */
+    public Uni<Snapshot> getAsync() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Captured on the request thread; the build may run after it has moved on
+            String authHeader = authorizationHeaderHolder.getAuthorizationHeader();
+            return firstBuild.executeAsync(COLD_START, () -> {
+                Snapshot published = snapshot;
+                if (published != null) {
+                    return Uni.createFrom().item(published);
+                }
+                count("miss");
+                long likesAtStart = likeChanges.get();
+                long startedAt = System.currentTimeMillis();
+                return recommendationService.computePopularFeedReactive(null, authHeader)
+                        .map(feed -> publish(feed, startedAt, likesAtStart));
+            });
+        }
+        revalidateIfStale(current, authorizationHeaderHolder.getAuthorizationHeader());
+        return Uni.createFrom().item(current);
+    }
+
+    private void revalidateIfStale(Snapshot current, String authHeader) {
+        boolean stale = System.currentTimeMillis() - current.builtAt() >= refreshInterval.toMillis()
+                || likeChanges.get() - current.likesAtBuild() >= refreshAfterLikes;
+        if (!stale || !refreshing.compareAndSet(false, true)) {
+            count(stale ? "stale" : "hit");
+            return;
+        }
+        count("stale");
+
+        long likesAtStart = likeChanges.get();
+        long startedAt = System.currentTimeMillis();
+        // Rebuilt off the request thread; the in-memory ranking would otherwise run on the subscriber
+        recommendationService.computePopularFeedReactive(null, authHeader)
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
+                .subscribe().with(
+                        feed -> {
+                            refreshing.set(false);
+                            if (feed.getItems().isEmpty() && current.items() > 0) {
+                                // Enrichment failures yield an empty feed; keep serving the last good one
+                                LOG.warn("Popular feed rebuild came back empty, keeping the previous snapshot");
+                                return;
+                            }
+                            publish(feed, startedAt, likesAtStart);
+                        },
+                        failure -> {
+                            refreshing.set(false);
+                            LOG.error("Error rebuilding popular feed snapshot, serving the previous one", failure);
+                        });
+    }
+
+    private Snapshot publish(FeedResponseDTO feed, long startedAt, long likesAtStart) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(feed);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize popular feed", e);
+        }
+        Snapshot built = new Snapshot(body, etag(body), feed.getItems().size(), startedAt, likesAtStart);
+        snapshot = built;
+        LOG.debugf("Published popular feed snapshot %s (%d items, %d bytes)", built.etag(), built.items(), body.length);
+        return built;
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("feed.popular.snapshot.requests", "result", result).increment();
+    }
+
+    // Content hash: a rebuild without changes keeps the tag, so clients keep getting 304s
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
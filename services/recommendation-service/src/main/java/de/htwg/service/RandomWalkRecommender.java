@@ -0,0 +1,311 @@
+package de.htwg.service;
+
+import de.htwg.feed.Candidate;
+import de.htwg.feed.CandidateKind;
+import de.htwg.graph.CsrAdjacency;
+import de.htwg.graph.CsrGraph;
+import de.htwg.graph.GraphMirror;
+import de.htwg.graph.IntList;
+import de.htwg.graph.TopK;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Personalized random walks with restarts over the {@link GraphMirror} snapshot, in the style of Pixie.
+ *
+ * Walks start from the user's liked itineraries and visited locations (a location restarts at a random
+ * itinerary that includes it) and alternate itinerary -> random liker -> random liked itinerary; after every
+ * step the walk restarts with {@code recommendation.random-walk.restart-probability}. Itineraries are ranked by
+ * how often the walks visit them.
+ *
+ * Every step is two random CSR lookups, so the cost of a request is bounded by the step budget, whatever the
+ * density of the graph. The budget is spent in rounds, each split across the walker threads; walking stops
+ * early once the top-K of two consecutive rounds overlap by {@code recommendation.random-walk.stable-overlap}.
+ *
+ * The walker threads are shared by all requests. Their queue holds at most
+ * {@code recommendation.random-walk.queue-capacity} walks and a request walks for at most
+ * {@code recommendation.random-walk.timeout-ms}; a request that hits either limit is ranked from the rounds it
+ * completed, which may be none.
+ */
+@ApplicationScoped
+public class RandomWalkRecommender {
+
+    private static final Logger LOG = Logger.getLogger(RandomWalkRecommender.class);
+
+    @Inject
+    GraphMirror graphMirror;
+
+    @ConfigProperty(name = "recommendation.random-walk.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "recommendation.random-walk.step-budget", defaultValue = "50000")
+    int stepBudget;
+
+    @ConfigProperty(name = "recommendation.random-walk.round-steps", defaultValue = "5000")
+    int roundSteps;
+
+    @ConfigProperty(name = "recommendation.random-walk.restart-probability", defaultValue = "0.3")
+    double restartProbability;
+
+    @ConfigProperty(name = "recommendation.random-walk.threads", defaultValue = "4")
+    int threads;
+
+    // Share of the top-K that has to survive a round for the ranking to count as stable
+    @ConfigProperty(name = "recommendation.random-walk.stable-overlap", defaultValue = "0.9")
+    double stableOverlap;
+
+    @ConfigProperty(name = "recommendation.random-walk.queue-capacity", defaultValue = "64")
+    int queueCapacity;
+
+    @ConfigProperty(name = "recommendation.random-walk.timeout-ms", defaultValue = "1000")
+    long timeoutMs;
+
+    ExecutorService walkers;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            return;
+        }
+        // Walks are CPU bound, so they get platform threads of their own
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Bounded queue: under overload a submit fails fast instead of queueing behind every other request
+        walkers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "random-walk-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (walkers != null) {
+            walkers.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isAvailable() {
+        return enabled && graphMirror.isReady();
+    }
+
+    /**
+     * Itineraries most visited by random walks from the user's likes and visited locations,
+     * excluding the ones the user has liked or created.
+     * Score: visit count
+     */
+    public List<Candidate> getRandomWalkRecommendations(String userEmail, int limit) {
+        CsrGraph graph = graphMirror.snapshot();
+        int user = graph.userIndex(userEmail);
+        if (user < 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        CsrAdjacency likes = graph.likes();
+        CsrAdjacency created = graph.created();
+        CsrAdjacency visited = graph.visited();
+        if (likes.degree(user) == 0 && visited.degree(user) == 0) {
+            return new ArrayList<>();
+        }
+
+        int[] visits = new int[graph.itineraryCount()];
+        IntList touched = new IntList(256);
+        int[] previousTop = null;
+        int stepsPerWalker = Math.max(1, roundSteps / threads);
+        int rounds = Math.max(1, stepBudget / (stepsPerWalker * threads));
+        int round = 0;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        while (round < rounds) {
+            List<Future<IntList>> walks = submitRound(graph, user, stepsPerWalker);
+            List<IntList> paths = walks != null ? awaitRound(walks, deadline) : null;
+            if (paths == null) {
+                LOG.debugf("Random walks for user %s cut short after %d rounds: walker queue full or timed out", userEmail, round);
+                break;
+            }
+            round++;
+            for (IntList path : paths) {
+                for (int n = 0; n < path.size(); n++) {
+                    int itinerary = path.get(n);
+                    if (visits[itinerary]++ == 0) {
+                        touched.add(itinerary);
+                    }
+                }
+            }
+
+            int[] top = topK(visits, touched, user, likes, created, limit, null);
+            if (previousTop != null && overlap(previousTop, top) >= stableOverlap) {
+                break;
+            }
+            previousTop = top;
+        }
+        LOG.debugf("Random walks for user %s: %d of %d rounds, %d itineraries visited", userEmail, round, rounds, touched.size());
+
+        double[] scores = new double[Math.min(limit, touched.size())];
+        int[] top = topK(visits, touched, user, likes, created, limit, scores);
+        List<Candidate> items = new ArrayList<>(top.length);
+        for (int n = 0; n < top.length; n++) {
+            items.add(new Candidate(graph.itineraryId(top[n]), graph.likedBy().degree(top[n]),
+                    scores[n], CandidateKind.RANDOM_WALK));
+        }
+        return items;
+    }
+
+    /**
+     * Submits one walk per walker thread.
+     *
+     * @return the walks, or null if the walker queue is full
+     */
+    private List<Future<IntList>> submitRound(CsrGraph graph, int user, int stepsPerWalker) {
+        List<Future<IntList>> walks = new ArrayList<>(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                long seed = ThreadLocalRandom.current().nextLong();
+                walks.add(walkers.submit(() -> walk(graph, user, stepsPerWalker, new SplittableRandom(seed))));
+            }
+            return walks;
+        } catch (RejectedExecutionException e) {
+            cancel(walks);
+            return null;
+        }
+    }
+
+    /**
+     * Waits for the walks of a round until the request's deadline.
+     *
+     * @return the paths of all walks, or null if the deadline passed first
+     */
+    private static List<IntList> awaitRound(List<Future<IntList>> walks, long deadline) {
+        List<IntList> paths = new ArrayList<>(walks.size());
+        for (Future<IntList> walk : walks) {
+            IntList path = await(walk, deadline);
+            if (path == null) {
+                cancel(walks);
+                return null;
+            }
+            paths.add(path);
+        }
+        return paths;
+    }
+
+    private static void cancel(List<Future<IntList>> walks) {
+        for (Future<IntList> walk : walks) {
+            walk.cancel(true);
+        }
+    }
+
+    /**
+     * Walks {@code steps} steps and returns the itineraries it visited, in visiting order.
+     */
+    private IntList walk(CsrGraph graph, int user, int steps, SplittableRandom random) {
+        CsrAdjacency likes = graph.likes();
+        CsrAdjacency likedBy = graph.likedBy();
+        CsrAdjacency visited = graph.visited();
+        CsrAdjacency includedBy = graph.includedBy();
+        int pins = likes.degree(user) + visited.degree(user);
+
+        IntList path = new IntList(steps);
+        int current = -1;
+        for (int step = 0; step < steps; step++) {
+            if (current < 0 || random.nextDouble() < restartProbability) {
+                int pin = random.nextInt(pins);
+                if (pin < likes.degree(user)) {
+                    current = likes.target(likes.start(user) + pin);
+                } else {
+                    int location = visited.target(visited.start(user) + pin - likes.degree(user));
+                    int itineraries = includedBy.degree(location);
+                    current = itineraries > 0 ? includedBy.target(includedBy.start(location) + random.nextInt(itineraries)) : -1;
+                    if (current >= 0) {
+                        path.add(current);
+                    }
+                }
+                continue;
+            }
+
+            int likers = likedBy.degree(current);
+            if (likers == 0) {
+                current = -1;
+                continue;
+            }
+            int liker = likedBy.target(likedBy.start(current) + random.nextInt(likers));
+            // The liker liked at least the current itinerary
+            current = likes.target(likes.start(liker) + random.nextInt(likes.degree(liker)));
+            path.add(current);
+        }
+        return path;
+    }
+
+    private static int[] topK(int[] visits, IntList touched, int user,
+                              CsrAdjacency likes, CsrAdjacency created, int limit, double[] scoresOut) {
+        TopK ranked = new TopK(limit);
+        for (int n = 0; n < touched.size(); n++) {
+            int itinerary = touched.get(n);
+            if (!likes.contains(user, itinerary) && !created.contains(user, itinerary)) {
+                ranked.offer(itinerary, visits[itinerary]);
+            }
+        }
+        return ranked.drainDescending(scoresOut);
+    }
+
+    /**
+     * @return the share of {@code current} that was already in {@code previous}
+     */
+    private static double overlap(int[] previous, int[] current) {
+        if (current.length == 0) {
+            return previous.length == 0 ? 1.0 : 0.0;
+        }
+        int[] a = previous.clone();
+        int[] b = current.clone();
+        Arrays.sort(a);
+        Arrays.sort(b);
+        int common = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) common / b.length;
+    }
+
+    private static IntList await(Future<IntList> walk, long deadline) {
+        try {
+            return walk.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for random walks", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Random walk failed", e.getCause());
+        }
+    }
+}
@@ -4,19 +4,25 @@ import de.htwg.client.ItineraryServiceClient;
 import de.htwg.dto.FeedItemDTO;
 import de.htwg.dto.FeedResponseDTO;
 import de.htwg.dto.ItineraryDTO;
+import de.htwg.feed.Candidate;
+import de.htwg.feed.FeedPipeline;
+import de.htwg.filter.AuthorizationHeaderHolder;
 import de.htwg.security.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.jboss.logging.Logger;
-import org.neo4j.driver.Driver;
-import org.neo4j.driver.Record;
-import org.neo4j.driver.Result;
-import org.neo4j.driver.Session;
 
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -26,9 +32,6 @@ public class RecommendationService {
 
     private static final Logger LOG = Logger.getLogger(RecommendationService.class);
 
-    @Inject
-    Driver neo4jDriver;
-
     @Inject
     @RestClient
     ItineraryServiceClient itineraryServiceClient;
@@ -37,56 +40,70 @@ public class RecommendationService {
     SecurityContext securityContext;
 
     @Inject
-    de.htwg.filter.AuthorizationHeaderHolder authorizationHeaderHolder;
+    AuthorizationHeaderHolder authorizationHeaderHolder;
 
-    @ConfigProperty(name = "recommendation.feed.max-items", defaultValue = "100")
-    int maxFeedItems;
+    @Inject
+    InMemoryRecommender inMemoryRecommender;
 
-    public FeedResponseDTO getPersonalizedFeed(String userEmail) {
-        LOG.infof("Generating enhanced mixed feed for user: %s", userEmail);
+    @Inject
+    CypherRecommender cypherRecommender;
 
-        // Always create a mixture of personalized + trending content
-        // Allocate 60% to personalized, 40% to trending (ensures feed is never empty)
-        int personalizedCount = (int) Math.ceil(maxFeedItems * 0.6);
-        int trendingCount = maxFeedItems - personalizedCount;
+    @Inject
+    FeedPipeline feedPipeline;
 
-        List<Map<String, Object>> allRecommendations = new ArrayList<>();
+    @Inject
+    ItineraryDetailsCache itineraryDetailsCache;
 
-        // 1. Get personalized recommendations (collaborative filtering + location-based)
-        List<Map<String, Object>> personalizedRecs = new ArrayList<>();
+    @Inject
+    FeedSnapshotStore feedSnapshotStore;
 
-        // Try collaborative filtering first
-        List<Map<String, Object>> collaborative = getCollaborativeFilteringRecommendations(userEmail, personalizedCount);
-        personalizedRecs.addAll(collaborative);
+    @Inject
+    @CacheName("personalized-feed")
+    Cache personalizedFeedCache;
 
-        // Supplement with location-based if needed
-        if (personalizedRecs.size() < personalizedCount) {
-            int remaining = personalizedCount - personalizedRecs.size();
-            List<Map<String, Object>> locationBased = getLocationBasedRecommendations(userEmail, remaining);
-            personalizedRecs.addAll(locationBased);
-        }
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @ConfigProperty(name = "recommendation.feed.max-items", defaultValue = "100")
+    int maxFeedItems;
 
-        LOG.infof("Got %d personalized recommendations for user %s", personalizedRecs.size(), userEmail);
+    @ConfigProperty(name = "recommendation.feed.max-page-size", defaultValue = "100")
+    int maxPageSize;
 
-        // 2. Get trending/popular itineraries (always included)
-        List<Map<String, Object>> trendingRecs = getTrendingItineraries(userEmail, trendingCount);
-        LOG.infof("Got %d trending itineraries", trendingRecs.size());
+    // Concurrent requests for the same feed (a user's double refresh, a burst on /feed/popular)
+    // share one computation; a user's flight also shares the itinerary-service call, the popular
+    // flight only shares the ranking
+    @ConfigProperty(name = "recommendation.feed.single-flight.enabled", defaultValue = "true")
+    boolean singleFlightEnabled;
 
-        // 3. Interleave personalized and trending for better UX
-        // Pattern: P, P, T, P, T, P, P, T... (more personalized than trending)
-        List<Map<String, Object>> mixedFeed = interleaveRecommendations(personalizedRecs, trendingRecs);
+    private SingleFlight<String, FeedResponseDTO> personalizedFlight;
+    private SingleFlight<String, List<Long>> popularFlight;
 
-        // Extract itinerary IDs (removing duplicates)
-        List<Long> itineraryIds = mixedFeed.stream()
-                .map(rec -> (Long) rec.get("itineraryId"))
-                .distinct()
-                .collect(Collectors.toList());
+    @PostConstruct
+    void init() {
+        personalizedFlight = new SingleFlight<>("personalized", meterRegistry);
+        popularFlight = new SingleFlight<>("popular", meterRegistry);
+    }
+
+    public FeedResponseDTO getPersonalizedFeed(String userEmail) {
+        if (!singleFlightEnabled) {
+            return computePersonalizedFeed(userEmail);
+        }
+        return personalizedFlight.execute(userEmail, () -> computePersonalizedFeed(userEmail));
+    }
+
+    private FeedResponseDTO computePersonalizedFeed(String userEmail) {
+        LOG.infof("Generating enhanced mixed feed for user: %s", userEmail);
+
+        // The ranked id list is cached per user; enrichment always runs with the caller's auth header
+        List<Long> itineraryIds = personalizedFeedCache
+                .get(userEmail, this::computeRankedFeed)
+                .await().indefinitely();
 
         // Fetch full itinerary details from itinerary service
-        List<FeedItemDTO> feedItems = enrichWithItineraryDetails(itineraryIds, mixedFeed);
+        List<FeedItemDTO> feedItems = enrichWithItineraryDetails(itineraryIds);
 
-        LOG.infof("Final mixed feed contains %d items (%d personalized + %d trending)",
-                feedItems.size(), personalizedRecs.size(), trendingRecs.size());
+        LOG.infof("Final mixed feed contains %d items for user %s", feedItems.size(), userEmail);
 
         return FeedResponseDTO.builder()
                 .items(feedItems)
@@ -95,90 +112,101 @@ public class RecommendationService {
     }
 
     /**
-     * Interleaves personalized and trending recommendations for better user experience.
-     * Pattern: 2 personalized, 1 trending, 2 personalized, 1 trending...
+     * Returns one page of the personalized feed.
+     * Without a cursor the ranked feed is computed (or taken from the cache) and stored as a snapshot;
+     * with a cursor the next page is sliced from that snapshot. Only the items of the page are enriched.
+     *
+     * @param cursor   cursor from the previous page, or null for the first page
+     * @param pageSize number of items per page, capped at {@code recommendation.feed.max-page-size}
+     * @throws IllegalArgumentException if the cursor is malformed, expired or belongs to another user
      */
-    private List<Map<String, Object>> interleaveRecommendations(
-            List<Map<String, Object>> personalized,
-            List<Map<String, Object>> trending) {
-
-        List<Map<String, Object>> result = new ArrayList<>();
-        int pIndex = 0, tIndex = 0;
-        int personalizedBatch = 2; // Show 2 personalized items
-        int trendingBatch = 1;     // Then 1 trending item
-
-        while (pIndex < personalized.size() || tIndex < trending.size()) {
-            // Add personalized items
-            for (int i = 0; i < personalizedBatch && pIndex < personalized.size(); i++) {
-                result.add(personalized.get(pIndex++));
-            }
+    public FeedResponseDTO getPersonalizedFeedPage(String userEmail, String cursor, int pageSize) {
+        int size = Math.max(1, Math.min(pageSize, maxPageSize));
+
+        String snapshotId;
+        int offset;
+        List<Long> itineraryIds;
+        if (cursor == null || cursor.isBlank()) {
+            itineraryIds = personalizedFeedCache
+                    .get(userEmail, this::computeRankedFeed)
+                    .await().indefinitely();
+            snapshotId = feedSnapshotStore.create(userEmail, itineraryIds);
+            offset = 0;
+        } else {
+            FeedSnapshotStore.Cursor position = feedSnapshotStore.decode(cursor)
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid cursor"));
+            itineraryIds = feedSnapshotStore.get(position.snapshotId(), userEmail)
+                    .orElseThrow(() -> new IllegalArgumentException("Cursor expired"));
+            snapshotId = position.snapshotId();
+            offset = position.offset();
+        }
 
-            // Add trending items
-            for (int i = 0; i < trendingBatch && tIndex < trending.size(); i++) {
-                result.add(trending.get(tIndex++));
-            }
+        int end = Math.min(offset + size, itineraryIds.size());
+        List<Long> pageIds = offset < end ? itineraryIds.subList(offset, end) : List.of();
+        List<FeedItemDTO> feedItems = enrichWithItineraryDetails(pageIds);
+        boolean hasMore = end < itineraryIds.size();
+
+        LOG.infof("Feed page for user %s: items %d-%d of %d", userEmail, offset, end, itineraryIds.size());
+
+        return FeedResponseDTO.builder()
+                .items(feedItems)
+                .totalItems(itineraryIds.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? feedSnapshotStore.encode(new FeedSnapshotStore.Cursor(snapshotId, end)) : null)
+                .build();
+    }
+
+    /**
+     * Non-blocking variant of {@link #getPersonalizedFeed(String)}.
+     * Candidate sources run on the Neo4j async session API (or in memory) and the enrichment uses
+     * the reactive itinerary-service client, so no worker thread is held while waiting on I/O.
+     */
+    public Uni<FeedResponseDTO> getPersonalizedFeedReactive(String userEmail) {
+        // Request-scoped state has to be captured before the pipeline leaves the request thread
+        String authHeader = authorizationHeaderHolder.getAuthorizationHeader();
+        if (!singleFlightEnabled) {
+            return computePersonalizedFeedReactive(userEmail, authHeader);
         }
+        return personalizedFlight.executeAsync(userEmail, () -> computePersonalizedFeedReactive(userEmail, authHeader));
+    }
+
+    private Uni<FeedResponseDTO> computePersonalizedFeedReactive(String userEmail, String authHeader) {
+        LOG.infof("Generating enhanced mixed feed (reactive) for user: %s", userEmail);
 
-        return result;
+        return personalizedFeedCache
+                .getAsync(userEmail, this::computeRankedFeedReactive)
+                .chain(itineraryIds -> enrichWithItineraryDetailsReactive(itineraryIds, authHeader))
+                .map(feedItems -> FeedResponseDTO.builder()
+                        .items(feedItems)
+                        .totalItems(feedItems.size())
+                        .build());
     }
 
     /**
-     * Get trending/hot itineraries - most liked itineraries that the user hasn't interacted with.
-     * This ensures fresh users always see popular content.
+     * Drops the cached ranked feed of a user. Called by {@link GraphService} whenever a write
+     * touches the user (likes, unlikes, created itineraries, visited locations).
      */
-    private List<Map<String, Object>> getTrendingItineraries(String userEmail, Integer count) {
-        LOG.debugf("Getting trending itineraries for user: %s, count: %d", userEmail, count);
-
-        String cypher = """
-            MATCH (i:Itinerary)
-            WHERE NOT EXISTS {
-                MATCH (u:User {email: $userEmail})
-                WHERE (u)-[:LIKES]->(i) OR (u)-[:CREATED]->(i)
-            }
-            WITH i, size([(i)<-[:LIKES]-() | 1]) as likesCount
-            WHERE likesCount > 0
-            RETURN i.id as itineraryId,
-                   likesCount
-            ORDER BY likesCount DESC
-            LIMIT $limit
-            """;
-
-        List<Map<String, Object>> results = new ArrayList<>();
-        try (Session session = neo4jDriver.session()) {
-            results = session.readTransaction(tx -> {
-                Map<String, Object> params = new HashMap<>();
-                params.put("userEmail", userEmail);
-                params.put("limit", count);
-
-                Result result = tx.run(cypher, params);
-                List<Map<String, Object>> items = new ArrayList<>();
-
-                while (result.hasNext()) {
-                    Record record = result.next();
-                    Map<String, Object> item = new HashMap<>();
-                    item.put("itineraryId", record.get("itineraryId").asLong());
-                    item.put("likesCount", record.get("likesCount").asInt(0));
-                    item.put("matchReason", "Hot & Trending");
-                    item.put("relevanceScore", (double) record.get("likesCount").asInt(0));
-                    items.add(item);
-                }
-
-                return items;
-            });
-        } catch (Exception e) {
-            LOG.errorf(e, "Error getting trending itineraries");
+    public void invalidatePersonalizedFeed(String userEmail) {
+        if (userEmail != null) {
+            personalizedFeedCache.invalidate(userEmail).await().indefinitely();
         }
+    }
+
+    private List<Long> computeRankedFeed(String userEmail) {
+        return feedPipeline.rank(userEmail);
+    }
 
-        return results;
+    private Uni<List<Long>> computeRankedFeedReactive(String userEmail) {
+        return feedPipeline.rankAsync(userEmail);
     }
 
     /**
      * Fetch itinerary details from itinerary service.
      * Forwards the authentication header from the current request.
-     * The returned list has the exact same structure as itineraries from the itinerary service.
+     * The returned list has the exact same structure as itineraries from the itinerary service
+     * and keeps the order of the given ids.
      */
-    private List<FeedItemDTO> enrichWithItineraryDetails(List<Long> itineraryIds,
-                                                          List<Map<String, Object>> recommendations) {
+    private List<FeedItemDTO> enrichWithItineraryDetails(List<Long> itineraryIds) {
         if (itineraryIds.isEmpty()) {
             return new ArrayList<>();
         }
@@ -192,36 +220,10 @@ public class RecommendationService {
                 return new ArrayList<>();
             }
 
-            // Fetch itineraries from itinerary service
-            List<ItineraryDTO> itineraries = itineraryServiceClient.getItinerariesByIds(authHeader, itineraryIds);
-
-            // Create a map for maintaining the order from recommendations
-            Map<Long, ItineraryDTO> itineraryMap = itineraries.stream()
-                    .collect(Collectors.toMap(ItineraryDTO::getId, i -> i));
-
-            // Convert to FeedItemDTO maintaining the recommendation order
-            return recommendations.stream()
-                    .map(rec -> {
-                        Long id = (Long) rec.get("itineraryId");
-                        ItineraryDTO itinerary = itineraryMap.get(id);
-
-                        if (itinerary == null) {
-                            LOG.warnf("Itinerary %d not found in itinerary service", id);
-                            return null;
-                        }
-
-                        // Convert to FeedItemDTO - exact same structure as ItineraryDTO
-                        return FeedItemDTO.builder()
-                                .id(itinerary.getId())
-                                .title(itinerary.getTitle())
-                                .destination(itinerary.getDestination())
-                                .startDate(itinerary.getStartDate())
-                                .shortDescription(itinerary.getShortDescription())
-                                .detailedDescription(itinerary.getDetailedDescription())
-                                .build();
-                    })
-                    .filter(item -> item != null)
-                    .collect(Collectors.toList());
+            // Fetch itineraries from itinerary service, only for ids that are not cached locally
+            List<ItineraryDTO> itineraries = itineraryDetailsCache.getAll(itineraryIds,
+                    misses -> itineraryServiceClient.getItinerariesByIds(authHeader, misses));
+            return toFeedItems(itineraryIds, itineraries);
 
         } catch (Exception e) {
             LOG.errorf(e, "Error fetching itinerary details from itinerary service");
@@ -229,119 +231,73 @@ public class RecommendationService {
         }
     }
 
-    private List<Map<String, Object>> getCollaborativeFilteringRecommendations(String userEmail, Integer limit) {
-        LOG.debugf("Getting collaborative filtering recommendations for user: %s", userEmail);
-        // AGGRESSIVE OPTIMIZATION: Limit to top 15 most similar users to reduce combinatorial explosion
-        // With 68 likes/user average, looking at all users creates too many paths
-        String cypher = """
-            MATCH (u:User {email: $userEmail})-[:LIKES]->(i:Itinerary)<-[:LIKES]-(other:User)
-            WHERE u <> other
-            WITH other, COUNT(DISTINCT i) as commonLikes
-            ORDER BY commonLikes DESC
-            LIMIT 15
-            MATCH (other)-[:LIKES]->(rec:Itinerary)
-            WHERE NOT EXISTS((:User {email: $userEmail})-[:LIKES]->(rec))
-            WITH rec, COUNT(DISTINCT other) as commonUsers
-            MATCH (rec)<-[likes:LIKES]-()
-            WITH rec.id as itineraryId, commonUsers, COUNT(DISTINCT likes) as totalLikes
-            RETURN itineraryId,
-                   totalLikes,
-                   commonUsers,
-                   (commonUsers * 2.0 + totalLikes * 0.5) as relevanceScore
-            ORDER BY relevanceScore DESC
-            LIMIT $limit
-            """;
-        List<Map<String, Object>> results = new ArrayList<>();
-        try (Session session = neo4jDriver.session()) {
-            results = session.readTransaction(tx -> {
-                Map<String, Object> params = new HashMap<>();
-                params.put("userEmail", userEmail);
-                params.put("limit", limit);
-
-                Result result = tx.run(cypher, params);
-                List<Map<String, Object>> items = new ArrayList<>();
-
-                while (result.hasNext()) {
-                    Record record = result.next();
-                    Map<String, Object> item = new HashMap<>();
-                    item.put("itineraryId", record.get("itineraryId").asLong());
-                    item.put("likesCount", record.get("totalLikes").asInt(0));
-                    item.put("matchReason", String.format("Liked by %d users with similar taste",
-                            record.get("commonUsers").asInt(0)));
-                    item.put("relevanceScore", record.get("relevanceScore").asDouble(0.0));
-                    items.add(item);
-                }
-
-                return items;
-            });
-        } catch (Exception e) {
-            LOG.errorf(e, "Error getting collaborative filtering recommendations for user %s", userEmail);
+    private Uni<List<FeedItemDTO>> enrichWithItineraryDetailsReactive(List<Long> itineraryIds, String authHeader) {
+        if (itineraryIds.isEmpty()) {
+            return Uni.createFrom().item(new ArrayList<>());
         }
-        return results;
-    }
-    private List<Map<String, Object>> getLocationBasedRecommendations(String userEmail, Integer limit) {
-        LOG.debugf("Getting location-based recommendations for user: %s", userEmail);
-        // OPTIMIZED: Direct relationship counting + limited location collection
-        String cypher = """
-            MATCH (u:User {email: $userEmail})-[:VISITED]->(loc:Location)<-[:INCLUDES]-(i:Itinerary)
-            WHERE NOT (u)-[:LIKES]->(i) AND NOT (u)-[:CREATED]->(i)
-            WITH i, COUNT(DISTINCT loc) as commonLocations
-            MATCH (i)<-[likes:LIKES]-()
-            MATCH (i)-[:INCLUDES]->(location:Location)
-            WITH i.id as itineraryId, 
-                 commonLocations,
-                 COUNT(DISTINCT likes) as totalLikes,
-                 COLLECT(DISTINCT location.name)[..3] as locations
-            RETURN itineraryId,
-                   totalLikes,
-                   locations,
-                   commonLocations,
-                   (commonLocations * 3.0 + totalLikes * 0.3) as relevanceScore
-            ORDER BY relevanceScore DESC
-            LIMIT $limit
-            """;
-        List<Map<String, Object>> results = new ArrayList<>();
-        try (Session session = neo4jDriver.session()) {
-            results = session.readTransaction(tx -> {
-                Map<String, Object> params = new HashMap<>();
-                params.put("userEmail", userEmail);
-                params.put("limit", limit);
-
-                Result result = tx.run(cypher, params);
-                List<Map<String, Object>> items = new ArrayList<>();
-
-                while (result.hasNext()) {
-                    Record record = result.next();
-                    List<String> locations = record.get("locations").asList(v -> v.asString());
-                    Map<String, Object> item = new HashMap<>();
-                    item.put("itineraryId", record.get("itineraryId").asLong());
-                    item.put("likesCount", record.get("totalLikes").asInt(0));
-                    item.put("matchReason", String.format("Includes %d location(s) you visited: %s",
-                            record.get("commonLocations").asInt(0),
-                            locations.stream().limit(2).collect(Collectors.joining(", "))));
-                    item.put("relevanceScore", record.get("relevanceScore").asDouble(0.0));
-                    items.add(item);
-                }
-
-                return items;
-            });
-        } catch (Exception e) {
-            LOG.errorf(e, "Error getting location-based recommendations for user %s", userEmail);
+        if (authHeader == null || authHeader.isEmpty()) {
+            LOG.warn("No authorization header available to forward to itinerary service");
+            return Uni.createFrom().item(new ArrayList<>());
         }
-        return results;
+
+        return itineraryDetailsCache.getAllAsync(itineraryIds,
+                        misses -> itineraryServiceClient.getItinerariesByIdsAsync(authHeader, misses))
+                .map(itineraries -> toFeedItems(itineraryIds, itineraries))
+                .onFailure().recoverWithItem(e -> {
+                    LOG.errorf(e, "Error fetching itinerary details from itinerary service");
+                    return new ArrayList<>();
+                });
+    }
+
+    /**
+     * Converts itineraries to feed items in the order of the given ids.
+     */
+    private List<FeedItemDTO> toFeedItems(List<Long> itineraryIds, List<ItineraryDTO> itineraries) {
+        // Create a map for maintaining the order from recommendations
+        Map<Long, ItineraryDTO> itineraryMap = itineraries.stream()
+                .collect(Collectors.toMap(ItineraryDTO::getId, i -> i, (first, second) -> first));
+
+        // Convert to FeedItemDTO maintaining the recommendation order
+        return itineraryIds.stream()
+                .map(id -> {
+                    ItineraryDTO itinerary = itineraryMap.get(id);
+
+                    if (itinerary == null) {
+                        LOG.warnf("Itinerary %d not found in itinerary service", id);
+                        return null;
+                    }
+
+                    // Convert to FeedItemDTO - exact same structure as ItineraryDTO
+                    return FeedItemDTO.builder()
+                            .id(itinerary.getId())
+                            .title(itinerary.getTitle())
+                            .destination(itinerary.getDestination())
+                            .startDate(itinerary.getStartDate())
+                            .shortDescription(itinerary.getShortDescription())
+                            .detailedDescription(itinerary.getDetailedDescription())
+                            .build();
+                })
+                .filter(item -> item != null)
+                .collect(Collectors.toList());
     }
+
     public FeedResponseDTO getPopularFeed() {
-        LOG.info("Generating popular feed");
+        return getPopularFeed(null);
+    }
 
-        List<Map<String, Object>> popularRecommendations = getPopularItineraries();
+    /**
+     * @param window only count likes given within this duration before now, or null for all likes
+     */
+    public FeedResponseDTO getPopularFeed(Duration window) {
+        LOG.infof("Generating popular feed (window: %s)", window);
 
-        // Extract itinerary IDs
-        List<Long> itineraryIds = popularRecommendations.stream()
-                .map(rec -> (Long) rec.get("itineraryId"))
-                .collect(Collectors.toList());
+        // Only the ranking is shared; each caller enriches with their own token
+        List<Long> itineraryIds = singleFlightEnabled
+                ? popularFlight.execute(popularFlightKey(window), () -> rankPopularFeed(window))
+                : rankPopularFeed(window);
 
         // Fetch full itinerary details
-        List<FeedItemDTO> feedItems = enrichWithItineraryDetails(itineraryIds, popularRecommendations);
+        List<FeedItemDTO> feedItems = enrichWithItineraryDetails(itineraryIds);
 
         return FeedResponseDTO.builder()
                 .items(feedItems)
@@ -349,42 +305,87 @@ public class RecommendationService {
                 .build();
     }
 
-    private List<Map<String, Object>> getPopularItineraries() {
+    private List<Long> rankPopularFeed(Duration window) {
+        List<Candidate> popularRecommendations = window == null
+                ? getPopularItineraries()
+                : cypherRecommender.getPopularItinerariesSince(windowStart(window), maxFeedItems);
+
+        return popularRecommendations.stream()
+                .map(Candidate::itineraryId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Non-blocking variant of {@link #getPopularFeed()}.
+     */
+    public Uni<FeedResponseDTO> getPopularFeedReactive() {
+        return getPopularFeedReactive(null);
+    }
+
+    /**
+     * Non-blocking variant of {@link #getPopularFeed(Duration)}.
+     */
+    public Uni<FeedResponseDTO> getPopularFeedReactive(Duration window) {
+        String authHeader = authorizationHeaderHolder.getAuthorizationHeader();
+        LOG.infof("Generating popular feed (reactive, window: %s)", window);
+
+        Uni<List<Long>> itineraryIds = singleFlightEnabled
+                ? popularFlight.executeAsync(popularFlightKey(window), () -> rankPopularFeedReactive(window))
+                : rankPopularFeedReactive(window);
+        return enrichPopularFeed(itineraryIds, authHeader);
+    }
+
+    /**
+     * Computes the popular feed without single-flight, enriching with the given token.
+     * Also used by {@link PopularFeedSnapshot} to rebuild outside of a request.
+     */
+    Uni<FeedResponseDTO> computePopularFeedReactive(Duration window, String authHeader) {
+        LOG.infof("Generating popular feed (reactive, window: %s)", window);
+        return enrichPopularFeed(rankPopularFeedReactive(window), authHeader);
+    }
+
+    private Uni<List<Long>> rankPopularFeedReactive(Duration window) {
+        Uni<List<Candidate>> popular = window == null
+                ? getPopularItinerariesAsync()
+                : cypherRecommender.getPopularItinerariesSinceAsync(windowStart(window), maxFeedItems);
+
+        return popular.map(popularRecommendations -> popularRecommendations.stream()
+                .map(Candidate::itineraryId)
+                .collect(Collectors.toList()));
+    }
+
+    private Uni<FeedResponseDTO> enrichPopularFeed(Uni<List<Long>> itineraryIds, String authHeader) {
+        return itineraryIds
+                .chain(ids -> enrichWithItineraryDetailsReactive(ids, authHeader))
+                .map(feedItems -> FeedResponseDTO.builder()
+                        .items(feedItems)
+                        .totalItems(feedItems.size())
+                        .build());
+    }
+
+    private List<Candidate> getPopularItineraries() {
         LOG.debugf("Getting popular itineraries, limit: %d", maxFeedItems);
-        // OPTIMIZED: Direct relationship counting instead of pattern comprehension
-        String cypher = """
-            MATCH (i:Itinerary)<-[likes:LIKES]-()
-            WITH i.id as itineraryId, COUNT(likes) as likesCount
-            WHERE likesCount > 0
-            RETURN itineraryId,
-                   likesCount
-            ORDER BY likesCount DESC
-            LIMIT $limit
-            """;
-        List<Map<String, Object>> results = new ArrayList<>();
-        try (Session session = neo4jDriver.session()) {
-            results = session.readTransaction(tx -> {
-                Map<String, Object> params = new HashMap<>();
-                params.put("limit", maxFeedItems);
-
-                Result result = tx.run(cypher, params);
-                List<Map<String, Object>> items = new ArrayList<>();
-
-                while (result.hasNext()) {
-                    Record record = result.next();
-                    Map<String, Object> item = new HashMap<>();
-                    item.put("itineraryId", record.get("itineraryId").asLong());
-                    item.put("likesCount", record.get("likesCount").asInt(0));
-                    item.put("matchReason", "Popular itinerary");
-                    item.put("relevanceScore", (double) record.get("likesCount").asInt(0));
-                    items.add(item);
-                }
-
-                return items;
-            });
-        } catch (Exception e) {
-            LOG.errorf(e, "Error getting popular itineraries");
+        if (inMemoryRecommender.isTrendingIndexAvailable()) {
+            return inMemoryRecommender.getPopularFromIndex(maxFeedItems);
+        }
+        if (inMemoryRecommender.isAvailable()) {
+            return inMemoryRecommender.getPopularItineraries(maxFeedItems);
+        }
+        return cypherRecommender.getPopularItineraries(maxFeedItems);
+    }
+
+    private static String popularFlightKey(Duration window) {
+        return window == null ? "all" : window.toString();
+    }
+
+    private static ZonedDateTime windowStart(Duration window) {
+        return ZonedDateTime.now(ZoneOffset.UTC).minus(window);
+    }
+
+    private Uni<List<Candidate>> getPopularItinerariesAsync() {
+        if (inMemoryRecommender.isTrendingIndexAvailable() || inMemoryRecommender.isAvailable()) {
+            return Uni.createFrom().item(this::getPopularItineraries);
         }
-        return results;
+        return cypherRecommender.getPopularItinerariesAsync(maxFeedItems);
     }
 }
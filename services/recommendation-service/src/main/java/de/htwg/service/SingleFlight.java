@@ -0,0 +1,84 @@
+package de.htwg.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent computations of the same key: the first caller (the leader) computes,
+ * callers arriving while it is in flight wait for and share its result. Nothing is kept once the
+ * computation completes, so later callers compute again.
+ *
+ * Requests are counted as {@code feed.singleflight.requests}, tagged with the flight name and
+ * whether the request computed ({@code leader}) or was absorbed by an in-flight computation ({@code absorbed}).
+ */
+final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter absorbed;
+
+    SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.leaders = counter(name, "leader", meterRegistry);
+        this.absorbed = counter(name, "absorbed", meterRegistry);
+    }
+
+    V execute(K key, Supplier<V> computation) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            absorbed.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        leaders.increment();
+        try {
+            V value = computation.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #execute(Object, Supplier)}. The leader subscribes the computation
+     * on behalf of everyone, so a cancelled subscriber (e.g. a closed connection) does not cancel it for the others.
+     */
+    Uni<V> executeAsync(K key, Supplier<Uni<V>> computation) {
+        return Uni.createFrom().deferred(() -> {
+            CompletableFuture<V> flight = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+            if (existing != null) {
+                absorbed.increment();
+                return Uni.createFrom().completionStage(existing.copy());
+            }
+
+            leaders.increment();
+            flight.whenComplete((value, failure) -> inFlight.remove(key, flight));
+            computation.get().subscribe().with(flight::complete, flight::completeExceptionally);
+            return Uni.createFrom().completionStage(flight.copy());
+        });
+    }
+
+    private static Counter counter(String name, String result, MeterRegistry meterRegistry) {
+        return Counter.builder("feed.singleflight.requests")
+                .description("Feed computations requested, by whether they ran or joined an in-flight one")
+                .tag("flight", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,129 @@
+package de.htwg.startup;
+
+import de.htwg.graph.GraphMirror;
+import de.htwg.graph.LocationIndex;
+import de.htwg.graph.Timestamps;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bulk-loads the in-memory {@link GraphMirror} from Neo4j on application startup, and again on every
+ * run of {@link de.htwg.scheduler.GraphMirrorReloadJob}.
+ * Each relationship type is streamed in a single read transaction; the loaded rows only replace the
+ * mirror's if every load succeeded, and until the first success recommendations keep using Cypher.
+ * The {@link LocationIndex} is rebuilt from the loaded mirror right after.
+ */
+@ApplicationScoped
+public class GraphMirrorLoader {
+
+    private static final Logger LOG = Logger.getLogger(GraphMirrorLoader.class);
+
+    @Inject
+    Driver neo4jDriver;
+
+    @Inject
+    GraphMirror graphMirror;
+
+    @Inject
+    LocationIndex locationIndex;
+
+    void onStart(@Observes StartupEvent ev) {
+        if (!graphMirror.isEnabled()) {
+            LOG.info("Graph mirror disabled, recommendations will use Cypher queries only");
+            return;
+        }
+        LOG.info("Loading graph mirror from Neo4j...");
+        if (!load()) {
+            // Don't fail startup - recommendations still work against Neo4j directly until a reload succeeds
+            LOG.warn("Falling back to Cypher recommendations until the graph mirror is loaded");
+        }
+    }
+
+    /**
+     * Streams the whole graph into fresh mirror rows and swaps them in, then rebuilds the location index.
+     * Used for the startup load and the periodic reload; the current rows keep serving until the swap.
+     *
+     * @return true if the mirror was loaded, false if the load failed or another one is in progress
+     */
+    public boolean load() {
+        GraphMirror.Reload reload = graphMirror.beginReload();
+        if (reload == null) {
+            LOG.debug("Graph mirror load already in progress, skipping");
+            return false;
+        }
+        long start = System.currentTimeMillis();
+
+        try {
+            int likes = stream("""
+                    MATCH (u:User)-[r:LIKES]->(i:Itinerary)
+                    WHERE u.email IS NOT NULL AND i.id IS NOT NULL
+                    RETURN u.email AS email, i.id AS itineraryId, r.timestamp AS timestamp
+                    """, record -> reload.addLike(
+                    record.get("email").asString(),
+                    record.get("itineraryId").asLong(),
+                    Timestamps.toEpochMillis(record.get("timestamp").asObject())));
+
+            int created = stream("""
+                    MATCH (u:User)-[:CREATED]->(i:Itinerary)
+                    WHERE u.email IS NOT NULL AND i.id IS NOT NULL
+                    RETURN u.email AS email, i.id AS itineraryId
+                    """, record -> reload.addItinerary(
+                    record.get("email").asString(),
+                    record.get("itineraryId").asLong(),
+                    null));
+
+            int includes = stream("""
+                    MATCH (i:Itinerary)-[:INCLUDES]->(l:Location)
+                    WHERE i.id IS NOT NULL AND l.name IS NOT NULL
+                    RETURN i.id AS itineraryId, l.name AS location
+                    """, record -> reload.addItinerary(
+                    null,
+                    record.get("itineraryId").asLong(),
+                    List.of(record.get("location").asString())));
+
+            int visited = stream("""
+                    MATCH (u:User)-[:VISITED]->(l:Location)
+                    WHERE u.email IS NOT NULL AND l.name IS NOT NULL
+                    RETURN u.email AS email, l.name AS location
+                    """, record -> reload.addVisits(
+                    record.get("email").asString(),
+                    List.of(record.get("location").asString())));
+
+            graphMirror.finishReload(reload);
+            LOG.infof("Graph mirror loaded in %d ms (%d likes, %d created, %d includes, %d visited rows)",
+                    System.currentTimeMillis() - start, likes, created, includes, visited);
+
+            locationIndex.rebuild(graphMirror);
+        } catch (Exception e) {
+            // No-op once the rows were swapped in and only the location index rebuild failed
+            graphMirror.abortReload(reload);
+            LOG.error("Failed to load graph mirror from Neo4j", e);
+            return false;
+        }
+        return true;
+    }
+
+    private int stream(String cypher, Consumer<Record> consumer) {
+        try (Session session = neo4jDriver.session()) {
+            return session.readTransaction(tx -> {
+                Result result = tx.run(cypher);
+                int rows = 0;
+                while (result.hasNext()) {
+                    consumer.accept(result.next());
+                    rows++;
+                }
+                return rows;
+            });
+        }
+    }
+}
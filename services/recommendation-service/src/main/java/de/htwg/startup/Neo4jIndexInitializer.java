@@ -31,9 +31,16 @@ public class Neo4jIndexInitializer {
                 // Index on Itinerary.id (used in graph operations)
                 tx.run("CREATE INDEX itinerary_id IF NOT EXISTS FOR (i:Itinerary) ON (i.id)");
                 
+                // Range index on Itinerary.likesCount (index-ordered top-N for trending and popular)
+                tx.run("CREATE RANGE INDEX itinerary_likes_count IF NOT EXISTS FOR (i:Itinerary) ON (i.likesCount)");
+                
                 // Index on Location.name (used in location-based recommendations)
                 tx.run("CREATE INDEX location_name IF NOT EXISTS FOR (l:Location) ON (l.name)");
                 
+                // Range indexes on LIKES/VISITED timestamps (windowed trending, recent activity)
+                tx.run("CREATE RANGE INDEX likes_timestamp IF NOT EXISTS FOR ()-[r:LIKES]-() ON (r.timestamp)");
+                tx.run("CREATE RANGE INDEX visited_timestamp IF NOT EXISTS FOR ()-[v:VISITED]-() ON (v.timestamp)");
+                
                 LOG.info("✅ Neo4j indexes created successfully");
                 return null;
             });
@@ -0,0 +1,71 @@
+package de.htwg.startup;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * Converts LIKES and VISITED timestamps stored as ISO strings (the former {@code LocalDateTime.now().toString()})
+ * into native Neo4j {@code datetime} values on startup, so the timestamp range indexes cover them.
+ * Strings are interpreted in the JVM's default zone, the same way {@link de.htwg.graph.Timestamps} reads them.
+ * Relationships are converted in batches of {@code recommendation.graph.timestamp-migration.batch-size},
+ * each in its own transaction; once nothing is left the migration is a single cheap query per type.
+ */
+@ApplicationScoped
+public class TimestampMigration {
+
+    private static final Logger LOG = Logger.getLogger(TimestampMigration.class);
+
+    @Inject
+    Driver neo4jDriver;
+
+    @ConfigProperty(name = "recommendation.graph.timestamp-migration.batch-size", defaultValue = "10000")
+    int batchSize;
+
+    void onStart(@Observes StartupEvent ev) {
+        try {
+            long likes = migrate("LIKES");
+            long visits = migrate("VISITED");
+            if (likes > 0 || visits > 0) {
+                LOG.infof("Migrated string timestamps to datetime: %d likes, %d visits", likes, visits);
+            }
+        } catch (Exception e) {
+            LOG.error("Failed to migrate string timestamps to datetime", e);
+            // Don't fail startup - readers accept both representations, the next start retries
+        }
+    }
+
+    private long migrate(String relationshipType) {
+        String cypher = """
+            MATCH ()-[r:%s]->()
+            WHERE r.timestamp IS :: STRING
+            WITH r
+            LIMIT $batchSize
+            SET r.timestamp = datetime({datetime: localdatetime(r.timestamp), timezone: $timezone})
+            RETURN count(r) AS migrated
+            """.formatted(relationshipType);
+        Map<String, Object> params = Map.of(
+                "batchSize", batchSize,
+                "timezone", ZoneId.systemDefault().getId());
+
+        long total = 0;
+        try (Session session = neo4jDriver.session()) {
+            while (true) {
+                long migrated = session.writeTransaction(tx ->
+                        tx.run(cypher, params).single().get("migrated").asLong());
+                total += migrated;
+                if (migrated < batchSize) {
+                    return total;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package de.htwg.telemetry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.summary.Plan;
+import org.neo4j.driver.summary.ProfiledPlan;
+import org.neo4j.driver.summary.ResultSummary;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-query telemetry for Cypher statements, taken from the driver's {@link ResultSummary}.
+ *
+ * Usage: {@link #start} a named execution, run {@link QueryExecution#cypher()} with its parameters,
+ * and pass the summary (and the number of returned rows) to {@link #record}. A configurable fraction
+ * of executions is run with {@code PROFILE} to also capture db hits and the executed plan.
+ *
+ * Published meters, all tagged with {@code query}:
+ * {@code neo4j.query.duration} (client side, start to record), {@code neo4j.query.available} and
+ * {@code neo4j.query.consumed} (server side timings), {@code neo4j.query.rows}, {@code neo4j.query.db.hits}
+ * (profiled executions only) and {@code neo4j.query.slow}. Slow executions are logged with their plan;
+ * if the execution was not profiled, the plan is fetched with {@code EXPLAIN}, at most once a minute per query.
+ */
+@ApplicationScoped
+public class QueryTelemetry {
+
+    private static final Logger LOG = Logger.getLogger(QueryTelemetry.class);
+
+    private static final long EXPLAIN_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    Driver neo4jDriver;
+
+    @ConfigProperty(name = "recommendation.neo4j.telemetry.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "recommendation.neo4j.telemetry.profile-sample-rate", defaultValue = "0.01")
+    double profileSampleRate;
+
+    @ConfigProperty(name = "recommendation.neo4j.telemetry.slow-query-ms", defaultValue = "250")
+    long slowQueryMs;
+
+    private final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+
+    /**
+     * A started query execution.
+     */
+    public record QueryExecution(String name, String statement, Map<String, Object> params,
+                                 boolean profiled, long startNanos) {
+
+        /**
+         * The statement to run, prefixed with {@code PROFILE} if this execution was sampled.
+         */
+        public String cypher() {
+            return profiled ? "PROFILE " + statement : statement;
+        }
+    }
+
+    public QueryExecution start(String name, String cypher, Map<String, Object> params) {
+        boolean profiled = enabled && profileSampleRate > 0
+                && ThreadLocalRandom.current().nextDouble() < profileSampleRate;
+        return new QueryExecution(name, cypher, params, profiled, System.nanoTime());
+    }
+
+    public void record(QueryExecution execution, ResultSummary summary, int rows) {
+        if (!enabled) {
+            return;
+        }
+        long durationNanos = System.nanoTime() - execution.startNanos();
+        String name = execution.name();
+
+        timer("neo4j.query.duration", "Client-side duration of a Cypher query", name)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+        long availableAfter = summary.resultAvailableAfter(TimeUnit.MICROSECONDS);
+        if (availableAfter >= 0) {
+            timer("neo4j.query.available", "Server time until the first record was available", name)
+                    .record(availableAfter, TimeUnit.MICROSECONDS);
+        }
+        long consumedAfter = summary.resultConsumedAfter(TimeUnit.MICROSECONDS);
+        if (consumedAfter >= 0) {
+            timer("neo4j.query.consumed", "Server time until all records were consumed", name)
+                    .record(consumedAfter, TimeUnit.MICROSECONDS);
+        }
+        DistributionSummary.builder("neo4j.query.rows")
+                .description("Records returned by a Cypher query")
+                .tag("query", name)
+                .register(meterRegistry)
+                .record(rows);
+
+        long dbHits = -1;
+        if (summary.hasProfile()) {
+            dbHits = totalDbHits(summary.profile());
+            DistributionSummary.builder("neo4j.query.db.hits")
+                    .description("Database hits of a profiled Cypher query")
+                    .tag("query", name)
+                    .register(meterRegistry)
+                    .record(dbHits);
+        }
+
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        if (durationMs >= slowQueryMs) {
+            Counter.builder("neo4j.query.slow")
+                    .description("Cypher queries slower than the slow-query threshold")
+                    .tag("query", name)
+                    .register(meterRegistry)
+                    .increment();
+            logSlowQuery(execution, summary, rows, durationMs, dbHits);
+        }
+    }
+
+    private void logSlowQuery(QueryExecution execution, ResultSummary summary, int rows, long durationMs, long dbHits) {
+        String header = String.format("Slow query '%s': %d ms (available after %d ms, consumed after %d ms), %d rows%s",
+                execution.name(), durationMs,
+                summary.resultAvailableAfter(TimeUnit.MILLISECONDS),
+                summary.resultConsumedAfter(TimeUnit.MILLISECONDS),
+                rows, dbHits >= 0 ? ", " + dbHits + " db hits" : "");
+
+        if (summary.hasProfile()) {
+            LOG.warnf("%s%nProfile:%n%s", header, render(summary.profile()));
+            return;
+        }
+
+        long now = System.nanoTime();
+        Long last = lastExplained.get(execution.name());
+        if (last != null && now - last < EXPLAIN_INTERVAL_NANOS) {
+            LOG.warn(header);
+            return;
+        }
+        lastExplained.put(execution.name(), now);
+
+        // EXPLAIN only plans the statement, so it is safe for writes too; run it off the caller's thread
+        Thread.ofVirtual().name("neo4j-explain").start(() -> {
+            try (Session session = neo4jDriver.session()) {
+                ResultSummary explained = session.run("EXPLAIN " + execution.statement(), execution.params()).consume();
+                LOG.warnf("%s%nPlan:%n%s", header, explained.hasPlan() ? render(explained.plan()) : "(none)");
+            } catch (Exception e) {
+                LOG.warnf("%s (plan unavailable: %s)", header, e.getMessage());
+            }
+        });
+    }
+
+    private Timer timer(String meter, String description, String name) {
+        return Timer.builder(meter)
+                .description(description)
+                .tag("query", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static long totalDbHits(ProfiledPlan plan) {
+        long hits = plan.dbHits();
+        for (ProfiledPlan child : plan.children()) {
+            hits += totalDbHits(child);
+        }
+        return hits;
+    }
+
+    private static String render(Plan plan) {
+        StringBuilder out = new StringBuilder();
+        render(plan, 0, out);
+        return out.toString();
+    }
+
+    private static void render(Plan plan, int depth, StringBuilder out) {
+        out.append("  ".repeat(depth + 1)).append(plan.operatorType());
+        if (plan instanceof ProfiledPlan profiled) {
+            out.append(" (rows=").append(profiled.records())
+                    .append(", dbHits=").append(profiled.dbHits()).append(')');
+        }
+        if (!plan.identifiers().isEmpty()) {
+            out.append(' ').append(plan.identifiers());
+        }
+        out.append('\n');
+        for (Plan child : plan.children()) {
+            render(child, depth + 1, out);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package de.htwg.graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsrAdjacencyTest {
+
+    // Edges 0->2 (t=20), 0->1 (t=10), 2->0 (t=30), 0->3 (t=40), given out of order
+    private final CsrAdjacency adjacency = CsrAdjacency.build(3, 4,
+            new int[]{0, 2, 0, 0}, new int[]{2, 0, 1, 3}, new long[]{20L, 30L, 10L, 40L}, 4);
+
+    @Test
+    void testBuildSortsRowsByTarget() {
+        assertEquals(3, adjacency.nodeCount());
+        assertEquals(4, adjacency.edgeCount());
+        assertArrayEquals(new int[]{1, 2, 3}, row(adjacency, 0));
+        assertArrayEquals(new int[]{}, row(adjacency, 1));
+        assertArrayEquals(new int[]{0}, row(adjacency, 2));
+    }
+
+    @Test
+    void testBuildKeepsTimesWithTheirEdges() {
+        assertTrue(adjacency.hasTimes());
+        assertEquals(10L, adjacency.time(adjacency.start(0)));
+        assertEquals(20L, adjacency.time(adjacency.start(0) + 1));
+        assertEquals(40L, adjacency.time(adjacency.start(0) + 2));
+        assertEquals(30L, adjacency.time(adjacency.start(2)));
+    }
+
+    @Test
+    void testBuildIgnoresEntriesBeyondEdgeCount() {
+        CsrAdjacency partial = CsrAdjacency.build(2, 2, new int[]{0, 1, 1}, new int[]{1, 0, 1}, null, 2);
+
+        assertEquals(2, partial.edgeCount());
+        assertFalse(partial.hasTimes());
+        assertEquals(0L, partial.time(0));
+        assertArrayEquals(new int[]{0}, row(partial, 1));
+    }
+
+    @Test
+    void testContains() {
+        assertTrue(adjacency.contains(0, 1));
+        assertTrue(adjacency.contains(0, 3));
+        assertFalse(adjacency.contains(0, 0));
+        assertFalse(adjacency.contains(1, 2));
+        assertTrue(adjacency.contains(2, 0));
+    }
+
+    @Test
+    void testTransposeReversesEdgesAndSortsRowsBySource() {
+        CsrAdjacency reverse = adjacency.transpose(4);
+
+        assertEquals(4, reverse.nodeCount());
+        assertEquals(4, reverse.edgeCount());
+        assertArrayEquals(new int[]{2}, row(reverse, 0));
+        assertArrayEquals(new int[]{0}, row(reverse, 1));
+        assertArrayEquals(new int[]{0}, row(reverse, 2));
+        assertArrayEquals(new int[]{0}, row(reverse, 3));
+        assertEquals(30L, reverse.time(reverse.start(0)));
+        assertEquals(40L, reverse.time(reverse.start(3)));
+    }
+
+    @Test
+    void testEmpty() {
+        CsrAdjacency empty = CsrAdjacency.empty(3);
+
+        assertEquals(3, empty.nodeCount());
+        assertEquals(0, empty.edgeCount());
+        assertEquals(0, empty.degree(2));
+        assertFalse(empty.contains(1, 0));
+    }
+
+    private static int[] row(CsrAdjacency adjacency, int node) {
+        int[] row = new int[adjacency.degree(node)];
+        for (int k = 0; k < row.length; k++) {
+            row[k] = adjacency.target(adjacency.start(node) + k);
+        }
+        return row;
+    }
+}
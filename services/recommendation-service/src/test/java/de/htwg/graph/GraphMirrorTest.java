@@ -0,0 +1,169 @@
+package de.htwg.graph;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphMirrorTest {
+
+    private GraphMirror mirror;
+
+    @BeforeEach
+    void setUp() {
+        mirror = new GraphMirror();
+        mirror.enabled = true;
+        mirror.maxStalenessMs = 0L;
+        mirror.init();
+    }
+
+    @Test
+    void testNotReadyBeforeFirstLoad() {
+        mirror.addLike("a@example.com", 1L, 100L);
+
+        assertFalse(mirror.isReady());
+        assertEquals(0L, mirror.loadedAt());
+    }
+
+    @Test
+    void testSnapshotReflectsLikesAndReverseDirection() {
+        mirror.finishReload(mirror.beginReload());
+        mirror.addLike("a@example.com", 1L, 100L);
+        mirror.addLike("b@example.com", 1L, 200L);
+        mirror.addItinerary("a@example.com", 2L, List.of("Paris", "Rome"));
+
+        CsrGraph graph = mirror.snapshot();
+
+        assertTrue(mirror.isReady());
+        assertEquals(2, graph.userCount());
+        assertEquals(2, graph.itineraryCount());
+        assertEquals(2, graph.locationCount());
+        int itinerary = graph.itineraryIndex(1L);
+        assertEquals(2, graph.likedBy().degree(itinerary));
+        assertTrue(graph.created().contains(graph.userIndex("a@example.com"), graph.itineraryIndex(2L)));
+        assertEquals(2, graph.includes().degree(graph.itineraryIndex(2L)));
+    }
+
+    @Test
+    void testAddLikeMovesTimestampOfExistingLike() {
+        assertEquals(-1L, mirror.addLike("a@example.com", 1L, 100L));
+        assertEquals(100L, mirror.addLike("a@example.com", 1L, 300L));
+
+        CsrGraph graph = mirror.snapshot();
+        int user = graph.userIndex("a@example.com");
+        assertEquals(1, graph.likes().degree(user));
+        assertEquals(300L, graph.likes().time(graph.likes().start(user)));
+    }
+
+    @Test
+    void testRemoveLike() {
+        mirror.addLike("a@example.com", 1L, 100L);
+        CsrGraph before = mirror.snapshot();
+
+        assertEquals(100L, mirror.removeLike("a@example.com", 1L));
+        assertEquals(-1L, mirror.removeLike("a@example.com", 1L));
+        assertEquals(-1L, mirror.removeLike("unknown@example.com", 1L));
+
+        CsrGraph after = mirror.snapshot();
+        assertEquals(before.version() + 1, after.version());
+        assertEquals(0, after.likes().edgeCount());
+        assertEquals(1, before.likes().edgeCount());
+    }
+
+    @Test
+    void testSnapshotIsReusedWithinStalenessBound() {
+        mirror.maxStalenessMs = 60_000L;
+        mirror.addLike("a@example.com", 1L, 100L);
+        CsrGraph first = mirror.snapshot();
+
+        mirror.addLike("b@example.com", 1L, 200L);
+
+        assertSame(first, mirror.snapshot());
+    }
+
+    @Test
+    void testSnapshotForReflectsTheUsersOwnWrites() {
+        mirror.maxStalenessMs = 60_000L;
+        mirror.addLike("a@example.com", 1L, 100L);
+        CsrGraph first = mirror.snapshot();
+
+        mirror.addLike("b@example.com", 2L, 200L);
+
+        assertSame(first, mirror.snapshotFor("a@example.com"));
+        CsrGraph fresh = mirror.snapshotFor("b@example.com");
+        assertNotSame(first, fresh);
+        assertTrue(fresh.likes().contains(fresh.userIndex("b@example.com"), fresh.itineraryIndex(2L)));
+        // Later readers within the staleness bound get the fresh snapshot as well
+        assertSame(fresh, mirror.snapshot());
+    }
+
+    @Test
+    void testReloadReplacesRowsAndKeepsConcurrentWrites() {
+        mirror.addLike("a@example.com", 1L, 100L);
+        mirror.addLike("stale@example.com", 9L, 100L);
+
+        GraphMirror.Reload reload = mirror.beginReload();
+        assertNull(mirror.beginReload());
+        reload.addLike("a@example.com", 1L, 100L);
+        reload.addVisits("a@example.com", List.of("Paris"));
+        // Written while the reload streams: must survive the swap
+        mirror.addLike("c@example.com", 3L, 500L);
+        mirror.finishReload(reload);
+
+        CsrGraph graph = mirror.snapshot();
+        assertTrue(mirror.isReady());
+        // Ids gone from Neo4j keep their index, with empty rows
+        assertEquals(0, graph.likes().degree(graph.userIndex("stale@example.com")));
+        assertEquals(0, graph.likedBy().degree(graph.itineraryIndex(9L)));
+        assertTrue(graph.likes().contains(graph.userIndex("c@example.com"), graph.itineraryIndex(3L)));
+        assertTrue(graph.visited().contains(graph.userIndex("a@example.com"), graph.locationIndex("Paris")));
+        assertEquals(2, graph.likes().edgeCount());
+    }
+
+    @Test
+    void testAbortedReloadKeepsCurrentRows() {
+        mirror.addLike("a@example.com", 1L, 100L);
+
+        GraphMirror.Reload reload = mirror.beginReload();
+        reload.addLike("b@example.com", 2L, 100L);
+        mirror.abortReload(reload);
+
+        CsrGraph graph = mirror.snapshot();
+        // The aborted load's ids stay in the dictionary, without any rows
+        assertEquals(0, graph.likes().degree(graph.userIndex("b@example.com")));
+        assertEquals(1, graph.likes().edgeCount());
+        assertNotNull(mirror.beginReload());
+        assertThrows(IllegalStateException.class, () -> mirror.finishReload(reload));
+    }
+
+    @Test
+    void testReloadKeepsIndexesOfKnownIds() {
+        mirror.addLike("a@example.com", 1L, 100L);
+        mirror.addLike("b@example.com", 2L, 100L);
+        mirror.addItinerary("b@example.com", 3L, List.of("Paris", "Rome"));
+        CsrGraph before = mirror.snapshot();
+
+        // Neo4j streams the rows in a different order than they were written
+        GraphMirror.Reload reload = mirror.beginReload();
+        reload.addItinerary("b@example.com", 3L, List.of("Rome", "Paris"));
+        reload.addLike("c@example.com", 4L, 100L);
+        reload.addLike("b@example.com", 2L, 100L);
+        reload.addLike("a@example.com", 1L, 100L);
+        // A new id written while the reload streams gets the same index in both rows
+        mirror.addLike("d@example.com", 5L, 100L);
+        mirror.finishReload(reload);
+
+        CsrGraph after = mirror.snapshot();
+        for (long id = 1L; id <= 3L; id++) {
+            assertEquals(before.itineraryIndex(id), after.itineraryIndex(id));
+        }
+        assertEquals(before.userIndex("b@example.com"), after.userIndex("b@example.com"));
+        assertEquals(before.locationIndex("Rome"), after.locationIndex("Rome"));
+        assertEquals(5, after.itineraryCount());
+        assertTrue(after.likes().contains(after.userIndex("c@example.com"), after.itineraryIndex(4L)));
+        assertTrue(after.likes().contains(after.userIndex("d@example.com"), after.itineraryIndex(5L)));
+        assertEquals(4, after.likes().edgeCount());
+    }
+}
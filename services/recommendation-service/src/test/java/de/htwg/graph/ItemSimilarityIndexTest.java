@@ -0,0 +1,145 @@
+package de.htwg.graph;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSimilarityIndexTest {
+
+    private GraphMirror mirror;
+    private ItemSimilarityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        mirror = new GraphMirror();
+        mirror.enabled = true;
+        mirror.maxStalenessMs = 0L;
+        mirror.init();
+        mirror.finishReload(mirror.beginReload());
+
+        index = new ItemSimilarityIndex();
+        index.enabled = true;
+        index.topK = 20;
+        index.minCoLikes = 2;
+        index.graphMirror = mirror;
+    }
+
+    @Test
+    void testRebuildComputesJaccardSimilarity() {
+        like("a@example.com", 1L);
+        like("a@example.com", 2L);
+        like("b@example.com", 1L);
+        like("b@example.com", 2L);
+        like("c@example.com", 1L);
+
+        index.rebuild();
+
+        // Two co-likers out of three users liking either itinerary
+        assertArrayEquals(new long[]{2L}, neighbors(1L));
+        assertEquals(2f / 3f, index.table().weights(row(1L))[0], 1e-6);
+        assertArrayEquals(new long[]{1L}, neighbors(2L));
+    }
+
+    @Test
+    void testRebuildSkipsPairsBelowMinCoLikes() {
+        like("a@example.com", 1L);
+        like("a@example.com", 2L);
+
+        index.rebuild();
+
+        assertEquals(0, neighbors(1L).length);
+    }
+
+    @Test
+    void testRefreshUpdatesRowsOfLikersOtherItineraries() {
+        like("a@example.com", 1L);
+        like("a@example.com", 2L);
+        like("b@example.com", 1L);
+        index.rebuild();
+        assertEquals(0, neighbors(1L).length);
+
+        // Itinerary 1 was no neighbour of 2 before, but its co-likes with 2 changed as well
+        like("b@example.com", 2L);
+        index.markDirty("b@example.com", 2L);
+        index.refreshDirty();
+
+        assertArrayEquals(new long[]{1L}, neighbors(2L));
+        assertArrayEquals(new long[]{2L}, neighbors(1L));
+    }
+
+    @Test
+    void testRefreshKeepsDirtyRowsNewerThanTheSnapshot() {
+        like("a@example.com", 1L);
+        like("a@example.com", 2L);
+        like("b@example.com", 1L);
+        index.rebuild();
+
+        // The refresh still reads the previous snapshot, which misses the like
+        mirror.maxStalenessMs = 60_000L;
+        like("b@example.com", 2L);
+        index.markDirty("b@example.com", 2L);
+        index.refreshDirty();
+        assertEquals(0, neighbors(1L).length);
+
+        mirror.maxStalenessMs = 0L;
+        assertTrue(index.refreshDirty() > 0);
+        assertArrayEquals(new long[]{2L}, neighbors(1L));
+        assertEquals(0, index.refreshDirty());
+    }
+
+    @Test
+    void testUnlikeRemovesSimilarity() {
+        like("a@example.com", 1L);
+        like("a@example.com", 2L);
+        like("b@example.com", 1L);
+        like("b@example.com", 2L);
+        index.rebuild();
+
+        mirror.removeLike("b@example.com", 1L);
+        index.markDirty("b@example.com", 1L);
+        index.refreshDirty();
+
+        assertEquals(0, neighbors(1L).length);
+        assertEquals(0, neighbors(2L).length);
+    }
+
+    @Test
+    void testRefreshRebuildsAfterMirrorReload() {
+        like("a@example.com", 1L);
+        like("a@example.com", 2L);
+        like("b@example.com", 1L);
+        index.rebuild();
+        assertEquals(0, neighbors(1L).length);
+
+        // Another replica recorded b's like of 2; it only arrives with the reload, unmarked
+        GraphMirror.Reload reload = mirror.beginReload();
+        reload.addLike("a@example.com", 1L, 100L);
+        reload.addLike("a@example.com", 2L, 100L);
+        reload.addLike("b@example.com", 1L, 100L);
+        reload.addLike("b@example.com", 2L, 100L);
+        mirror.finishReload(reload);
+        index.refreshDirty();
+
+        assertArrayEquals(new long[]{2L}, neighbors(1L));
+        assertArrayEquals(new long[]{1L}, neighbors(2L));
+    }
+
+    private void like(String userEmail, long itineraryId) {
+        mirror.addLike(userEmail, itineraryId, 1_000L);
+    }
+
+    private int row(long itineraryId) {
+        return mirror.snapshot().itineraryIndex(itineraryId);
+    }
+
+    private long[] neighbors(long itineraryId) {
+        CsrGraph graph = mirror.snapshot();
+        int[] row = index.table().neighbors(graph.itineraryIndex(itineraryId));
+        long[] ids = new long[row.length];
+        for (int n = 0; n < row.length; n++) {
+            ids[n] = graph.itineraryId(row[n]);
+        }
+        return ids;
+    }
+}
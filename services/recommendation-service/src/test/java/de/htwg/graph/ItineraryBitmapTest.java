@@ -0,0 +1,89 @@
+package de.htwg.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItineraryBitmapTest {
+
+    @Test
+    void testAddContainsRemove() {
+        ItineraryBitmap bitmap = new ItineraryBitmap();
+
+        assertTrue(bitmap.add(42L));
+        assertFalse(bitmap.add(42L));
+        assertTrue(bitmap.contains(42L));
+        assertFalse(bitmap.contains(43L));
+        assertEquals(1, bitmap.cardinality());
+
+        assertTrue(bitmap.remove(42L));
+        assertFalse(bitmap.remove(42L));
+        assertFalse(bitmap.contains(42L));
+        assertEquals(0, bitmap.cardinality());
+    }
+
+    @Test
+    void testIdsInDifferentContainers() {
+        ItineraryBitmap bitmap = new ItineraryBitmap();
+        long[] ids = {1L, 65_535L, 65_536L, 1L << 40, Long.MAX_VALUE};
+        for (long id : ids) {
+            assertTrue(bitmap.add(id));
+        }
+
+        for (long id : ids) {
+            assertTrue(bitmap.contains(id));
+        }
+        assertFalse(bitmap.contains(65_537L));
+        assertEquals(ids.length, bitmap.cardinality());
+
+        assertTrue(bitmap.remove(65_536L));
+        assertTrue(bitmap.contains(65_535L));
+        assertFalse(bitmap.contains(65_536L));
+    }
+
+    @Test
+    void testSwitchesToBitmapContainerAndBack() {
+        ItineraryBitmap bitmap = new ItineraryBitmap();
+        // One container past the array limit of 4096 values
+        for (long id = 0; id < 5000; id++) {
+            bitmap.add(id * 3);
+        }
+        assertEquals(5000, bitmap.cardinality());
+        assertTrue(bitmap.contains(4999L * 3));
+        assertFalse(bitmap.contains(4999L * 3 + 1));
+
+        for (long id = 0; id < 1000; id++) {
+            assertTrue(bitmap.remove(id * 3));
+        }
+        assertEquals(4000, bitmap.cardinality());
+        assertFalse(bitmap.contains(0L));
+        assertTrue(bitmap.contains(1000L * 3));
+        assertTrue(bitmap.add(1L));
+        assertTrue(bitmap.contains(1L));
+    }
+
+    @Test
+    void testMatchesHashSetUnderRandomOperations() {
+        ItineraryBitmap bitmap = new ItineraryBitmap();
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(17);
+
+        for (int i = 0; i < 50_000; i++) {
+            long id = random.nextInt(200_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id), bitmap.remove(id));
+            } else {
+                assertEquals(expected.add(id), bitmap.add(id));
+            }
+        }
+
+        assertEquals(expected.size(), bitmap.cardinality());
+        for (long id = 0; id < 200_000; id++) {
+            assertEquals(expected.contains(id), bitmap.contains(id));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package de.htwg.graph;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocationIndexTest {
+
+    private GraphMirror mirror;
+    private LocationIndex index;
+
+    @BeforeEach
+    void setUp() {
+        mirror = new GraphMirror();
+        mirror.enabled = true;
+        mirror.maxStalenessMs = 0L;
+        mirror.init();
+        index = new LocationIndex();
+        index.enabled = true;
+    }
+
+    @Test
+    void testRebuildSortsPostingsByIdWithLikeCounts() {
+        mirror.addItinerary("a@example.com", 3L, List.of("Paris"));
+        mirror.addItinerary("a@example.com", 1L, List.of("Paris", "Rome"));
+        mirror.addLike("b@example.com", 3L, 100L);
+        mirror.addLike("c@example.com", 3L, 200L);
+        mirror.addVisits("b@example.com", List.of("Rome"));
+
+        index.rebuild(mirror);
+
+        LocationIndex.Posting paris = index.posting("Paris");
+        assertTrue(index.isReady());
+        assertEquals(2, paris.size());
+        assertEquals(1L, paris.itineraryId(0));
+        assertEquals(3L, paris.itineraryId(1));
+        assertEquals(0, paris.likes(0));
+        assertEquals(2, paris.likes(1));
+        assertArrayEquals(new String[]{"Rome"}, index.visits("b@example.com"));
+        assertTrue(index.visitors("Rome").contains("b@example.com"));
+    }
+
+    @Test
+    void testAddItineraryKeepsPostingSortedAndLikesAligned() {
+        mirror.addItinerary("a@example.com", 1L, List.of("Paris"));
+        mirror.addItinerary("a@example.com", 5L, List.of("Paris"));
+        mirror.addLike("b@example.com", 5L, 100L);
+        index.rebuild(mirror);
+
+        index.recordLike(3L);
+        index.addItinerary(3L, List.of("Paris", "Paris"));
+
+        LocationIndex.Posting paris = index.posting("Paris");
+        assertEquals(3, paris.size());
+        assertEquals(1L, paris.itineraryId(0));
+        assertEquals(3L, paris.itineraryId(1));
+        assertEquals(5L, paris.itineraryId(2));
+        assertEquals(0, paris.likes(0));
+        assertEquals(1, paris.likes(1));
+        assertEquals(1, paris.likes(2));
+    }
+
+    @Test
+    void testLikesUpdateEveryPostingOfTheItinerary() {
+        index.addItinerary(7L, List.of("Paris", "Rome"));
+
+        index.recordLike(7L);
+        index.recordLike(7L);
+        index.removeLike(7L);
+
+        assertEquals(1, index.posting("Paris").likes(0));
+        assertEquals(1, index.posting("Rome").likes(0));
+    }
+
+    @Test
+    void testUnlikeNeverDropsBelowZero() {
+        index.addItinerary(7L, List.of("Paris"));
+
+        index.removeLike(7L);
+
+        assertEquals(0, index.posting("Paris").likes(0));
+    }
+
+    @Test
+    void testAddVisitsIgnoresDuplicates() {
+        index.addVisits("a@example.com", List.of("Paris", "Rome"));
+        index.addVisits("a@example.com", List.of("Rome", "Oslo"));
+
+        assertArrayEquals(new String[]{"Paris", "Rome", "Oslo"}, index.visits("a@example.com"));
+        assertEquals(1, index.visitors("Rome").size());
+    }
+
+    @Test
+    void testRebuildReflectsWritesNewerThanTheStalenessBound() {
+        mirror.maxStalenessMs = 60_000L;
+        mirror.addItinerary("a@example.com", 1L, List.of("Paris"));
+        index.rebuild(mirror);
+        mirror.snapshot();
+
+        mirror.addItinerary("a@example.com", 2L, List.of("Paris"));
+        index.addItinerary(2L, List.of("Paris"));
+        index.rebuild(mirror);
+
+        assertEquals(2, index.posting("Paris").size());
+    }
+
+    @Test
+    void testRebuildReplaysWritesMadeWhileBuilding() {
+        mirror.addItinerary("a@example.com", 1L, List.of("Paris"));
+        index.rebuild(mirror);
+        GraphMirror racing = new GraphMirror() {
+            @Override
+            public CsrGraph freshSnapshot() {
+                CsrGraph graph = mirror.freshSnapshot();
+                // A like hook that reaches the index after the freeze, before the new maps are swapped in
+                index.recordLike(1L);
+                return graph;
+            }
+        };
+
+        index.rebuild(racing);
+
+        assertEquals(1, index.posting("Paris").likes(0));
+    }
+
+    @Test
+    void testDisabledIndexStaysEmpty() {
+        index.enabled = false;
+
+        index.addItinerary(1L, List.of("Paris"));
+        index.rebuild(mirror);
+
+        assertFalse(index.isReady());
+        assertNull(index.posting("Paris"));
+    }
+}
@@ -0,0 +1,52 @@
+package de.htwg.graph;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKTest {
+
+    @Test
+    void testKeepsHighestScoresInDescendingOrder() {
+        TopK topK = new TopK(3);
+        double[] input = {0.5, 2.0, 0.1, 3.0, 1.0, 2.5};
+        for (int item = 0; item < input.length; item++) {
+            topK.offer(item, input[item]);
+        }
+
+        double[] scores = new double[3];
+        int[] items = topK.drainDescending(scores);
+
+        assertArrayEquals(new int[]{3, 5, 1}, items);
+        assertArrayEquals(new double[]{3.0, 2.5, 2.0}, scores);
+        assertEquals(0, topK.size());
+    }
+
+    @Test
+    void testReturnsFewerItemsThanK() {
+        TopK topK = new TopK(5);
+        topK.offer(7, 1.0);
+        topK.offer(8, 4.0);
+
+        assertEquals(2, topK.size());
+        assertArrayEquals(new int[]{8, 7}, topK.drainDescending(null));
+    }
+
+    @Test
+    void testKeepsIncumbentOnTie() {
+        TopK topK = new TopK(1);
+        topK.offer(1, 1.0);
+        topK.offer(2, 1.0);
+
+        assertArrayEquals(new int[]{1}, topK.drainDescending(null));
+    }
+
+    @Test
+    void testZeroCapacityKeepsNothing() {
+        TopK topK = new TopK(0);
+        topK.offer(1, 1.0);
+
+        assertEquals(0, topK.size());
+        assertEquals(0, topK.drainDescending(null).length);
+    }
+}
@@ -0,0 +1,116 @@
+package de.htwg.graph;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingIndexTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    private TrendingIndex index;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrendingIndex();
+        index.enabled = true;
+        index.halfLife = Duration.ofHours(24);
+        index.topN = 10;
+        index.refreshMs = 0L;
+        index.init();
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    void testLikeOneHalfLifeOlderWeighsHalf() {
+        index.recordLike(1L, now - 24 * HOUR);
+        index.recordLike(2L, now);
+
+        TrendingIndex.Ranking trending = index.trending();
+
+        assertEquals(2, trending.size());
+        assertEquals(2L, trending.itineraryId(0));
+        assertEquals(0.5, trending.score(1) / trending.score(0), 1e-6);
+    }
+
+    @Test
+    void testTrendingPrefersRecentLikesAndPopularCountsAllLikes() {
+        index.recordLike(1L, now - 72 * HOUR);
+        index.recordLike(1L, now - 72 * HOUR);
+        index.recordLike(1L, now - 72 * HOUR);
+        index.recordLike(2L, now - HOUR);
+
+        assertEquals(2L, index.trending().itineraryId(0));
+        assertEquals(1L, index.popular().itineraryId(0));
+        assertEquals(3, index.popular().likes(0));
+    }
+
+    @Test
+    void testRemoveLikeTakesBackItsWeight() {
+        index.recordLike(1L, now - HOUR);
+        index.recordLike(1L, now - 2 * HOUR);
+        double before = index.trending().score(0);
+
+        index.removeLike(1L, now - 2 * HOUR);
+
+        TrendingIndex.Ranking trending = index.trending();
+        assertEquals(1, trending.likes(0));
+        assertTrue(trending.score(0) < before);
+        index.recordLike(2L, now - HOUR);
+        assertEquals(index.trending().score(0), index.trending().score(1), 1e-9);
+    }
+
+    @Test
+    void testRemoveUnknownLikeLeavesScoreUnchanged() {
+        index.recordLike(1L, now - HOUR);
+        double before = index.trending().score(0);
+
+        index.removeLike(1L, -1L);
+        index.removeLike(3L, now);
+
+        TrendingIndex.Ranking trending = index.trending();
+        assertEquals(1, trending.size());
+        assertEquals(1, trending.likes(0));
+        assertEquals(before, trending.score(0), 1e-12);
+    }
+
+    @Test
+    void testRemovingLastLikeDropsItineraryFromRankings() {
+        index.recordLike(1L, now);
+        index.removeLike(1L, now);
+
+        assertEquals(0, index.trending().size());
+        assertEquals(0, index.popular().size());
+    }
+
+    @Test
+    void testReconcileReplacesIndexAndMarksReady() {
+        index.recordLike(9L, now);
+        assertFalse(index.isReady());
+
+        index.reconcile(Map.of(
+                1L, new long[]{now - HOUR, now - 2 * HOUR},
+                2L, new long[]{now - 48 * HOUR}));
+
+        assertTrue(index.isReady());
+        TrendingIndex.Ranking popular = index.popular();
+        assertEquals(2, popular.size());
+        assertEquals(1L, popular.itineraryId(0));
+        assertEquals(2, popular.likes(0));
+        assertEquals(2L, popular.itineraryId(1));
+    }
+
+    @Test
+    void testDisabledIndexIgnoresLikes() {
+        index.enabled = false;
+        index.recordLike(1L, now);
+
+        assertEquals(0, index.trending().size());
+        assertFalse(index.isReady());
+    }
+}
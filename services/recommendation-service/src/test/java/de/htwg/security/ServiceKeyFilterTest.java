@@ -0,0 +1,28 @@
+package de.htwg.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceKeyFilterTest {
+
+    @Test
+    void testMatchingKeyIsAccepted() {
+        assertTrue(ServiceKeyFilter.matches(Optional.of("s3cret"), "s3cret"));
+    }
+
+    @Test
+    void testWrongOrMissingKeyIsRejected() {
+        assertFalse(ServiceKeyFilter.matches(Optional.of("s3cret"), "s3cre"));
+        assertFalse(ServiceKeyFilter.matches(Optional.of("s3cret"), "Bearer s3cret"));
+        assertFalse(ServiceKeyFilter.matches(Optional.of("s3cret"), null));
+    }
+
+    @Test
+    void testUnconfiguredKeyRejectsEverything() {
+        assertFalse(ServiceKeyFilter.matches(Optional.empty(), ""));
+        assertFalse(ServiceKeyFilter.matches(Optional.of(" "), " "));
+    }
+}
@@ -0,0 +1,115 @@
+package de.htwg.service;
+
+import de.htwg.dto.GraphBatchEventDTO;
+import de.htwg.dto.GraphBatchEventResultDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphBatchServiceTest {
+
+    private static final String ALICE = "alice@example.com";
+    private static final String BOB = "bob@example.com";
+
+    @Test
+    void testLikeThenUnlikeWritesOnlyTheUnlike() {
+        List<GraphBatchService.PendingEvent> events = events(
+                ALICE, like(1L),
+                ALICE, unlike(1L));
+
+        GraphBatchService.Plan plan = GraphBatchService.plan(events, new GraphBatchEventResultDTO[events.size()]);
+
+        assertEquals(List.of(), plan.likes());
+        assertEquals(List.of(1), plan.unlikes());
+        assertEquals(1, plan.writtenFor(0));
+    }
+
+    @Test
+    void testChainOfToggles() {
+        List<GraphBatchService.PendingEvent> events = events(
+                ALICE, like(1L),
+                ALICE, unlike(1L),
+                ALICE, like(1L));
+
+        GraphBatchService.Plan plan = GraphBatchService.plan(events, new GraphBatchEventResultDTO[events.size()]);
+
+        assertEquals(List.of(2), plan.likes());
+        assertEquals(List.of(), plan.unlikes());
+        assertEquals(2, plan.writtenFor(0));
+        assertEquals(2, plan.writtenFor(1));
+        assertEquals(2, plan.writtenFor(2));
+    }
+
+    @Test
+    void testDoesNotCoalesceAcrossUsersOrItineraries() {
+        List<GraphBatchService.PendingEvent> events = events(
+                ALICE, like(1L),
+                BOB, unlike(1L),
+                ALICE, unlike(2L));
+
+        GraphBatchService.Plan plan = GraphBatchService.plan(events, new GraphBatchEventResultDTO[events.size()]);
+
+        assertEquals(List.of(0), plan.likes());
+        assertEquals(List.of(1, 2), plan.unlikes());
+        assertTrue(plan.superseded().isEmpty());
+    }
+
+    @Test
+    void testGroupsItinerariesAndVisits() {
+        List<GraphBatchService.PendingEvent> events = events(
+                ALICE, GraphBatchEventDTO.builder().type("itinerary").itineraryId(5L).locationNames(List.of("Rome")).build(),
+                ALICE, GraphBatchEventDTO.builder().type("VISIT").locationNames(List.of("Paris")).build(),
+                ALICE, like(5L));
+
+        GraphBatchEventResultDTO[] results = new GraphBatchEventResultDTO[events.size()];
+        GraphBatchService.Plan plan = GraphBatchService.plan(events, results);
+
+        assertEquals(List.of(0), plan.itineraries());
+        assertEquals(List.of(1), plan.visits());
+        assertEquals(List.of(2), plan.likes());
+        assertEquals(GraphBatchService.ITINERARY, results[0].getType());
+        assertNull(results[0].getStatus());
+    }
+
+    @Test
+    void testRejectsInvalidEventsWithoutPlanningThem() {
+        List<GraphBatchService.PendingEvent> events = events(
+                ALICE, GraphBatchEventDTO.builder().type("LIKE").build(),
+                ALICE, GraphBatchEventDTO.builder().type("ITINERARY").itineraryId(5L).build(),
+                ALICE, GraphBatchEventDTO.builder().type("SHARE").itineraryId(5L).build(),
+                ALICE, GraphBatchEventDTO.builder().build());
+
+        GraphBatchEventResultDTO[] results = new GraphBatchEventResultDTO[events.size()];
+        GraphBatchService.Plan plan = GraphBatchService.plan(events, results);
+
+        assertTrue(plan.likes().isEmpty());
+        assertTrue(plan.itineraries().isEmpty());
+        assertTrue(plan.visits().isEmpty());
+        for (GraphBatchEventResultDTO result : results) {
+            assertEquals(GraphBatchService.REJECTED, result.getStatus());
+        }
+        assertEquals("Itinerary ID is required", results[0].getError());
+        assertEquals("At least one location is required", results[1].getError());
+        assertEquals("Unknown event type: SHARE", results[2].getError());
+        assertEquals("Event type is required", results[3].getError());
+    }
+
+    private static GraphBatchEventDTO like(long itineraryId) {
+        return GraphBatchEventDTO.builder().type("LIKE").itineraryId(itineraryId).build();
+    }
+
+    private static GraphBatchEventDTO unlike(long itineraryId) {
+        return GraphBatchEventDTO.builder().type("UNLIKE").itineraryId(itineraryId).build();
+    }
+
+    private static List<GraphBatchService.PendingEvent> events(Object... userAndEvent) {
+        List<GraphBatchService.PendingEvent> events = new ArrayList<>();
+        for (int i = 0; i < userAndEvent.length; i += 2) {
+            events.add(new GraphBatchService.PendingEvent(i / 2, (String) userAndEvent[i], (GraphBatchEventDTO) userAndEvent[i + 1]));
+        }
+        return events;
+    }
+}
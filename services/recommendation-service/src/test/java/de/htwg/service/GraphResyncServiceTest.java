@@ -0,0 +1,116 @@
+package de.htwg.service;
+
+import de.htwg.dto.ItineraryExportDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphResyncServiceTest {
+
+    private static ItineraryExportDTO row(long id, String userEmail, String... locations) {
+        return ItineraryExportDTO.builder()
+                .id(id)
+                .title("Trip " + id)
+                .userEmail(userEmail)
+                .locationNames(Arrays.asList(locations))
+                .build();
+    }
+
+    private static List<ItineraryExportDTO> page() {
+        List<ItineraryExportDTO> rows = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            rows.add(row(id, "user" + (id % 7) + "@example.com", "Location " + (id % 11), "Location " + (id % 5)));
+        }
+        return rows;
+    }
+
+    @Test
+    void testEveryRoundUsesEachStartAndEndBucketOnce() {
+        for (int partitions = 1; partitions <= 8; partitions++) {
+            int[][] rounds = GraphResyncService.rounds(partitions);
+
+            assertEquals(partitions, rounds.length);
+            Set<Integer> allCells = new HashSet<>();
+            for (int[] round : rounds) {
+                Set<Integer> starts = new HashSet<>();
+                Set<Integer> ends = new HashSet<>();
+                for (int cell : round) {
+                    assertTrue(starts.add(cell / partitions), "start bucket repeated in a round");
+                    assertTrue(ends.add(cell % partitions), "end bucket repeated in a round");
+                    assertTrue(allCells.add(cell), "cell written twice");
+                }
+            }
+            assertEquals(partitions * partitions, allCells.size());
+        }
+    }
+
+    @Test
+    void testPlanPutsEveryNodeInExactlyOneBucket() {
+        int partitions = 4;
+
+        GraphResyncService.PagePlan plan = GraphResyncService.plan(page(), partitions);
+
+        Set<String> users = new HashSet<>();
+        for (Set<String> bucket : plan.users()) {
+            for (String user : bucket) {
+                assertTrue(users.add(user), "user in two buckets: " + user);
+            }
+        }
+        assertEquals(7, users.size());
+        Set<String> locations = new HashSet<>();
+        plan.locations().forEach(locations::addAll);
+        assertEquals(11, locations.size());
+        assertEquals(50, plan.itineraries().stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void testPlanPutsRelationshipsInTheCellOfTheirEndNodes() {
+        int partitions = 3;
+
+        GraphResyncService.PagePlan plan = GraphResyncService.plan(page(), partitions);
+
+        int created = 0;
+        for (int cell = 0; cell < partitions * partitions; cell++) {
+            for (Object row : plan.created().get(cell)) {
+                Map<?, ?> values = (Map<?, ?>) row;
+                assertTrue(plan.users().get(cell / partitions).contains(values.get("userEmail")));
+                assertTrue(bucketHasItinerary(plan.itineraries().get(cell % partitions), values.get("itineraryId")));
+                created++;
+            }
+        }
+        assertEquals(50, created);
+
+        int includes = 0;
+        for (int cell = 0; cell < partitions * partitions; cell++) {
+            for (Object row : plan.includes().get(cell)) {
+                Map<?, ?> values = (Map<?, ?>) row;
+                assertTrue(plan.locations().get(cell / partitions).contains(values.get("location")));
+                assertTrue(bucketHasItinerary(plan.itineraries().get(cell % partitions), values.get("itineraryId")));
+                includes++;
+            }
+        }
+        // Ids 1 to 4 name the same location twice (id % 11 == id % 5), which is written once
+        assertEquals(50 * 2 - 4, includes);
+    }
+
+    @Test
+    void testPlanSkipsBlankAndDuplicateLocations() {
+        GraphResyncService.PagePlan plan = GraphResyncService.plan(
+                List.of(row(1L, "a@example.com", "Paris", " ", "Paris", null)), 2);
+
+        assertEquals(1, plan.includes().stream().mapToInt(List::size).sum());
+        assertEquals(Set.of("Paris"), plan.locations().stream().flatMap(Set::stream).collect(Collectors.toSet()));
+    }
+
+    private static boolean bucketHasItinerary(List<Object> bucket, Object itineraryId) {
+        return bucket.stream().anyMatch(node -> ((Map<?, ?>) node).get("itineraryId").equals(itineraryId));
+    }
+}
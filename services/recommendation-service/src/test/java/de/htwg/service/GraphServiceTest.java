@@ -0,0 +1,113 @@
+package de.htwg.service;
+
+import de.htwg.feed.FeedInbox;
+import de.htwg.graph.GraphMirror;
+import de.htwg.graph.ItemSimilarityIndex;
+import de.htwg.graph.LocationIndex;
+import de.htwg.graph.TrendingIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GraphServiceTest {
+
+    @Mock
+    private GraphMirror graphMirror;
+
+    @Mock
+    private ItemSimilarityIndex itemSimilarityIndex;
+
+    @Mock
+    private TrendingIndex trendingIndex;
+
+    @Mock
+    private LocationIndex locationIndex;
+
+    @Mock
+    private ExclusionCache exclusionCache;
+
+    @Mock
+    private FeedInbox feedInbox;
+
+    @Mock
+    private PopularFeedSnapshot popularFeedSnapshot;
+
+    @InjectMocks
+    private GraphService graphService;
+
+    @Test
+    void testOnLikeRemovedTakesBackKnownLike() {
+        // Given
+        when(graphMirror.removeLike("user@example.com", 7L)).thenReturn(1_000L);
+
+        // When
+        graphService.onLikeRemoved("user@example.com", 7L);
+
+        // Then
+        verify(trendingIndex).removeLike(7L, 1_000L);
+        verify(locationIndex).removeLike(7L);
+        verify(itemSimilarityIndex).markDirty("user@example.com", 7L);
+        verify(exclusionCache).onUnliked("user@example.com", 7L);
+        verify(popularFeedSnapshot).onLikeChanged();
+    }
+
+    @Test
+    void testOnLikeRemovedIgnoresUnknownLike() {
+        // Given
+        when(graphMirror.removeLike("user@example.com", 7L)).thenReturn(-1L);
+
+        // When
+        graphService.onLikeRemoved("user@example.com", 7L);
+
+        // Then
+        verify(trendingIndex, never()).removeLike(anyLong(), anyLong());
+        verify(locationIndex, never()).removeLike(anyLong());
+    }
+
+    @Test
+    void testOnLikeRecordedMovesTimestampOfRepeatedLike() {
+        // Given
+        when(graphMirror.addLike("user@example.com", 7L, 2_000L)).thenReturn(1_000L);
+
+        // When
+        graphService.onLikeRecorded("user@example.com", 7L, 2_000L, false);
+
+        // Then
+        verify(trendingIndex).removeLike(7L, 1_000L);
+        verify(trendingIndex).recordLike(7L, 2_000L);
+        verify(locationIndex, never()).recordLike(anyLong());
+    }
+
+    @Test
+    void testOnLikeRecordedCountsCreatedLike() {
+        // Given
+        when(graphMirror.addLike("user@example.com", 7L, 2_000L)).thenReturn(-1L);
+
+        // When
+        graphService.onLikeRecorded("user@example.com", 7L, 2_000L, true);
+
+        // Then
+        verify(trendingIndex).recordLike(7L, 2_000L);
+        verify(locationIndex).recordLike(7L);
+    }
+
+    @Test
+    void testOnLikeRecordedDoesNotCountExistingLikeUnknownToMirror() {
+        // Given: the like was written by another replica, so the mirror does not know it
+        when(graphMirror.addLike("user@example.com", 7L, 2_000L)).thenReturn(-1L);
+
+        // When
+        graphService.onLikeRecorded("user@example.com", 7L, 2_000L, false);
+
+        // Then
+        verify(trendingIndex, never()).recordLike(anyLong(), anyLong());
+        verify(locationIndex, never()).recordLike(anyLong());
+        verify(exclusionCache).onLiked("user@example.com", 7L);
+    }
+}
@@ -0,0 +1,182 @@
+package de.htwg.service;
+
+import de.htwg.feed.Candidate;
+import de.htwg.feed.CandidateKind;
+import de.htwg.graph.EmbeddingIndex;
+import de.htwg.graph.GraphMirror;
+import de.htwg.graph.ItemSimilarityIndex;
+import de.htwg.graph.LocationIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryRecommenderTest {
+
+    private GraphMirror mirror;
+    private LocationIndex locationIndex;
+    private InMemoryRecommender recommender;
+
+    @BeforeEach
+    void setUp() throws ReflectiveOperationException {
+        // The graph beans' config fields are package-private to de.htwg.graph
+        mirror = new GraphMirror();
+        set(mirror, "enabled", true);
+        set(mirror, "maxStalenessMs", 0L);
+        invoke(mirror, "init");
+        mirror.finishReload(mirror.beginReload());
+        locationIndex = new LocationIndex();
+        set(locationIndex, "enabled", true);
+        recommender = new InMemoryRecommender();
+        recommender.graphMirror = mirror;
+        recommender.locationIndex = locationIndex;
+    }
+
+    private static void set(Object target, String fieldName, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static void invoke(Object target, String methodName) throws ReflectiveOperationException {
+        Method method = target.getClass().getDeclaredMethod(methodName);
+        method.setAccessible(true);
+        method.invoke(target);
+    }
+
+    private void itinerary(long id, int likes, String... locations) {
+        mirror.addItinerary("creator@example.com", id, List.of(locations));
+        for (int n = 0; n < likes; n++) {
+            mirror.addLike("fan" + n + "@example.com", id, 100L + n);
+        }
+    }
+
+    @Test
+    void testLocationIndexMergeCountsOverlapAcrossPostings() {
+        // Given
+        itinerary(1L, 1, "Paris", "Rome", "Oslo");
+        itinerary(2L, 5, "Paris");
+        itinerary(3L, 1, "Rome", "Oslo");
+        itinerary(4L, 2, "Lima");
+        mirror.addVisits("a@example.com", List.of("Paris", "Rome", "Oslo"));
+        locationIndex.rebuild(mirror);
+
+        // When
+        List<Candidate> candidates = recommender.getLocationIndexRecommendations("a@example.com", 10);
+
+        // Then
+        assertEquals(3, candidates.size());
+        assertEquals(1L, candidates.get(0).itineraryId());
+        assertEquals(3 * 3.0 + 0.3, candidates.get(0).score(), 1e-9);
+        assertEquals(3L, candidates.get(1).itineraryId());
+        assertEquals(2 * 3.0 + 0.3, candidates.get(1).score(), 1e-9);
+        assertEquals(2L, candidates.get(2).itineraryId());
+        assertEquals(3.0 + 5 * 0.3, candidates.get(2).score(), 1e-9);
+        assertEquals(CandidateKind.LOCATION, candidates.get(0).kind());
+    }
+
+    @Test
+    void testLocationIndexMergeSkipsUnlikedLikedAndCreated() {
+        // Given
+        itinerary(1L, 0, "Paris");
+        itinerary(2L, 1, "Paris");
+        itinerary(3L, 1, "Paris");
+        mirror.addItinerary("a@example.com", 4L, List.of("Paris"));
+        mirror.addLike("b@example.com", 4L, 100L);
+        mirror.addLike("a@example.com", 2L, 200L);
+        mirror.addVisits("a@example.com", List.of("Paris"));
+        locationIndex.rebuild(mirror);
+
+        // When
+        List<Candidate> candidates = recommender.getLocationIndexRecommendations("a@example.com", 10);
+
+        // Then
+        assertEquals(1, candidates.size());
+        assertEquals(3L, candidates.get(0).itineraryId());
+        assertEquals(1, candidates.get(0).likesCount());
+    }
+
+    @Test
+    void testLocationIndexMergeKeepsBestWithinLimit() {
+        // Given
+        for (long id = 1; id <= 20; id++) {
+            itinerary(id, (int) id, id % 2 == 0 ? "Paris" : "Rome");
+        }
+        mirror.addVisits("a@example.com", List.of("Paris", "Rome"));
+        locationIndex.rebuild(mirror);
+
+        // When
+        List<Candidate> candidates = recommender.getLocationIndexRecommendations("a@example.com", 3);
+
+        // Then
+        assertEquals(List.of(20L, 19L, 18L), candidates.stream().map(Candidate::itineraryId).toList());
+    }
+
+    @Test
+    void testLocationIndexMergeWithoutVisitsIsEmpty() {
+        itinerary(1L, 1, "Paris");
+        locationIndex.rebuild(mirror);
+
+        assertTrue(recommender.getLocationIndexRecommendations("nobody@example.com", 10).isEmpty());
+    }
+
+    @Test
+    void testItemSimilarityRecommendationsSurviveMirrorReload() throws ReflectiveOperationException {
+        // Given
+        String[][] likes = {
+                {"a@example.com", "1"}, {"a@example.com", "2"},
+                {"b@example.com", "1"}, {"b@example.com", "2"}, {"b@example.com", "3"},
+                {"c@example.com", "2"}, {"c@example.com", "3"}, {"c@example.com", "4"},
+                {"d@example.com", "3"}, {"d@example.com", "4"}, {"d@example.com", "1"},
+        };
+        for (String[] like : likes) {
+            mirror.addLike(like[0], Long.parseLong(like[1]), 100L);
+        }
+        ItemSimilarityIndex itemSimilarityIndex = new ItemSimilarityIndex();
+        set(itemSimilarityIndex, "enabled", true);
+        set(itemSimilarityIndex, "topK", 20);
+        set(itemSimilarityIndex, "minCoLikes", 2);
+        set(itemSimilarityIndex, "graphMirror", mirror);
+        itemSimilarityIndex.rebuild();
+        recommender.itemSimilarityIndex = itemSimilarityIndex;
+        List<Candidate> before = recommender.getItemSimilarityRecommendations("a@example.com", 10);
+
+        // When: the same graph is reloaded, streamed in reverse order
+        GraphMirror.Reload reload = mirror.beginReload();
+        for (int n = likes.length - 1; n >= 0; n--) {
+            reload.addLike(likes[n][0], Long.parseLong(likes[n][1]), 100L);
+        }
+        mirror.finishReload(reload);
+
+        // Then
+        assertFalse(before.isEmpty());
+        assertEquals(before, recommender.getItemSimilarityRecommendations("a@example.com", 10));
+    }
+
+    @Test
+    void testEmbeddingRecommendationsFillLimitAfterSkippingMirrorLikes() throws ReflectiveOperationException {
+        // Given: one factor, so the scores follow the itinerary factors 3 > 2 > 1 > 0.5
+        EmbeddingIndex embeddingIndex = new EmbeddingIndex();
+        set(embeddingIndex, "enabled", true);
+        embeddingIndex.publish(new EmbeddingIndex.Model(Map.of("a@example.com", 0), new long[]{1L, 2L, 3L, 4L}, 1,
+                new float[]{1f}, new float[]{3f, 2f, 1f, 0.5f}, new int[][]{{}}));
+        recommender.embeddingIndex = embeddingIndex;
+        itinerary(1L, 0, "Paris");
+        itinerary(2L, 0, "Paris");
+        // Liked after training, so only the mirror knows about it
+        mirror.addLike("a@example.com", 1L, 100L);
+
+        // When
+        List<Candidate> candidates = recommender.getEmbeddingRecommendations("a@example.com", 2);
+
+        // Then
+        assertEquals(List.of(2L, 3L), candidates.stream().map(Candidate::itineraryId).toList());
+        assertEquals(0, candidates.get(0).likesCount());
+        assertEquals(CandidateKind.EMBEDDING, candidates.get(0).kind());
+    }
+}
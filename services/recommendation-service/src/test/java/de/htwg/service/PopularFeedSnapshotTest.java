@@ -0,0 +1,90 @@
+package de.htwg.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.htwg.dto.FeedItemDTO;
+import de.htwg.dto.FeedResponseDTO;
+import de.htwg.filter.AuthorizationHeaderHolder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PopularFeedSnapshotTest {
+
+    private final AtomicInteger builds = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PopularFeedSnapshot popularFeedSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        popularFeedSnapshot = new PopularFeedSnapshot();
+        popularFeedSnapshot.recommendationService = new RecommendationService() {
+            @Override
+            public FeedResponseDTO getPopularFeed(Duration window) {
+                builds.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                List<FeedItemDTO> items = List.of(FeedItemDTO.builder().id(1L).title("Trip").build());
+                return FeedResponseDTO.builder().items(items).totalItems(items.size()).build();
+            }
+        };
+        popularFeedSnapshot.authorizationHeaderHolder = new AuthorizationHeaderHolder();
+        popularFeedSnapshot.objectMapper = new ObjectMapper();
+        popularFeedSnapshot.meterRegistry = new SimpleMeterRegistry();
+        popularFeedSnapshot.refreshInterval = Duration.ofMinutes(5);
+        popularFeedSnapshot.refreshAfterLikes = 100L;
+        popularFeedSnapshot.init();
+    }
+
+    @Test
+    void testConcurrentColdStartBuildsOnce() throws Exception {
+        // Given
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<PopularFeedSnapshot.Snapshot>> results = new ArrayList<>();
+
+        // When
+        for (int n = 0; n < 8; n++) {
+            results.add(callers.submit(popularFeedSnapshot::get));
+        }
+        while (builds.get() == 0) {
+            Thread.onSpinWait();
+        }
+        // Give the other callers time to reach the in-flight build before it completes
+        Thread.sleep(100);
+        release.countDown();
+
+        // Then
+        PopularFeedSnapshot.Snapshot first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<PopularFeedSnapshot.Snapshot> result : results) {
+            assertSame(first, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, builds.get());
+        assertEquals(1, first.items());
+        callers.shutdownNow();
+    }
+
+    @Test
+    void testWarmSnapshotIsServedWithoutBuilding() {
+        release.countDown();
+        PopularFeedSnapshot.Snapshot built = popularFeedSnapshot.get();
+
+        PopularFeedSnapshot.Snapshot served = popularFeedSnapshot.get();
+
+        assertSame(built, served);
+        assertEquals(1, builds.get());
+    }
+}
@@ -0,0 +1,107 @@
+package de.htwg.service;
+
+import de.htwg.feed.Candidate;
+import de.htwg.graph.GraphMirror;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RandomWalkRecommenderTest {
+
+    private GraphMirror mirror;
+    private RandomWalkRecommender recommender;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws ReflectiveOperationException {
+        mirror = new GraphMirror();
+        set(mirror, "enabled", true);
+        set(mirror, "maxStalenessMs", 0L);
+        invoke(mirror, "init");
+        mirror.finishReload(mirror.beginReload());
+        // a likes 1, b likes 1 and 2: every walk from 1 can reach 2
+        mirror.addLike("a@example.com", 1L, 100L);
+        mirror.addLike("b@example.com", 1L, 100L);
+        mirror.addLike("b@example.com", 2L, 100L);
+
+        recommender = new RandomWalkRecommender();
+        recommender.graphMirror = mirror;
+        recommender.enabled = true;
+        recommender.stepBudget = 1000;
+        recommender.roundSteps = 100;
+        recommender.restartProbability = 0.3;
+        recommender.threads = 1;
+        recommender.stableOverlap = 0.9;
+        recommender.queueCapacity = 1;
+        recommender.timeoutMs = 5000L;
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        recommender.shutdown();
+    }
+
+    private static void set(Object target, String fieldName, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static void invoke(Object target, String methodName) throws ReflectiveOperationException {
+        Method method = target.getClass().getDeclaredMethod(methodName);
+        method.setAccessible(true);
+        method.invoke(target);
+    }
+
+    private void blockWalker() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        recommender.walkers.submit(() -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        started.await();
+    }
+
+    @Test
+    void testWalksReachItinerariesOfCoLikers() {
+        recommender.init();
+
+        List<Candidate> candidates = recommender.getRandomWalkRecommendations("a@example.com", 10);
+
+        assertEquals(1, candidates.size());
+        assertEquals(2L, candidates.get(0).itineraryId());
+    }
+
+    @Test
+    void testFullQueueReturnsEmptyInsteadOfWaiting() throws InterruptedException {
+        recommender.init();
+        blockWalker();
+        recommender.walkers.submit(() -> null);
+
+        List<Candidate> candidates = recommender.getRandomWalkRecommendations("a@example.com", 10);
+
+        assertTrue(candidates.isEmpty());
+    }
+
+    @Test
+    void testBusyWalkersTimeOut() throws InterruptedException {
+        recommender.timeoutMs = 50L;
+        recommender.init();
+        blockWalker();
+
+        long start = System.currentTimeMillis();
+        List<Candidate> candidates = recommender.getRandomWalkRecommendations("a@example.com", 10);
+
+        assertTrue(candidates.isEmpty());
+        assertTrue(System.currentTimeMillis() - start < 2000L);
+    }
+}